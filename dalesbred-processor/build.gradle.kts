@@ -0,0 +1,13 @@
+description = "Dalesbred - annotation processor for generating instantiators at compile time"
+
+plugins {
+    id("dalesbred.java-library-conventions")
+    kotlin("jvm")
+}
+
+dependencies {
+    testImplementation(project(":dalesbred"))
+    testImplementation(kotlin("test"))
+    testImplementation(libs.junit.jupiter.api)
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
@@ -0,0 +1,5 @@
+module org.dalesbred.processor {
+    requires java.compiler;
+
+    provides javax.annotation.processing.Processor with org.dalesbred.processor.DalesbredProcessor;
+}
@@ -0,0 +1,305 @@
+package org.dalesbred.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates instantiators for classes that have a constructor or a static method marked with
+ * {@code @DalesbredInstantiator} and for records marked with {@code @DalesbredRecord}. At runtime
+ * Dalesbred uses the generated instantiators instead of discovering the constructors reflectively.
+ * <p>
+ * Types that the generated code can't access (private classes or private constructors) are skipped,
+ * so that Dalesbred falls back to reflection for them.
+ */
+public final class DalesbredProcessor extends AbstractProcessor {
+
+    static final String INSTANTIATOR_ANNOTATION = "org.dalesbred.annotation.DalesbredInstantiator";
+
+    static final String RECORD_ANNOTATION = "org.dalesbred.annotation.DalesbredRecord";
+
+    private static final String GENERATED_INSTANTIATOR = "org.dalesbred.instantiation.GeneratedInstantiator";
+
+    private static final String CLASS_NAME_SUFFIX = "_DalesbredInstantiator";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(INSTANTIATOR_ANNOTATION, RECORD_ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, ExecutableElement> instantiators = new LinkedHashMap<>();
+
+        TypeElement instantiatorAnnotation = processingEnv.getElementUtils().getTypeElement(INSTANTIATOR_ANNOTATION);
+        if (instantiatorAnnotation != null) {
+            for (ExecutableElement element : ElementFilter.constructorsIn(roundEnv.getElementsAnnotatedWith(instantiatorAnnotation)))
+                addInstantiator(instantiators, element);
+
+            for (ExecutableElement element : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(instantiatorAnnotation)))
+                if (isValidFactoryMethod(element))
+                    addInstantiator(instantiators, element);
+        }
+
+        TypeElement recordAnnotation = processingEnv.getElementUtils().getTypeElement(RECORD_ANNOTATION);
+        if (recordAnnotation != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(recordAnnotation)) {
+                if (element.getKind() != ElementKind.RECORD) {
+                    error(element, "@DalesbredRecord can only be used on records");
+                    continue;
+                }
+
+                TypeElement record = (TypeElement) element;
+                if (!instantiators.containsKey(record) && !hasExplicitInstantiator(record, instantiatorAnnotation)) {
+                    ExecutableElement constructor = findCanonicalConstructor(record);
+                    if (constructor != null)
+                        instantiators.put(record, constructor);
+                }
+            }
+        }
+
+        instantiators.forEach((type, instantiator) -> {
+            if (isAccessible(type, instantiator))
+                generate(type, instantiator);
+        });
+
+        return false;
+    }
+
+    private void addInstantiator(Map<TypeElement, ExecutableElement> instantiators, ExecutableElement element) {
+        TypeElement type = (TypeElement) element.getEnclosingElement();
+        if (instantiators.putIfAbsent(type, element) != null)
+            error(element, "only one constructor/method of " + type.getQualifiedName() + " can be marked with @DalesbredInstantiator");
+    }
+
+    private boolean isValidFactoryMethod(ExecutableElement method) {
+        // Non-static methods are ignored at runtime as well
+        if (!method.getModifiers().contains(Modifier.STATIC))
+            return false;
+
+        TypeElement type = (TypeElement) method.getEnclosingElement();
+        if (!processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(method.getReturnType()), processingEnv.getTypeUtils().erasure(type.asType()))) {
+            error(method, "Instantiator method " + method.getSimpleName() + " does not return " + type.getQualifiedName() + " but " + method.getReturnType());
+            return false;
+        }
+
+        return true;
+    }
+
+    private static boolean hasExplicitInstantiator(TypeElement type, TypeElement instantiatorAnnotation) {
+        if (instantiatorAnnotation == null)
+            return false;
+
+        for (Element member : type.getEnclosedElements())
+            for (AnnotationMirror annotation : member.getAnnotationMirrors())
+                if (annotation.getAnnotationType().asElement().equals(instantiatorAnnotation))
+                    return true;
+
+        return false;
+    }
+
+    private ExecutableElement findCanonicalConstructor(TypeElement record) {
+        List<TypeMirror> componentTypes = new ArrayList<>();
+        for (RecordComponentElement component : record.getRecordComponents())
+            componentTypes.add(processingEnv.getTypeUtils().erasure(component.asType()));
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(record.getEnclosedElements())) {
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (parameters.size() != componentTypes.size())
+                continue;
+
+            boolean matches = true;
+            for (int i = 0; i < parameters.size() && matches; i++)
+                matches = processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(parameters.get(i).asType()), componentTypes.get(i));
+
+            if (matches)
+                return constructor;
+        }
+
+        error(record, "could not find canonical constructor of " + record.getQualifiedName());
+        return null;
+    }
+
+    /**
+     * Returns true if the generated class, residing in the same package, can invoke the instantiator.
+     */
+    private boolean isAccessible(TypeElement type, ExecutableElement instantiator) {
+        if (instantiator.getModifiers().contains(Modifier.PRIVATE)) {
+            note(instantiator, "not generating instantiator for " + type.getQualifiedName() + " because the instantiator is private");
+            return false;
+        }
+
+        if (type.getNestingKind() == NestingKind.MEMBER && type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.STATIC)) {
+            note(type, "not generating instantiator for inner class " + type.getQualifiedName());
+            return false;
+        }
+
+        if (!type.getTypeParameters().isEmpty()) {
+            note(type, "not generating instantiator for generic class " + type.getQualifiedName());
+            return false;
+        }
+
+        for (Element e = type; e instanceof TypeElement enclosing; e = e.getEnclosingElement()) {
+            NestingKind nesting = enclosing.getNestingKind();
+            if (nesting != NestingKind.TOP_LEVEL && nesting != NestingKind.MEMBER) {
+                note(type, "not generating instantiator for local or anonymous class " + type.getQualifiedName());
+                return false;
+            }
+
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                note(type, "not generating instantiator for " + type.getQualifiedName() + " because it is not accessible from its package");
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void generate(TypeElement type, ExecutableElement instantiator) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String className = generatedSimpleName(type, packageName);
+        String qualifiedName = packageName.isEmpty() ? className : packageName + '.' + className;
+        String typeName = type.getQualifiedName().toString();
+
+        List<? extends VariableElement> parameters = instantiator.getParameters();
+
+        StringBuilder parameterTypes = new StringBuilder();
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            TypeMirror parameterType = parameters.get(i).asType();
+            if (i != 0) {
+                parameterTypes.append(",\n            ");
+                arguments.append(",\n                ");
+            }
+            parameterTypes.append(typeExpression(parameterType));
+            arguments.append('(').append(castTypeName(parameterType)).append(") arguments[").append(i).append(']');
+        }
+
+        String invocation = instantiator.getKind() == ElementKind.CONSTRUCTOR
+                ? "new " + typeName
+                : typeName + '.' + instantiator.getSimpleName();
+
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty())
+            sb.append("package ").append(packageName).append(";\n\n");
+
+        sb.append("/**\n");
+        sb.append(" * Instantiator for {@link ").append(typeName).append("}, generated by dalesbred-processor.\n");
+        sb.append(" */\n");
+        sb.append("public final class ").append(className).append(" implements ").append(GENERATED_INSTANTIATOR).append('<').append(typeName).append("> {\n\n");
+        sb.append("    private static final java.util.List<java.lang.reflect.Type> PARAMETER_TYPES = java.util.List.of(");
+        if (!parameters.isEmpty())
+            sb.append("\n            ").append(parameterTypes);
+        sb.append(");\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public java.util.List<java.lang.reflect.Type> getParameterTypes() {\n");
+        sb.append("        return PARAMETER_TYPES;\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("    public ").append(typeName).append(" instantiate(java.lang.Object[] arguments) throws java.lang.Exception {\n");
+        sb.append("        return ").append(invocation).append('(');
+        if (!parameters.isEmpty())
+            sb.append("\n                ").append(arguments);
+        sb.append(");\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(sb.toString());
+            }
+        } catch (IOException e) {
+            error(type, "failed to write " + qualifiedName + ": " + e);
+        }
+    }
+
+    /**
+     * Returns the name of the generated class. Must be kept in sync with {@code GeneratedInstantiator.generatedClassName}.
+     */
+    private String generatedSimpleName(TypeElement type, String packageName) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String flatName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return flatName.replace('$', '_') + CLASS_NAME_SUFFIX;
+    }
+
+    /**
+     * Returns an expression that evaluates to {@code java.lang.reflect.Type} describing given type.
+     */
+    private String typeExpression(TypeMirror type) {
+        switch (type.getKind()) {
+            case DECLARED: {
+                DeclaredType declaredType = (DeclaredType) type;
+                String rawName = rawTypeName(declaredType);
+                List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+                if (typeArguments.isEmpty())
+                    return rawName + ".class";
+
+                StringBuilder sb = new StringBuilder(GENERATED_INSTANTIATOR).append(".parameterizedType(").append(rawName).append(".class");
+                for (TypeMirror argument : typeArguments)
+                    sb.append(", ").append(typeExpression(argument));
+                return sb.append(')').toString();
+            }
+            case WILDCARD: {
+                TypeMirror bound = ((WildcardType) type).getExtendsBound();
+                return bound != null ? typeExpression(bound) : "java.lang.Object.class";
+            }
+            default:
+                return erasedTypeName(type) + ".class";
+        }
+    }
+
+    /**
+     * Returns the name of the type to which the argument is cast. Primitives are cast to their wrappers
+     * since the arguments are boxed.
+     */
+    private String castTypeName(TypeMirror type) {
+        if (type.getKind().isPrimitive())
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        else
+            return erasedTypeName(type);
+    }
+
+    /**
+     * Returns the source name of the erasure of given type, without any type-annotations.
+     */
+    private String erasedTypeName(TypeMirror type) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        switch (erasure.getKind()) {
+            case DECLARED:
+                return rawTypeName((DeclaredType) erasure);
+            case ARRAY:
+                return erasedTypeName(((ArrayType) erasure).getComponentType()) + "[]";
+            case BOOLEAN: case BYTE: case SHORT: case INT: case LONG: case CHAR: case FLOAT: case DOUBLE:
+                return erasure.getKind().name().toLowerCase(Locale.ROOT);
+            default:
+                return "java.lang.Object";
+        }
+    }
+
+    private static String rawTypeName(DeclaredType type) {
+        return ((TypeElement) type.asElement()).getQualifiedName().toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+}
@@ -0,0 +1,201 @@
+package org.dalesbred.processor
+
+import org.dalesbred.dialect.DefaultDialect
+import org.dalesbred.instantiation.GeneratedInstantiator
+import org.dalesbred.internal.instantiation.InstantiatorArguments
+import org.dalesbred.internal.instantiation.InstantiatorProvider
+import org.dalesbred.internal.instantiation.NamedTypeList
+import org.dalesbred.result.UnexpectedResultException
+import org.junit.jupiter.api.io.TempDir
+import java.io.StringWriter
+import java.net.URLClassLoader
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.Optional
+import javax.tools.ToolProvider
+import kotlin.test.*
+
+class DalesbredProcessorTest {
+
+    @TempDir
+    lateinit var tempDir: Path
+
+    @Test
+    fun `generate instantiator for annotated constructor`() {
+        val instantiator = compileAndLoad(
+            "com.example.Person", """
+            package com.example;
+
+            import org.dalesbred.annotation.DalesbredInstantiator;
+            import java.util.Optional;
+
+            public class Person {
+                final String value;
+
+                public Person() { this.value = "default"; }
+
+                @DalesbredInstantiator
+                Person(String name, int age, Optional<String> email) { this.value = name + "/" + age + "/" + email.orElse("-"); }
+
+                public String toString() { return value; }
+            }
+            """
+        )
+
+        assertEquals(
+            listOf(String::class.java, Int::class.javaPrimitiveType, GeneratedInstantiator.parameterizedType(Optional::class.java, String::class.java)),
+            instantiator.parameterTypes
+        )
+        assertEquals("Fred/42/-", instantiator.instantiate(arrayOf("Fred", 42, Optional.empty<String>())).toString())
+    }
+
+    @Test
+    fun `generate instantiator for static factory method of nested class`() {
+        val instantiator = compileAndLoad(
+            "com.example.Outer\$Inner", """
+            package com.example;
+
+            import org.dalesbred.annotation.DalesbredInstantiator;
+
+            public class Outer {
+                public static class Inner {
+                    final String value;
+
+                    private Inner(String value) { this.value = value; }
+
+                    @DalesbredInstantiator
+                    static Inner create(String value) { return new Inner("created: " + value); }
+
+                    public String toString() { return value; }
+                }
+            }
+            """
+        )
+
+        assertEquals(listOf(String::class.java), instantiator.parameterTypes)
+        assertEquals("created: foo", instantiator.instantiate(arrayOf("foo")).toString())
+    }
+
+    @Test
+    fun `generate instantiator for opted in record`() {
+        val instantiator = compileAndLoad(
+            "com.example.Point", """
+            package com.example;
+
+            @org.dalesbred.annotation.DalesbredRecord
+            public record Point(int x, int y) {
+                public Point(int x) { this(x, 0); }
+            }
+            """
+        )
+
+        assertEquals(listOf(Int::class.javaPrimitiveType, Int::class.javaPrimitiveType), instantiator.parameterTypes)
+        assertEquals("Point[x=1, y=2]", instantiator.instantiate(arrayOf(1, 2)).toString())
+    }
+
+    @Test
+    fun `nulls for primitive parameters of generated instantiators are rejected`() {
+        val cl = compileAndLoadClass(
+            "com.example.Point", """
+            package com.example;
+
+            @org.dalesbred.annotation.DalesbredRecord
+            public record Point(int x, int y) { }
+            """
+        )
+
+        val types = NamedTypeList.builder(2).add("x", Integer::class.java).add("y", Integer::class.java).build()
+        val instantiator = InstantiatorProvider(DefaultDialect()).findInstantiator(cl, types)
+
+        assertEquals("Point[x=1, y=2]", instantiator.instantiate(InstantiatorArguments(types, listOf(1, 2))).toString())
+        val e = assertFailsWith<UnexpectedResultException> {
+            instantiator.instantiate(InstantiatorArguments(types, listOf(1, null)))
+        }
+        assertEquals("Expected primitive value, but got null for column 'y'", e.message)
+    }
+
+    @Test
+    fun `private instantiators are left for reflection`() {
+        val classes = compile(
+            "com.example.Secret", """
+            package com.example;
+
+            public class Secret {
+                @org.dalesbred.annotation.DalesbredInstantiator
+                private Secret(String value) { }
+            }
+            """
+        )
+
+        assertFalse(Files.exists(classes.resolve("com/example/Secret_DalesbredInstantiator.class")))
+    }
+
+    @Test
+    fun `multiple instantiators are reported as errors`() {
+        val failure = assertFailsWith<AssertionError> {
+            compile(
+                "com.example.Ambiguous", """
+                package com.example;
+
+                import org.dalesbred.annotation.DalesbredInstantiator;
+
+                public class Ambiguous {
+                    @DalesbredInstantiator public Ambiguous(String s) { }
+                    @DalesbredInstantiator public Ambiguous(int x) { }
+                }
+                """
+            )
+        }
+
+        assertTrue(failure.message!!.contains("only one constructor/method"), failure.message)
+    }
+
+    @Test
+    fun `record annotation on class is reported as error`() {
+        assertFailsWith<AssertionError> {
+            compile(
+                "com.example.NotRecord", """
+                package com.example;
+
+                @org.dalesbred.annotation.DalesbredRecord
+                public class NotRecord { }
+                """
+            )
+        }
+    }
+
+    private fun compileAndLoad(className: String, source: String): GeneratedInstantiator<*> {
+        val cl = compileAndLoadClass(className, source)
+
+        val generatedName = GeneratedInstantiator.generatedClassName(cl)
+        return cl.classLoader.loadClass(generatedName).getConstructor().newInstance() as GeneratedInstantiator<*>
+    }
+
+    private fun compileAndLoadClass(className: String, source: String): Class<*> {
+        val classes = compile(className.substringBefore('$'), source)
+        val loader = URLClassLoader(arrayOf(classes.toUri().toURL()), javaClass.classLoader)
+
+        return loader.loadClass(className)
+    }
+
+    private fun compile(className: String, source: String): Path {
+        val sourceFile = tempDir.resolve("src/${className.replace('.', '/')}.java")
+        Files.createDirectories(sourceFile.parent)
+        Files.writeString(sourceFile, source.trimIndent())
+
+        val classes = Files.createDirectories(tempDir.resolve("classes"))
+        val compiler = ToolProvider.getSystemJavaCompiler()
+        val output = StringWriter()
+
+        compiler.getStandardFileManager(null, null, null).use { fileManager ->
+            val options = listOf("-classpath", System.getProperty("java.class.path"), "-d", classes.toString())
+            val task = compiler.getTask(output, fileManager, null, options, null, fileManager.getJavaFileObjects(sourceFile))
+            task.setProcessors(listOf(DalesbredProcessor()))
+
+            if (!task.call())
+                throw AssertionError("compilation failed: $output")
+        }
+
+        return classes
+    }
+}
@@ -1,6 +1,7 @@
 module org.dalesbred {
     requires transitive java.sql;
     requires java.naming;
+    requires java.sql.rowset;
     requires java.xml;
 
     requires org.slf4j;
@@ -20,6 +21,7 @@ module org.dalesbred {
     exports org.dalesbred.conversion;
     exports org.dalesbred.datatype;
     exports org.dalesbred.dialect;
+    exports org.dalesbred.instantiation;
     exports org.dalesbred.integration.joda;
     exports org.dalesbred.integration.kotlin;
     exports org.dalesbred.integration.spring;
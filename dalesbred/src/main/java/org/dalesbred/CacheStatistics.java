@@ -0,0 +1,64 @@
+package org.dalesbred;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Snapshot of the statistics of one of the internal caches of Dalesbred.
+ */
+public final class CacheStatistics {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long evictionCount;
+
+    private final int size;
+
+    public CacheStatistics(long hitCount, long missCount, long evictionCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of lookups that found a cached value.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a cached value.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the total number of lookups.
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Returns the number of entries that were removed from the cache to make room for new ones.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of entries in the cache at the time the snapshot was taken.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "CacheStatistics [hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + ", size=" + size + ']';
+    }
+}
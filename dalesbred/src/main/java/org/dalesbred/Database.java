@@ -8,6 +8,7 @@ import org.dalesbred.dialect.Dialect;
 import org.dalesbred.internal.instantiation.InstantiatorProvider;
 import org.dalesbred.internal.utils.JndiUtils;
 import org.dalesbred.query.SqlQuery;
+import org.dalesbred.result.RowMappingEngine;
 import org.dalesbred.transaction.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -195,6 +196,7 @@ public final class Database extends DatabaseAccess {
     /**
      * Returns true if and only if the current thread has an active transaction for this database.
      */
+    @Override
     public boolean hasActiveTransaction() {
         return transactionManager.hasActiveTransaction();
     }
@@ -229,6 +231,91 @@ public final class Database extends DatabaseAccess {
         return instantiatorRegistry.getTypeConversionRegistry();
     }
 
+    /**
+     * Returns statistics of the cache that holds the instantiators resolved for each combination of
+     * target type and result columns.
+     */
+    public @NotNull CacheStatistics getInstantiatorCacheStatistics() {
+        return instantiatorRegistry.getInstantiatorCacheStatistics();
+    }
+
+    /**
+     * Returns the engine used for mapping rows into instances of classes.
+     */
+    public @NotNull RowMappingEngine getRowMappingEngine() {
+        return instantiatorRegistry.getRowMappingEngine();
+    }
+
+    /**
+     * Selects the engine used for mapping rows into instances of classes. Defaults to
+     * {@link RowMappingEngine#REFLECTION}.
+     *
+     * @see RowMappingEngine
+     */
+    public void setRowMappingEngine(@NotNull RowMappingEngine rowMappingEngine) {
+        instantiatorRegistry.setRowMappingEngine(rowMappingEngine);
+    }
+
+    /**
+     * Returns whether the shapes of results are cached by SQL.
+     */
+    public boolean isResultShapeCacheEnabled() {
+        return instantiatorRegistry.getResultShapeCache().isEnabled();
+    }
+
+    /**
+     * Controls whether the names and types of result columns are cached by the SQL of the query, so that
+     * executing the same query again does not need to introspect {@link java.sql.ResultSetMetaData} column
+     * by column. Cached shapes are validated against the column count of the result and recomputed if it
+     * has changed, but changes that keep the column count (e.g. altering the type of a column behind
+     * {@code select *}) are not detected. Therefore the cache is disabled by default.
+     */
+    public void setResultShapeCacheEnabled(boolean resultShapeCacheEnabled) {
+        instantiatorRegistry.getResultShapeCache().setEnabled(resultShapeCacheEnabled);
+    }
+
+    /**
+     * Returns statistics of the cache that holds the shapes of results by SQL.
+     *
+     * @see #setResultShapeCacheEnabled(boolean)
+     */
+    public @NotNull CacheStatistics getResultShapeCacheStatistics() {
+        return instantiatorRegistry.getResultShapeCache().getStatistics();
+    }
+
+    /**
+     * Returns the maximum amount of prepared statements cached for each connection.
+     */
+    public int getStatementCacheSize() {
+        return transactionManager instanceof DefaultTransactionManager tm ? tm.getStatementCacheSize() : 0;
+    }
+
+    /**
+     * Sets the maximum amount of prepared statements cached for each connection, or zero to disable
+     * caching (the default). Statements are cached for the lifetime of the physical connection, so when
+     * a connection pool hands the same connection to subsequent transactions, the statements are reused
+     * across them, unless the pool closes the statements prepared through a connection when it is released.
+     * Changing the size closes the existing caches. Caching is supported only when transactions are managed
+     * by {@link DefaultTransactionManager}.
+     *
+     * @throws UnsupportedOperationException if trying to enable caching with another transaction manager
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (transactionManager instanceof DefaultTransactionManager tm)
+            tm.setStatementCacheSize(statementCacheSize);
+        else if (statementCacheSize != 0)
+            throw new UnsupportedOperationException("Statement caching is not supported by " + transactionManager.getClass().getName());
+    }
+
+    /**
+     * Returns statistics of the caches of prepared statements.
+     *
+     * @see #setStatementCacheSize(int)
+     */
+    public @NotNull CacheStatistics getStatementCacheStatistics() {
+        return transactionManager instanceof DefaultTransactionManager tm ? tm.getStatementCacheStatistics() : new CacheStatistics(0, 0, 0, 0);
+    }
+
     /**
      * Returns whether queries outside an active transaction will start a fresh transaction (true, the default)
      * or throw {@link NoActiveTransactionException} (false).
@@ -2,13 +2,33 @@ package org.dalesbred;
 
 import org.dalesbred.dialect.Dialect;
 import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.instantiation.NamedTypeList;
+import org.dalesbred.internal.jdbc.MultiRowInsert;
+import org.dalesbred.internal.jdbc.RowPrefetcher;
+import org.dalesbred.internal.jdbc.PreparedStatementCache;
+import org.dalesbred.internal.jdbc.StatementCacheOwner;
+import org.dalesbred.internal.result.AggregateResultSetProcessor;
 import org.dalesbred.internal.result.InstantiatorRowMapper;
+import org.dalesbred.internal.result.IntKeyMapResultSetProcessor;
+import org.dalesbred.internal.result.KeyValueResultSetProcessor;
+import org.dalesbred.internal.result.LongKeyMapResultSetProcessor;
 import org.dalesbred.internal.result.MapResultSetProcessor;
+import org.dalesbred.internal.result.ParallelResultSetSpliterator;
+import org.dalesbred.internal.result.PrefetchingListResultSetProcessor;
+import org.dalesbred.internal.result.PrimitiveArrayResultSetProcessors;
+import org.dalesbred.internal.result.ResultSetSpliterator;
 import org.dalesbred.internal.result.ResultTableResultSetProcessor;
+import org.dalesbred.internal.result.RowViewResultSetProcessor;
+import org.dalesbred.query.BatchSize;
 import org.dalesbred.query.FetchDirection;
+import org.dalesbred.query.NamedParameterBatch;
 import org.dalesbred.query.SqlQuery;
+import org.dalesbred.query.WarmUpQuery;
+import org.dalesbred.query.WarmUpResult;
 import org.dalesbred.result.*;
+import org.dalesbred.transaction.NoActiveTransactionException;
 import org.dalesbred.transaction.TransactionCallback;
+import org.dalesbred.transaction.TransactionContext;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -18,8 +38,14 @@ import org.slf4j.LoggerFactory;
 import java.sql.*;
 import java.time.Duration;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
 
-import static org.dalesbred.internal.utils.OptionalUtils.unwrapOptionalAsNull;
 
 /**
  * Abstract base class for database access, providing all query and update operations
@@ -57,27 +83,88 @@ public abstract class DatabaseAccess {
      **/
     private @Nullable Duration defaultTimeout;
 
+    /**
+     * estimated bytes of rows that {@link #findTable(SqlQuery)} keeps in memory before spilling to a temporary file
+     */
+    private volatile long resultTableMemoryBudget = Long.MAX_VALUE;
+
+    /**
+     * whether batch updates of single-row inserts are executed as multi-row inserts
+     */
+    private volatile boolean multiRowInsertsEnabled = false;
+
     /**
      * Executes a query and processes the results with given {@link ResultSetProcessor}.
      * All other findXXX-methods are just convenience methods for this one.
+     *
+     * @throws IllegalArgumentException if {@link SqlQuery#isPrefetch() prefetching} is enabled for the query
      */
     @SuppressWarnings("SqlSourceToSinkFlow")
     public <T> T executeQuery(@NotNull ResultSetProcessor<T> processor, @NotNull SqlQuery query) {
+        rejectPrefetch(query);
+        return executeQuery(processor, query, null);
+    }
+
+    /**
+     * Executes a query and processes the results with given processor. If streaming fetch size is given, the
+     * statement is configured for streaming the results and the fetch size is requested from the dialect unless
+     * the query specifies one.
+     */
+    private <T> T executeQuery(@NotNull ResultSetProcessor<T> processor, @NotNull SqlQuery query, @Nullable Integer streamingFetchSize) {
         return withCurrentTransaction(query, tx -> {
             logQuery(query);
 
-            try (PreparedStatement ps = tx.getConnection().prepareStatement(query.getSql())) {
+            boolean autoCommitDisabled = streamingFetchSize != null && disableAutoCommitForStreaming(tx.getConnection());
+            try (PreparedStatementCache.Lease lease = prepareStatement(tx, query.getSql())) {
+                PreparedStatement ps = lease.getStatement();
                 prepareStatementFromQuery(ps, query);
+                if (streamingFetchSize != null)
+                    dialect.prepareStreamingStatement(ps, requestedFetchSize(query, streamingFetchSize));
 
                 long startTime = System.nanoTime();
                 try (ResultSet resultSet = ps.executeQuery()) {
                     logQueryExecution(query, System.nanoTime() - startTime);
+
                     return processor.process(resultSet);
                 }
+            } finally {
+                if (autoCommitDisabled)
+                    tx.getConnection().setAutoCommit(true);
             }
         });
     }
 
+    /**
+     * Disables auto-commit of given connection if it is enabled and the dialect streams results only without it.
+     * Returns true if auto-commit was disabled and must be enabled again after the results have been read.
+     */
+    private boolean disableAutoCommitForStreaming(@NotNull Connection connection) throws SQLException {
+        if (!dialect.isAutoCommitDisabledForStreaming() || !connection.getAutoCommit())
+            return false;
+
+        connection.setAutoCommit(false);
+        return true;
+    }
+
+    /**
+     * Throws if prefetching is enabled for given query, since only {@link #findAll(Class, SqlQuery)} can prefetch
+     * the rows and other methods would silently read them without prefetching.
+     */
+    private static void rejectPrefetch(@NotNull SqlQuery query) {
+        if (query.isPrefetch())
+            throw new IllegalArgumentException("Prefetching is supported only by findAll(Class, SqlQuery), but it was enabled for: " + query);
+    }
+
+    /**
+     * Returns the fetch size to request from the dialect for a streamed query, or 0 if there is none.
+     */
+    private static int requestedFetchSize(@NotNull SqlQuery query, @Nullable Integer defaultFetchSize) {
+        Integer fetchSize = query.getFetchSize();
+        if (fetchSize != null)
+            return fetchSize;
+        return defaultFetchSize != null ? defaultFetchSize : 0;
+    }
+
     /**
      * Executes a query and processes the results with given {@link ResultSetProcessor}.
      *
@@ -87,6 +174,59 @@ public abstract class DatabaseAccess {
         return executeQuery(processor, SqlQuery.query(sql, args));
     }
 
+    /**
+     * Prepares given queries without executing them and resolves the instantiators and conversions for
+     * mapping their results, so that the first real executions don't need to. This is meant to be called
+     * on startup, before the application starts serving requests.
+     *
+     * <p>The results are described using {@link PreparedStatement#getMetaData()}. If the driver can't describe
+     * the results of a query without executing it, the statement is only prepared. If the result of a query
+     * can't be mapped to its result type, this method throws the same exception as executing the query would.
+     *
+     * @return the time spent on each query, in the order of given queries
+     */
+    public @NotNull List<WarmUpResult> warmUp(@NotNull List<WarmUpQuery> queries) {
+        List<WarmUpResult> results = new ArrayList<>(queries.size());
+        for (WarmUpQuery query : queries)
+            results.add(warmUp(query));
+        return results;
+    }
+
+    private @NotNull WarmUpResult warmUp(@NotNull WarmUpQuery warmUpQuery) {
+        SqlQuery query = SqlQuery.query(warmUpQuery.getSql());
+        return withCurrentTransaction(query, tx -> {
+            long startTime = System.nanoTime();
+            boolean metadataAvailable;
+
+            try (PreparedStatementCache.Lease lease = prepareStatement(tx, query.getSql())) {
+                PreparedStatement ps = lease.getStatement();
+                ResultSetMetaData metaData = describeResult(ps);
+                metadataAvailable = metaData != null;
+
+                if (metaData != null) {
+                    NamedTypeList types = instantiatorRegistry.getResultShapeCache().getTypes(query.getSql(), metaData);
+                    Class<?> resultType = warmUpQuery.getResultType();
+                    if (resultType != null) {
+                        instantiatorRegistry.findInstantiator(resultType, types);
+                        instantiatorRegistry.findCompiledRowMapper(resultType, types, 1);
+                    }
+                }
+            }
+
+            long nanos = System.nanoTime() - startTime;
+            log.debug("warmed up query in {} ms: {}", nanos / 1_000_000, warmUpQuery);
+            return new WarmUpResult(warmUpQuery, Duration.ofNanos(nanos), metadataAvailable);
+        });
+    }
+
+    private static @Nullable ResultSetMetaData describeResult(@NotNull PreparedStatement ps) throws SQLException {
+        try {
+            return ps.getMetaData();
+        } catch (SQLFeatureNotSupportedException e) {
+            return null;
+        }
+    }
+
     /**
      * Executes a query and processes each row of the result with given {@link RowMapper}
      * to produce a list of results.
@@ -105,9 +245,17 @@ public abstract class DatabaseAccess {
 
     /**
      * Executes a query and converts the results to instances of given class using default mechanisms.
+     * If {@link SqlQuery#isPrefetch() prefetching} is enabled for the query, the rows are read on a background
+     * thread while the results are instantiated.
      */
     public @NotNull <T> List<T> findAll(@NotNull Class<T> cl, @NotNull SqlQuery query) {
-        return executeQuery(resultProcessorForClass(cl), query);
+        if (query.isPrefetch()) {
+            Integer fetchSize = query.getFetchSize();
+            int blockSize = fetchSize != null && fetchSize > 0 ? fetchSize : RowPrefetcher.DEFAULT_BLOCK_SIZE;
+            return executeQuery(new PrefetchingListResultSetProcessor<>(cl, instantiatorRegistry, query.getSql(), blockSize), query, blockSize);
+        }
+
+        return executeQuery(resultProcessorForClass(cl, query), query);
     }
 
     /**
@@ -117,6 +265,208 @@ public abstract class DatabaseAccess {
         return findAll(cl, SqlQuery.query(sql, args));
     }
 
+    /**
+     * Executes a query, typically a join, and assembles object graphs from the results as described by
+     * given mapping. Each distinct root is returned once, in the order in which they were first seen.
+     *
+     * @see AggregateMapping
+     */
+    public @NotNull <T> List<T> findAll(@NotNull AggregateMapping<T> mapping, @NotNull SqlQuery query) {
+        return executeQuery(new AggregateResultSetProcessor<>(mapping, instantiatorRegistry, query.getSql()), query);
+    }
+
+    /**
+     * Executes a query, typically a join, and assembles object graphs from the results as described by
+     * given mapping.
+     *
+     * @see #findAll(AggregateMapping, SqlQuery)
+     */
+    public @NotNull <T> List<T> findAll(@NotNull AggregateMapping<T> mapping, @NotNull @Language("SQL") String sql, Object... args) {
+        return findAll(mapping, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query and passes each row to given callback through a {@link RowView} that is reused for all
+     * rows. Useful for aggregating or filtering rows without instantiating an object for each of them.
+     *
+     * @return the total amount of rows
+     */
+    public long forEachRow(@NotNull RowCallback callback, @NotNull SqlQuery query) {
+        return executeQuery(new RowViewResultSetProcessor(callback, instantiatorRegistry, query.getSql()), query);
+    }
+
+    /**
+     * Executes a query and passes each row to given callback through a reused {@link RowView}.
+     *
+     * @see #forEachRow(RowCallback, SqlQuery)
+     */
+    public long forEachRow(@NotNull RowCallback callback, @NotNull @Language("SQL") String sql, Object... args) {
+        return forEachRow(callback, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query and passes the rows, mapped with given {@link RowMapper}, to given consumer in chunks of
+     * at most given size. Only a single chunk is held in memory at a time: the same list is reused for all chunks,
+     * so the consumer must copy it if it needs the rows after returning. The results are streamed from the database
+     * and, unless the query specifies a fetch size, the chunk size is requested as the fetch size. The dialect may
+     * override it if the driver streams only with a specific fetch size (e.g. MySQL).
+     *
+     * @return the total amount of rows
+     */
+    public <T> long forEachChunk(@NotNull RowMapper<T> rowMapper, int chunkSize, @NotNull Consumer<? super List<T>> consumer, @NotNull SqlQuery query) {
+        rejectPrefetch(query);
+        return executeQuery(rowMapper.chunked(chunkSize, consumer), query, chunkSize);
+    }
+
+    /**
+     * Executes a query and passes the rows, mapped with given {@link RowMapper}, to given consumer in chunks.
+     *
+     * @see #forEachChunk(RowMapper, int, Consumer, SqlQuery)
+     */
+    public <T> long forEachChunk(@NotNull RowMapper<T> rowMapper, int chunkSize, @NotNull Consumer<? super List<T>> consumer, @NotNull @Language("SQL") String sql, Object... args) {
+        return forEachChunk(rowMapper, chunkSize, consumer, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query and passes the rows, converted to instances of given class, to given consumer in chunks.
+     *
+     * @see #forEachChunk(RowMapper, int, Consumer, SqlQuery)
+     */
+    public <T> long forEachChunk(@NotNull Class<T> cl, int chunkSize, @NotNull Consumer<? super List<T>> consumer, @NotNull SqlQuery query) {
+        return forEachChunk(rowMapperForClass(cl, query), chunkSize, consumer, query);
+    }
+
+    /**
+     * Executes a query and passes the rows, converted to instances of given class, to given consumer in chunks.
+     *
+     * @see #forEachChunk(RowMapper, int, Consumer, SqlQuery)
+     */
+    public <T> long forEachChunk(@NotNull Class<T> cl, int chunkSize, @NotNull Consumer<? super List<T>> consumer, @NotNull @Language("SQL") String sql, Object... args) {
+        return forEachChunk(cl, chunkSize, consumer, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query and returns a stream that converts the rows of the result lazily with given
+     * {@link RowMapper} as they are consumed, instead of reading all rows into memory.
+     *
+     * <p>The stream holds an open {@link ResultSet} and must be closed, typically with try-with-resources.
+     * Closing the stream closes the result and its statement. Since the result is read from the connection of
+     * the current transaction, the stream must be consumed and closed before the transaction ends.
+     *
+     * <p>The statement is forward-only and read-only and the {@link Dialect} configures it to fetch the rows
+     * from the database in batches when the driver needs explicit settings for that.
+     *
+     * @throws NoActiveTransactionException if there is no active transaction to read the results in
+     */
+    public @NotNull <T> Stream<T> findStream(@NotNull RowMapper<T> rowMapper, @NotNull SqlQuery query) {
+        return executeStreamingQuery(query, (ps, resultSet) -> ResultSetSpliterator.stream(ps, resultSet, rowMapper, dialect));
+    }
+
+    /**
+     * Executes a query and returns a stream that converts the rows of the result lazily with given
+     * {@link RowMapper} as they are consumed.
+     *
+     * @see #findStream(RowMapper, SqlQuery)
+     */
+    public @NotNull <T> Stream<T> findStream(@NotNull RowMapper<T> rowMapper, @NotNull @Language("SQL") String sql, Object... args) {
+        return findStream(rowMapper, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query and returns a stream that converts the rows of the result lazily to instances of
+     * given class as they are consumed.
+     *
+     * @see #findStream(RowMapper, SqlQuery)
+     */
+    public @NotNull <T> Stream<T> findStream(@NotNull Class<T> cl, @NotNull SqlQuery query) {
+        return findStream(rowMapperForClass(cl, query), query);
+    }
+
+    /**
+     * Executes a query and returns a stream that converts the rows of the result lazily to instances of
+     * given class as they are consumed.
+     *
+     * @see #findStream(RowMapper, SqlQuery)
+     */
+    public @NotNull <T> Stream<T> findStream(@NotNull Class<T> cl, @NotNull @Language("SQL") String sql, Object... args) {
+        return findStream(cl, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query and returns a parallel stream of instances of given class. The rows are read from the
+     * result in chunks and the chunks are instantiated on the worker threads of the stream, which pays off when
+     * the conversions of the rows are expensive compared to reading them (e.g. XML documents or large texts).
+     *
+     * <p>The rows are read in chunks of the fetch size of the query, or {@value #DEFAULT_PARALLEL_CHUNK_SIZE} rows if
+     * the query has no fetch size. Only a few chunks per worker thread are read ahead of the instantiation: if the
+     * workers fall behind, the rest of the rows are instantiated by a single thread instead of reading more of the
+     * result into memory. The stream preserves the order of the rows for ordered operations; call
+     * {@link Stream#unordered()} if the order does not matter. The same rules for closing the stream apply as for
+     * {@link #findStream(RowMapper, SqlQuery)}.
+     *
+     * @throws NoActiveTransactionException if there is no active transaction to read the results in
+     */
+    public @NotNull <T> Stream<T> findParallelStream(@NotNull Class<T> cl, @NotNull SqlQuery query) {
+        Integer fetchSize = query.getFetchSize();
+        int chunkSize = fetchSize != null && fetchSize > 0 ? fetchSize : DEFAULT_PARALLEL_CHUNK_SIZE;
+
+        return executeStreamingQuery(query, (ps, resultSet) ->
+                ParallelResultSetSpliterator.stream(ps, resultSet, cl, instantiatorRegistry, query.getSql(), chunkSize));
+    }
+
+    /**
+     * Executes a query and returns a parallel stream of instances of given class.
+     *
+     * @see #findParallelStream(Class, SqlQuery)
+     */
+    public @NotNull <T> Stream<T> findParallelStream(@NotNull Class<T> cl, @NotNull @Language("SQL") String sql, Object... args) {
+        return findParallelStream(cl, SqlQuery.query(sql, args));
+    }
+
+    private @NotNull <T> Stream<T> executeStreamingQuery(@NotNull SqlQuery query, @NotNull StreamFactory<T> streamFactory) {
+        if (!hasActiveTransaction())
+            throw new NoActiveTransactionException("Streaming query results requires an active transaction that outlives the stream.");
+        rejectPrefetch(query);
+
+        return withCurrentTransaction(query, tx -> {
+            logQuery(query);
+
+            Connection connection = tx.getConnection();
+            boolean autoCommitDisabled = disableAutoCommitForStreaming(connection);
+            PreparedStatement ps = null;
+            try {
+                ps = connection.prepareStatement(query.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                prepareStatementFromQuery(ps, query);
+                dialect.prepareStreamingStatement(ps, requestedFetchSize(query, null));
+
+                long startTime = System.nanoTime();
+                ResultSet resultSet = ps.executeQuery();
+                logQueryExecution(query, System.nanoTime() - startTime);
+
+                Stream<T> stream = streamFactory.createStream(ps, resultSet);
+                return autoCommitDisabled ? stream.onClose(() -> enableAutoCommit(connection)) : stream;
+            } catch (SQLException | RuntimeException | Error e) {
+                try {
+                    if (ps != null)
+                        ps.close();
+                    if (autoCommitDisabled)
+                        connection.setAutoCommit(true);
+                } catch (SQLException e2) {
+                    e.addSuppressed(e2);
+                }
+                throw e;
+            }
+        });
+    }
+
+    private void enableAutoCommit(@NotNull Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            throw dialect.convertException(e);
+        }
+    }
+
     /**
      * Finds a unique result from database, using given {@link RowMapper} to convert the row.
      *
@@ -144,7 +494,7 @@ public abstract class DatabaseAccess {
      * @throws EmptyResultException     if there are no rows
      */
     public <T> T findUnique(@NotNull Class<T> cl, @NotNull SqlQuery query) {
-        return executeQuery(rowMapperForClass(cl).unique(), query);
+        return executeQuery(rowMapperForClass(cl, query).unique(), query);
     }
 
     /**
@@ -184,7 +534,7 @@ public abstract class DatabaseAccess {
      * @throws NonUniqueResultException if there are multiple result rows
      */
     public @NotNull <T> Optional<T> findOptional(@NotNull Class<T> cl, @NotNull SqlQuery query) {
-        return executeQuery(rowMapperForClass(cl).optional(), query);
+        return executeQuery(rowMapperForClass(cl, query).optional(), query);
     }
 
     /**
@@ -295,7 +645,7 @@ public abstract class DatabaseAccess {
      * @throws EmptyResultException     if there are no rows
      */
     public boolean findUniqueBoolean(@NotNull SqlQuery query) {
-        return executeQuery(rowMapperForClass(boolean.class).unique(), query);
+        return executeQuery(rowMapperForClass(boolean.class, query).unique(), query);
     }
 
     /**
@@ -315,7 +665,7 @@ public abstract class DatabaseAccess {
      * @throws EmptyResultException     if there are no rows
      */
     public int findUniqueInt(@NotNull SqlQuery query) {
-        return executeQuery(rowMapperForClass(int.class).unique(), query);
+        return executeQuery(rowMapperForClass(int.class, query).unique(), query);
     }
 
     /**
@@ -335,7 +685,7 @@ public abstract class DatabaseAccess {
      * @throws EmptyResultException     if there are no rows
      */
     public long findUniqueLong(@NotNull SqlQuery query) {
-        return executeQuery(rowMapperForClass(long.class).unique(), query);
+        return executeQuery(rowMapperForClass(long.class, query).unique(), query);
     }
 
     /**
@@ -348,6 +698,114 @@ public abstract class DatabaseAccess {
         return findUniqueLong(SqlQuery.query(sql, args));
     }
 
+    /**
+     * Executes a query that returns a single column of non-null values and reads them into an array of ints
+     * without boxing them.
+     *
+     * @throws UnexpectedResultException if the result contains nulls
+     */
+    public @NotNull int[] findIntArray(@NotNull SqlQuery query) {
+        return findIntArray(NullPolicy.FAIL, query);
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and reads them into an array of ints.
+     *
+     * @see #findIntArray(SqlQuery)
+     */
+    public @NotNull int[] findIntArray(@NotNull @Language("SQL") String sql, Object... args) {
+        return findIntArray(SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns a single column and reads the values into an array of ints without
+     * boxing them. Nulls are handled according to given policy.
+     */
+    public @NotNull int[] findIntArray(@NotNull NullPolicy nullPolicy, @NotNull SqlQuery query) {
+        return executeQuery(PrimitiveArrayResultSetProcessors.intArray(nullPolicy), query);
+    }
+
+    /**
+     * Executes a query that returns a single column and reads the values into an array of ints.
+     *
+     * @see #findIntArray(NullPolicy, SqlQuery)
+     */
+    public @NotNull int[] findIntArray(@NotNull NullPolicy nullPolicy, @NotNull @Language("SQL") String sql, Object... args) {
+        return findIntArray(nullPolicy, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and reads them into an array of longs
+     * without boxing them.
+     *
+     * @throws UnexpectedResultException if the result contains nulls
+     */
+    public @NotNull long[] findLongArray(@NotNull SqlQuery query) {
+        return findLongArray(NullPolicy.FAIL, query);
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and reads them into an array of longs.
+     *
+     * @see #findLongArray(SqlQuery)
+     */
+    public @NotNull long[] findLongArray(@NotNull @Language("SQL") String sql, Object... args) {
+        return findLongArray(SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns a single column and reads the values into an array of longs without
+     * boxing them. Nulls are handled according to given policy.
+     */
+    public @NotNull long[] findLongArray(@NotNull NullPolicy nullPolicy, @NotNull SqlQuery query) {
+        return executeQuery(PrimitiveArrayResultSetProcessors.longArray(nullPolicy), query);
+    }
+
+    /**
+     * Executes a query that returns a single column and reads the values into an array of longs.
+     *
+     * @see #findLongArray(NullPolicy, SqlQuery)
+     */
+    public @NotNull long[] findLongArray(@NotNull NullPolicy nullPolicy, @NotNull @Language("SQL") String sql, Object... args) {
+        return findLongArray(nullPolicy, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and reads them into an array of doubles
+     * without boxing them.
+     *
+     * @throws UnexpectedResultException if the result contains nulls
+     */
+    public @NotNull double[] findDoubleArray(@NotNull SqlQuery query) {
+        return findDoubleArray(NullPolicy.FAIL, query);
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and reads them into an array of doubles.
+     *
+     * @see #findDoubleArray(SqlQuery)
+     */
+    public @NotNull double[] findDoubleArray(@NotNull @Language("SQL") String sql, Object... args) {
+        return findDoubleArray(SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns a single column and reads the values into an array of doubles without
+     * boxing them. Nulls are handled according to given policy.
+     */
+    public @NotNull double[] findDoubleArray(@NotNull NullPolicy nullPolicy, @NotNull SqlQuery query) {
+        return executeQuery(PrimitiveArrayResultSetProcessors.doubleArray(nullPolicy), query);
+    }
+
+    /**
+     * Executes a query that returns a single column and reads the values into an array of doubles.
+     *
+     * @see #findDoubleArray(NullPolicy, SqlQuery)
+     */
+    public @NotNull double[] findDoubleArray(@NotNull NullPolicy nullPolicy, @NotNull @Language("SQL") String sql, Object... args) {
+        return findDoubleArray(nullPolicy, SqlQuery.query(sql, args));
+    }
+
     /**
      * Executes a query that returns at least two values and creates a map from the results,
      * using the first value as the key and rest of the values for instantiating {@code V}.
@@ -357,7 +815,7 @@ public abstract class DatabaseAccess {
     public @NotNull <K, V> Map<K, V> findMap(@NotNull Class<K> keyType,
                                              @NotNull Class<V> valueType,
                                              @NotNull SqlQuery query) {
-        return executeQuery(new MapResultSetProcessor<>(keyType, valueType, instantiatorRegistry), query);
+        return executeQuery(new MapResultSetProcessor<>(keyType, valueType, instantiatorRegistry, query.getSql()), query);
     }
 
     /**
@@ -373,11 +831,170 @@ public abstract class DatabaseAccess {
         return findMap(keyType, valueType, SqlQuery.query(sql, args));
     }
 
+    /**
+     * Executes a query that returns at least two values and creates a map from the results, like
+     * {@link #findMap(Class, Class, SqlQuery)}, but populates the map created by given factory. This
+     * allows choosing the implementation of the map and pre-sizing it for the expected amount of rows,
+     * e.g. {@code () -> HashMap.newHashMap(expectedSize)}.
+     */
+    public @NotNull <K, V, M extends Map<K, V>> M findMap(@NotNull Class<K> keyType,
+                                                          @NotNull Class<V> valueType,
+                                                          @NotNull Supplier<? extends M> mapFactory,
+                                                          @NotNull SqlQuery query) {
+        MapResultSetProcessor<K, V> processor = new MapResultSetProcessor<>(keyType, valueType, instantiatorRegistry, query.getSql());
+        return executeQuery(resultSet -> processor.process(resultSet, mapFactory.get()), query);
+    }
+
+    /**
+     * Executes a query that returns at least two values and populates the map created by given factory.
+     *
+     * @see #findMap(Class, Class, Supplier, SqlQuery)
+     */
+    public @NotNull <K, V, M extends Map<K, V>> M findMap(@NotNull Class<K> keyType,
+                                                          @NotNull Class<V> valueType,
+                                                          @NotNull Supplier<? extends M> mapFactory,
+                                                          @NotNull @Language("SQL") String sql,
+                                                          Object... args) {
+        return findMap(keyType, valueType, mapFactory, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns non-null long keys in the first column and creates a map from the results,
+     * using the rest of the values for instantiating {@code V}. The keys are read and stored without boxing them.
+     *
+     * <p>If the keys of the result are not distinct, the result contains the last binding of given key.
+     */
+    public @NotNull <V> LongKeyMap<V> findLongKeyMap(@NotNull Class<V> valueType, @NotNull SqlQuery query) {
+        return findLongKeyMap(valueType, 0, query);
+    }
+
+    /**
+     * Executes a query that returns non-null long keys in the first column and creates a map from the results.
+     *
+     * @see #findLongKeyMap(Class, SqlQuery)
+     */
+    public @NotNull <V> LongKeyMap<V> findLongKeyMap(@NotNull Class<V> valueType, @NotNull @Language("SQL") String sql, Object... args) {
+        return findLongKeyMap(valueType, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns non-null long keys in the first column and creates a map from the results,
+     * sized for holding given amount of entries without resizing.
+     *
+     * @see #findLongKeyMap(Class, SqlQuery)
+     */
+    public @NotNull <V> LongKeyMap<V> findLongKeyMap(@NotNull Class<V> valueType, int expectedSize, @NotNull SqlQuery query) {
+        return executeQuery(new LongKeyMapResultSetProcessor<>(valueType, instantiatorRegistry, query.getSql(), expectedSize), query);
+    }
+
+    /**
+     * Executes a query that returns non-null long keys in the first column and creates a map from the results,
+     * sized for holding given amount of entries without resizing.
+     *
+     * @see #findLongKeyMap(Class, SqlQuery)
+     */
+    public @NotNull <V> LongKeyMap<V> findLongKeyMap(@NotNull Class<V> valueType, int expectedSize, @NotNull @Language("SQL") String sql, Object... args) {
+        return findLongKeyMap(valueType, expectedSize, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns non-null int keys in the first column and creates a map from the results,
+     * using the rest of the values for instantiating {@code V}. The keys are read and stored without boxing them.
+     *
+     * <p>If the keys of the result are not distinct, the result contains the last binding of given key.
+     */
+    public @NotNull <V> IntKeyMap<V> findIntKeyMap(@NotNull Class<V> valueType, @NotNull SqlQuery query) {
+        return findIntKeyMap(valueType, 0, query);
+    }
+
+    /**
+     * Executes a query that returns non-null int keys in the first column and creates a map from the results.
+     *
+     * @see #findIntKeyMap(Class, SqlQuery)
+     */
+    public @NotNull <V> IntKeyMap<V> findIntKeyMap(@NotNull Class<V> valueType, @NotNull @Language("SQL") String sql, Object... args) {
+        return findIntKeyMap(valueType, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns non-null int keys in the first column and creates a map from the results,
+     * sized for holding given amount of entries without resizing.
+     *
+     * @see #findIntKeyMap(Class, SqlQuery)
+     */
+    public @NotNull <V> IntKeyMap<V> findIntKeyMap(@NotNull Class<V> valueType, int expectedSize, @NotNull SqlQuery query) {
+        return executeQuery(new IntKeyMapResultSetProcessor<>(valueType, instantiatorRegistry, query.getSql(), expectedSize), query);
+    }
+
+    /**
+     * Executes a query that returns non-null int keys in the first column and creates a map from the results,
+     * sized for holding given amount of entries without resizing.
+     *
+     * @see #findIntKeyMap(Class, SqlQuery)
+     */
+    public @NotNull <V> IntKeyMap<V> findIntKeyMap(@NotNull Class<V> valueType, int expectedSize, @NotNull @Language("SQL") String sql, Object... args) {
+        return findIntKeyMap(valueType, expectedSize, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns at least two values and groups the results by the first value, using
+     * the rest of the values for instantiating {@code V}. The rows don't need to be ordered by the key.
+     * The resulting map retains the order in which the keys were first seen.
+     */
+    public @NotNull <K, V> Map<K, List<V>> findMultimap(@NotNull Class<K> keyType,
+                                                        @NotNull Class<V> valueType,
+                                                        @NotNull SqlQuery query) {
+        return executeQuery(new KeyValueResultSetProcessor<>(keyType, valueType, instantiatorRegistry, query.getSql(),
+            (keyMapper, valueMapper) -> valueMapper.groupingBy(keyMapper, toList())), query);
+    }
+
+    /**
+     * Executes a query that returns at least two values and groups the results by the first value.
+     *
+     * @see #findMultimap(Class, Class, SqlQuery)
+     */
+    public @NotNull <K, V> Map<K, List<V>> findMultimap(@NotNull Class<K> keyType,
+                                                        @NotNull Class<V> valueType,
+                                                        @NotNull @Language("SQL") String sql,
+                                                        Object... args) {
+        return findMultimap(keyType, valueType, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns at least two values, ordered by the first value, and passes the groups of
+     * rows with equal first values to given consumer as they complete. The rest of the values are used for
+     * instantiating {@code V}. Since only a single group is held in memory at a time, this is suitable for
+     * processing large results with a single pass.
+     *
+     * @return the amount of groups
+     */
+    public <K, V> long forEachGroup(@NotNull Class<K> keyType,
+                                    @NotNull Class<V> valueType,
+                                    @NotNull BiConsumer<? super K, ? super List<V>> consumer,
+                                    @NotNull SqlQuery query) {
+        return executeQuery(new KeyValueResultSetProcessor<>(keyType, valueType, instantiatorRegistry, query.getSql(),
+            (keyMapper, valueMapper) -> valueMapper.groupingSorted(keyMapper, toList(), consumer)), query);
+    }
+
+    /**
+     * Executes a query that returns at least two values, ordered by the first value, and passes the groups of
+     * rows with equal first values to given consumer as they complete.
+     *
+     * @see #forEachGroup(Class, Class, BiConsumer, SqlQuery)
+     */
+    public <K, V> long forEachGroup(@NotNull Class<K> keyType,
+                                    @NotNull Class<V> valueType,
+                                    @NotNull BiConsumer<? super K, ? super List<V>> consumer,
+                                    @NotNull @Language("SQL") String sql,
+                                    Object... args) {
+        return forEachGroup(keyType, valueType, consumer, SqlQuery.query(sql, args));
+    }
+
     /**
      * Executes a query and creates a {@link ResultTable} from the results.
      */
     public @NotNull ResultTable findTable(@NotNull SqlQuery query) {
-        return executeQuery(new ResultTableResultSetProcessor(dialect), query);
+        return executeQuery(new ResultTableResultSetProcessor(instantiatorRegistry.getResultShapeCache(), query.getSql(), false, resultTableMemoryBudget), query);
     }
 
     /**
@@ -387,15 +1004,37 @@ public abstract class DatabaseAccess {
         return findTable(SqlQuery.query(sql, args));
     }
 
+    /**
+     * Executes a query and creates a columnar {@link ResultTable} from the results. Columnar tables store
+     * columns of primitive types in primitive arrays, which makes them considerably more compact for large
+     * results.
+     *
+     * @see ResultTable#columnarBuilder(List)
+     */
+    public @NotNull ResultTable findColumnarTable(@NotNull SqlQuery query) {
+        return executeQuery(new ResultTableResultSetProcessor(instantiatorRegistry.getResultShapeCache(), query.getSql(), true), query);
+    }
+
+    /**
+     * Executes a query and creates a columnar {@link ResultTable} from the results.
+     *
+     * @see #findColumnarTable(SqlQuery)
+     */
+    public @NotNull ResultTable findColumnarTable(@NotNull @Language("SQL") String sql, Object... args) {
+        return findColumnarTable(SqlQuery.query(sql, args));
+    }
+
     /**
      * Executes an update against the database and returns the amount of affected rows.
      */
     @SuppressWarnings("SqlSourceToSinkFlow")
     public int update(@NotNull SqlQuery query) {
+        rejectPrefetch(query);
         return withCurrentTransaction(query, tx -> {
             logQuery(query);
 
-            try (PreparedStatement ps = tx.getConnection().prepareStatement(query.getSql())) {
+            try (PreparedStatementCache.Lease lease = prepareStatement(tx, query.getSql())) {
+                PreparedStatement ps = lease.getStatement();
                 prepareStatementFromQuery(ps, query);
 
                 long startTime = System.nanoTime();
@@ -443,10 +1082,12 @@ public abstract class DatabaseAccess {
      * @return Result of processing the results with {@code generatedKeysProcessor}.
      */
     public <T> T updateAndProcessGeneratedKeys(@NotNull ResultSetProcessor<T> generatedKeysProcessor, @NotNull List<String> columnNames, @NotNull SqlQuery query) {
+        rejectPrefetch(query);
         return withCurrentTransaction(query, tx -> {
             logQuery(query);
 
-            try (PreparedStatement ps = prepareStatement(tx.getConnection(), query.getSql(), columnNames)) {
+            try (PreparedStatementCache.Lease lease = prepareStatement(tx, query.getSql(), columnNames)) {
+                PreparedStatement ps = lease.getStatement();
                 prepareStatementFromQuery(ps, query);
 
                 long startTime = System.nanoTime();
@@ -470,15 +1111,25 @@ public abstract class DatabaseAccess {
     /**
      * Executes a batch update against the database, returning an array of modification
      * counts for each argument list.
+     *
+     * <p>If {@linkplain #setMultiRowInsertsEnabled(boolean) multi-row inserts} are enabled and the statement is
+     * rewritten, the counts differ from those of a plain batch: each row is reported as 1 when the statement
+     * inserting it affected as many rows as it had, and otherwise all its rows are reported as
+     * {@link Statement#SUCCESS_NO_INFO}.
      */
     @SuppressWarnings("SqlSourceToSinkFlow")
     public int[] updateBatch(@Language("SQL") @NotNull String sql, @NotNull List<? extends List<?>> argumentLists) {
         SqlQuery query = SqlQuery.query(sql, "<batch-update>");
 
+        MultiRowInsert insert = multiRowInsertFor(sql);
+        if (insert != null)
+            return executeInBatchesCollectingCounts(sql, query, argumentLists, insert, positionalBinder());
+
         return withCurrentTransaction(query, tx -> {
             logQuery(query);
 
-            try (PreparedStatement ps = tx.getConnection().prepareStatement(sql)) {
+            try (PreparedStatementCache.Lease lease = prepareStatement(tx, sql)) {
+                PreparedStatement ps = lease.getStatement();
                 bindQueryParameters(ps, query);
                 for (List<?> arguments : argumentLists) {
                     bindArguments(ps, arguments);
@@ -492,6 +1143,324 @@ public abstract class DatabaseAccess {
         });
     }
 
+    /**
+     * Executes a batch update with argument lists read from given iterator, sending them to the database
+     * in batches of given size on the same statement, so that the argument lists don't need to be held
+     * in memory all at once.
+     *
+     * @return the total amount of affected rows, excluding the statements for which the driver did not report a count
+     */
+    public long updateBatch(@Language("SQL") @NotNull String sql, @NotNull Iterator<? extends List<?>> argumentLists, int batchSize) {
+        return updateBatch(sql, argumentLists, BatchSize.fixed(batchSize), null);
+    }
+
+    /**
+     * Executes a batch update with argument lists read from given iterator, sending them to the database
+     * in batches whose size is determined by given {@link BatchSize}.
+     *
+     * @return the total amount of affected rows, excluding the statements for which the driver did not report a count
+     */
+    public long updateBatch(@Language("SQL") @NotNull String sql, @NotNull Iterator<? extends List<?>> argumentLists, @NotNull BatchSize batchSize) {
+        return updateBatch(sql, argumentLists, batchSize, null);
+    }
+
+    /**
+     * Executes a batch update with argument lists read from given iterator, sending them to the database
+     * in batches whose size is determined by given {@link BatchSize}. The update counts of each executed
+     * batch are passed to given callback.
+     *
+     * @return the total amount of affected rows, excluding the statements for which the driver did not report a count
+     */
+    public long updateBatch(@Language("SQL") @NotNull String sql,
+                            @NotNull Iterator<? extends List<?>> argumentLists,
+                            @NotNull BatchSize batchSize,
+                            @Nullable Consumer<int[]> batchCallback) {
+        return executeInBatches(sql, SqlQuery.query(sql, "<batch-update>"), argumentLists, batchSize, batchCallback, positionalBinder());
+    }
+
+    private @NotNull Function<PreparedStatement, BatchRowBinder<List<?>>> positionalBinder() {
+        return ps -> (arguments, firstIndex) -> bindArguments(ps, arguments, firstIndex);
+    }
+
+    /**
+     * Executes the rows of given iterator in batches determined by given {@link BatchSize}, binding
+     * each row to the statement with the binder created by given factory.
+     */
+    @SuppressWarnings("SqlSourceToSinkFlow")
+    private <T> long executeInBatches(@NotNull String sql,
+                                      @NotNull SqlQuery query,
+                                      @NotNull Iterator<? extends T> rows,
+                                      @NotNull BatchSize batchSize,
+                                      @Nullable Consumer<int[]> batchCallback,
+                                      @NotNull Function<PreparedStatement, BatchRowBinder<T>> binderFactory) {
+        MultiRowInsert insert = multiRowInsertFor(sql);
+
+        return withCurrentTransaction(query, tx -> {
+            logQuery(query);
+
+            if (insert != null)
+                return executeMultiRowInserts(tx, insert, query, rows, batchSize, batchCallback, binderFactory);
+
+            try (PreparedStatementCache.Lease lease = prepareStatement(tx, sql)) {
+                PreparedStatement ps = lease.getStatement();
+                bindQueryParameters(ps, query);
+                BatchRowBinder<T> binder = binderFactory.apply(ps);
+
+                long total = 0;
+                int size = batchSize.getInitialSize();
+                int pending = 0;
+                while (rows.hasNext()) {
+                    binder.bind(rows.next(), 1);
+                    ps.addBatch();
+
+                    if (++pending >= size) {
+                        long startTime = System.nanoTime();
+                        total += executeBatch(ps, query, batchCallback);
+                        size = batchSize.nextSize(size, System.nanoTime() - startTime);
+                        pending = 0;
+                    }
+                }
+
+                if (pending > 0)
+                    total += executeBatch(ps, query, batchCallback);
+
+                return total;
+            }
+        });
+    }
+
+    /**
+     * Executes the rows of given iterator as multi-row inserts. To avoid preparing a new statement whenever the batch
+     * size changes, the amount of rows per statement is fixed for the whole update: the batch size limited by the
+     * dialect, rounded down to a power of two for adaptive sizes. Adaptive sizes only control how many statements
+     * are executed before the size is adjusted. The remaining rows are inserted with statements of power-of-two
+     * sizes, so that only a few distinct statements are ever prepared. The update count of each statement is
+     * reported as per-row counts: each row is reported as inserted if the count matches the amount of rows,
+     * otherwise as {@link Statement#SUCCESS_NO_INFO}.
+     */
+    @SuppressWarnings("SqlSourceToSinkFlow")
+    private <T> long executeMultiRowInserts(@NotNull TransactionContext tx,
+                                            @NotNull MultiRowInsert insert,
+                                            @NotNull SqlQuery query,
+                                            @NotNull Iterator<? extends T> rows,
+                                            @NotNull BatchSize batchSize,
+                                            @Nullable Consumer<int[]> batchCallback,
+                                            @NotNull Function<PreparedStatement, BatchRowBinder<T>> binderFactory) throws SQLException {
+        int size = batchSize.getInitialSize();
+        int rowsPerStatement = Math.min(batchSize.isAdaptive() ? Integer.highestOneBit(size) : size, insert.getMaxRows());
+        int statementsPerAdjustment = Math.max(1, size / rowsPerStatement);
+
+        List<T> chunk = new ArrayList<>(rowsPerStatement);
+        long total = 0;
+
+        PreparedStatementCache.Lease fullChunkLease = null;
+        try {
+            BatchRowBinder<T> fullChunkBinder = null;
+            int statements = 0;
+            long startTime = System.nanoTime();
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+
+                if (chunk.size() == rowsPerStatement) {
+                    if (fullChunkLease == null) {
+                        fullChunkLease = prepareStatement(tx, insert.sqlForRows(rowsPerStatement));
+                        bindQueryParameters(fullChunkLease.getStatement(), query);
+                        fullChunkBinder = binderFactory.apply(fullChunkLease.getStatement());
+                    }
+
+                    total += executeMultiRowInsert(fullChunkLease.getStatement(), fullChunkBinder, insert, chunk, query, batchCallback);
+                    chunk.clear();
+
+                    if (++statements == statementsPerAdjustment) {
+                        size = batchSize.nextSize(size, System.nanoTime() - startTime);
+                        statementsPerAdjustment = Math.max(1, size / rowsPerStatement);
+                        statements = 0;
+                        startTime = System.nanoTime();
+                    }
+                }
+            }
+        } finally {
+            if (fullChunkLease != null)
+                fullChunkLease.close();
+        }
+
+        int offset = 0;
+        while (offset < chunk.size()) {
+            List<T> rest = chunk.subList(offset, offset + Integer.highestOneBit(chunk.size() - offset));
+            try (PreparedStatementCache.Lease lease = prepareStatement(tx, insert.sqlForRows(rest.size()))) {
+                PreparedStatement ps = lease.getStatement();
+                bindQueryParameters(ps, query);
+                total += executeMultiRowInsert(ps, binderFactory.apply(ps), insert, rest, query, batchCallback);
+            }
+            offset += rest.size();
+        }
+
+        return total;
+    }
+
+    private <T> long executeMultiRowInsert(@NotNull PreparedStatement ps,
+                                           @NotNull BatchRowBinder<T> binder,
+                                           @NotNull MultiRowInsert insert,
+                                           @NotNull List<T> chunk,
+                                           @NotNull SqlQuery query,
+                                           @Nullable Consumer<int[]> batchCallback) throws SQLException {
+        for (int i = 0; i < chunk.size(); i++)
+            binder.bind(chunk.get(i), i * insert.getParametersPerRow() + 1);
+
+        long startTime = System.nanoTime();
+        int count = ps.executeUpdate();
+        logQueryExecution(query, System.nanoTime() - startTime);
+
+        if (batchCallback != null) {
+            int[] counts = new int[chunk.size()];
+            Arrays.fill(counts, count == chunk.size() ? 1 : Statement.SUCCESS_NO_INFO);
+            batchCallback.accept(counts);
+        }
+
+        return Math.max(count, 0);
+    }
+
+    /**
+     * Executes given rows as multi-row inserts, returning the update counts of the rows like {@link PreparedStatement#executeBatch()}.
+     */
+    private <T> int[] executeInBatchesCollectingCounts(@NotNull String sql,
+                                                       @NotNull SqlQuery query,
+                                                       @NotNull Collection<? extends T> rows,
+                                                       @NotNull MultiRowInsert insert,
+                                                       @NotNull Function<PreparedStatement, BatchRowBinder<T>> binderFactory) {
+        int[] counts = new int[rows.size()];
+        int[] position = { 0 };
+        executeInBatches(sql, query, rows.iterator(), BatchSize.fixed(insert.getMaxRows()), batchCounts -> {
+            System.arraycopy(batchCounts, 0, counts, position[0], batchCounts.length);
+            position[0] += batchCounts.length;
+        }, binderFactory);
+        return counts;
+    }
+
+    private @Nullable MultiRowInsert multiRowInsertFor(@NotNull String sql) {
+        return multiRowInsertsEnabled ? MultiRowInsert.parse(sql, dialect) : null;
+    }
+
+    /**
+     * Executes a batch update with argument lists read from given stream in batches of given size.
+     *
+     * @see #updateBatch(String, Iterator, int)
+     */
+    public long updateBatch(@Language("SQL") @NotNull String sql, @NotNull Stream<? extends List<?>> argumentLists, int batchSize) {
+        return updateBatch(sql, argumentLists.iterator(), BatchSize.fixed(batchSize), null);
+    }
+
+    /**
+     * Executes a batch update with argument lists read from given stream in batches determined by given {@link BatchSize}.
+     *
+     * @see #updateBatch(String, Iterator, BatchSize)
+     */
+    public long updateBatch(@Language("SQL") @NotNull String sql, @NotNull Stream<? extends List<?>> argumentLists, @NotNull BatchSize batchSize) {
+        return updateBatch(sql, argumentLists.iterator(), batchSize, null);
+    }
+
+    /**
+     * Executes a batch update with argument lists read from given stream in batches determined by given {@link BatchSize},
+     * passing the update counts of each batch to given callback.
+     *
+     * @see #updateBatch(String, Iterator, BatchSize, Consumer)
+     */
+    public long updateBatch(@Language("SQL") @NotNull String sql,
+                            @NotNull Stream<? extends List<?>> argumentLists,
+                            @NotNull BatchSize batchSize,
+                            @Nullable Consumer<int[]> batchCallback) {
+        return updateBatch(sql, argumentLists.iterator(), batchSize, batchCallback);
+    }
+
+    /**
+     * Executes a batch update with named parameters, binding the parameters of each item of the batch from
+     * the properties of a bean or the values of a map. The SQL is parsed only once and the accessors of the
+     * properties are resolved once for each class of beans. The counts of rewritten multi-row inserts differ
+     * from plain batches like described in {@link #updateBatch(String, List)}.
+     *
+     * @see SqlQuery#namedQuery(String, Object)
+     * @see SqlQuery#namedQuery(String, Map)
+     */
+    @SuppressWarnings("SqlSourceToSinkFlow")
+    public int[] updateNamedBatch(@Language("SQL") @NotNull String sql, @NotNull Collection<?> beansOrMaps) {
+        NamedParameterBatch batch = NamedParameterBatch.parse(sql);
+        SqlQuery query = SqlQuery.query(sql, "<batch-update>");
+
+        MultiRowInsert insert = multiRowInsertFor(batch.getSql());
+        if (insert != null)
+            return executeInBatchesCollectingCounts(batch.getSql(), query, beansOrMaps, insert, namedBinder(batch));
+
+        return withCurrentTransaction(query, tx -> {
+            logQuery(query);
+
+            try (PreparedStatementCache.Lease lease = prepareStatement(tx, batch.getSql())) {
+                PreparedStatement ps = lease.getStatement();
+                bindQueryParameters(ps, query);
+
+                NamedParameterBatch.ArgumentConsumer binder = (index, value) -> instantiatorRegistry.bindArgument(ps, index, value);
+                for (Object beanOrMap : beansOrMaps) {
+                    batch.bind(beanOrMap, 1, binder);
+                    ps.addBatch();
+                }
+
+                long startTime = System.nanoTime();
+                int[] counts = ps.executeBatch();
+                logQueryExecution(query, System.nanoTime() - startTime);
+                return counts;
+            }
+        });
+    }
+
+    /**
+     * Executes a batch update with named parameters bound from beans or maps read from given iterator,
+     * sending them to the database in batches whose size is determined by given {@link BatchSize}.
+     *
+     * @return the total amount of affected rows, excluding the statements for which the driver did not report a count
+     * @see #updateNamedBatch(String, Collection)
+     */
+    public long updateNamedBatch(@Language("SQL") @NotNull String sql, @NotNull Iterator<?> beansOrMaps, @NotNull BatchSize batchSize) {
+        NamedParameterBatch batch = NamedParameterBatch.parse(sql);
+
+        return executeInBatches(batch.getSql(), SqlQuery.query(sql, "<batch-update>"), beansOrMaps, batchSize, null, namedBinder(batch));
+    }
+
+    private @NotNull Function<PreparedStatement, BatchRowBinder<Object>> namedBinder(@NotNull NamedParameterBatch batch) {
+        return ps -> {
+            NamedParameterBatch.ArgumentConsumer binder = (index, value) -> instantiatorRegistry.bindArgument(ps, index, value);
+            return (beanOrMap, firstIndex) -> batch.bind(beanOrMap, firstIndex, binder);
+        };
+    }
+
+    /**
+     * Executes a batch update with named parameters bound from beans or maps read from given stream,
+     * sending them to the database in batches whose size is determined by given {@link BatchSize}.
+     *
+     * @see #updateNamedBatch(String, Iterator, BatchSize)
+     */
+    public long updateNamedBatch(@Language("SQL") @NotNull String sql, @NotNull Stream<?> beansOrMaps, @NotNull BatchSize batchSize) {
+        return updateNamedBatch(sql, beansOrMaps.iterator(), batchSize);
+    }
+
+    @FunctionalInterface
+    private interface BatchRowBinder<T> {
+        void bind(@NotNull T row, int firstIndex) throws SQLException;
+    }
+
+    private long executeBatch(@NotNull PreparedStatement ps, @NotNull SqlQuery query, @Nullable Consumer<int[]> batchCallback) throws SQLException {
+        long startTime = System.nanoTime();
+        int[] counts = ps.executeBatch();
+        logQueryExecution(query, System.nanoTime() - startTime);
+
+        if (batchCallback != null)
+            batchCallback.accept(counts);
+
+        long total = 0;
+        for (int count : counts)
+            if (count > 0)
+                total += count;
+        return total;
+    }
+
     /**
      * Executes batch of updates against the database and return generated keys as extracted by generatedKeysProcessor.
      *
@@ -511,7 +1480,8 @@ public abstract class DatabaseAccess {
         return withCurrentTransaction(query, tx -> {
             logQuery(query);
 
-            try (PreparedStatement ps = prepareStatement(tx.getConnection(), sql, columnNames)) {
+            try (PreparedStatementCache.Lease lease = prepareStatement(tx, sql, columnNames)) {
+                PreparedStatement ps = lease.getStatement();
                 bindQueryParameters(ps, query);
                 for (List<?> arguments : argumentLists) {
                     bindArguments(ps, arguments);
@@ -529,12 +1499,12 @@ public abstract class DatabaseAccess {
         });
     }
 
-    private @NotNull <T> ResultSetProcessor<List<T>> resultProcessorForClass(@NotNull Class<T> cl) {
-        return rowMapperForClass(cl).list();
+    private @NotNull <T> ResultSetProcessor<List<T>> resultProcessorForClass(@NotNull Class<T> cl, @NotNull SqlQuery query) {
+        return rowMapperForClass(cl, query).list();
     }
 
-    private @NotNull <T> RowMapper<T> rowMapperForClass(@NotNull Class<T> cl) {
-        return new InstantiatorRowMapper<>(cl, instantiatorRegistry);
+    private @NotNull <T> RowMapper<T> rowMapperForClass(@NotNull Class<T> cl, @NotNull SqlQuery query) {
+        return new InstantiatorRowMapper<>(cl, instantiatorRegistry, query.getSql());
     }
 
     /**
@@ -558,8 +1528,60 @@ public abstract class DatabaseAccess {
         this.defaultTimeout = timeout;
     }
 
+    /**
+     * Returns the estimated amount of bytes of rows that {@link #findTable(SqlQuery)} keeps in memory
+     * before moving the rest of the rows into a temporary file. {@link Long#MAX_VALUE} means no limit.
+     */
+    public long getResultTableMemoryBudget() {
+        return resultTableMemoryBudget;
+    }
+
+    /**
+     * Sets the estimated amount of bytes of rows that {@link #findTable(SqlQuery)} keeps in memory before
+     * moving the rest of the rows into a temporary file. Tables that have been spilled should be closed
+     * in order to delete the file. By default, there's no limit.
+     *
+     * @see ResultTable#spillingBuilder(List, long)
+     */
+    public void setResultTableMemoryBudget(long bytes) {
+        if (bytes < 0)
+            throw new IllegalArgumentException("Negative memory budget: " + bytes);
+
+        this.resultTableMemoryBudget = bytes;
+    }
+
+    /**
+     * Returns whether batch updates of single-row inserts are executed as multi-row inserts.
+     */
+    public boolean isMultiRowInsertsEnabled() {
+        return multiRowInsertsEnabled;
+    }
+
+    /**
+     * Controls whether batch updates of {@code INSERT ... VALUES (?, ...)} statements are executed by rewriting them into
+     * inserts of multiple rows, {@code VALUES (?, ...), (?, ...), ...}, which many drivers otherwise don't do without
+     * driver-specific settings. The statements are split to stay within the limits given by
+     * {@link Dialect#getMaxInsertValuesRows()} and {@link Dialect#getMaxParameterCount()}. Other statements and
+     * dialects that don't support multi-row inserts use plain batches, as do inserts ending with clauses that update
+     * existing rows (e.g. {@code ON CONFLICT DO UPDATE}). Disabled by default.
+     *
+     * <p>Since the database reports a single count for each statement, the update counts of the rows are not the
+     * same as with plain batches. Each row is reported as inserted if the update count of the statement matches the
+     * amount of its rows. Otherwise, e.g. when some rows were skipped because of conflicts, the rows of the statement
+     * are reported as {@link Statement#SUCCESS_NO_INFO}. The total counts returned by the streaming variants of
+     * {@code updateBatch} are exact.
+     */
+    public void setMultiRowInsertsEnabled(boolean multiRowInsertsEnabled) {
+        this.multiRowInsertsEnabled = multiRowInsertsEnabled;
+    }
+
     protected abstract <T> T withCurrentTransaction(@NotNull SqlQuery query, @NotNull TransactionCallback<T> callback);
 
+    /**
+     * Returns true if and only if there is a transaction that stays active after the current operation returns.
+     */
+    public abstract boolean hasActiveTransaction();
+
     @SuppressWarnings("MagicConstant")
     protected void bindQueryParameters(@NotNull PreparedStatement ps, @NotNull SqlQuery query) throws SQLException {
         FetchDirection direction = query.getFetchDirection();
@@ -579,9 +1601,13 @@ public abstract class DatabaseAccess {
     }
 
     protected void bindArguments(@NotNull PreparedStatement ps, @NotNull Iterable<?> args) throws SQLException {
-        int i = 1;
+        bindArguments(ps, args, 1);
+    }
+
+    private void bindArguments(@NotNull PreparedStatement ps, @NotNull Iterable<?> args, int firstIndex) throws SQLException {
+        int i = firstIndex;
         for (Object arg : args)
-            dialect.bindArgument(ps, i++, instantiatorRegistry.valueToDatabase(unwrapOptionalAsNull(arg)));
+            instantiatorRegistry.bindArgument(ps, i++, arg);
     }
 
     protected void prepareStatementFromQuery(@NotNull PreparedStatement ps, @NotNull SqlQuery query) throws SQLException {
@@ -589,11 +1615,30 @@ public abstract class DatabaseAccess {
         bindArguments(ps, query.getArguments());
     }
 
-    private static @NotNull PreparedStatement prepareStatement(@NotNull Connection connection, @NotNull String sql, @NotNull List<String> columnNames) throws SQLException {
-        if (columnNames.isEmpty())
-            return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    /**
+     * Prepares a statement for given SQL, borrowing it from the statement cache of the transaction if there is one.
+     */
+    @SuppressWarnings("SqlSourceToSinkFlow")
+    private static @NotNull PreparedStatementCache.Lease prepareStatement(@NotNull TransactionContext tx, @NotNull String sql) throws SQLException {
+        PreparedStatementCache cache = statementCacheOf(tx);
+        if (cache != null)
+            return cache.prepare(sql);
         else
-            return connection.prepareStatement(sql, columnNames.toArray(EMPTY_STRING_ARRAY));
+            return PreparedStatementCache.uncached(tx.getConnection().prepareStatement(sql));
+    }
+
+    private static @NotNull PreparedStatementCache.Lease prepareStatement(@NotNull TransactionContext tx, @NotNull String sql, @NotNull List<String> columnNames) throws SQLException {
+        PreparedStatementCache cache = statementCacheOf(tx);
+        if (cache != null)
+            return cache.prepareWithGeneratedKeys(sql, columnNames);
+        else if (columnNames.isEmpty())
+            return PreparedStatementCache.uncached(tx.getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS));
+        else
+            return PreparedStatementCache.uncached(tx.getConnection().prepareStatement(sql, columnNames.toArray(EMPTY_STRING_ARRAY)));
+    }
+
+    private static @Nullable PreparedStatementCache statementCacheOf(@NotNull TransactionContext tx) {
+        return tx instanceof StatementCacheOwner owner ? owner.getStatementCache() : null;
     }
 
     private void logQuery(@NotNull SqlQuery query) {
@@ -605,4 +1650,15 @@ public abstract class DatabaseAccess {
     }
 
     private static final @NotNull String[] EMPTY_STRING_ARRAY = new String[0];
+
+    /**
+     * Amount of rows instantiated as a unit by {@link #findParallelStream(Class, SqlQuery)} when the query does not
+     * specify a fetch size.
+     */
+    public static final int DEFAULT_PARALLEL_CHUNK_SIZE = 256;
+
+    @FunctionalInterface
+    private interface StreamFactory<T> {
+        @NotNull Stream<T> createStream(@NotNull PreparedStatement ps, @NotNull ResultSet resultSet) throws SQLException;
+    }
 }
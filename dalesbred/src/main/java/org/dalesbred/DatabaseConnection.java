@@ -2,10 +2,13 @@ package org.dalesbred;
 
 import org.dalesbred.dialect.Dialect;
 import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.jdbc.PreparedStatementCache;
+import org.dalesbred.internal.jdbc.StatementCacheOwner;
 import org.dalesbred.query.SqlQuery;
 import org.dalesbred.transaction.TransactionCallback;
 import org.dalesbred.transaction.TransactionContext;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -34,6 +37,10 @@ public final class DatabaseConnection extends DatabaseAccess implements AutoClos
 
     private boolean rollbackOnly;
 
+    private final @NotNull PreparedStatementCache.Statistics statementCacheStatistics = new PreparedStatementCache.Statistics();
+
+    private @Nullable PreparedStatementCache statementCache;
+
     DatabaseConnection(@NotNull Connection connection,
                        @NotNull Dialect dialect,
                        @NotNull InstantiatorProvider instantiatorRegistry) {
@@ -46,22 +53,7 @@ public final class DatabaseConnection extends DatabaseAccess implements AutoClos
         SqlQuery oldQuery = DebugContext.getCurrentQuery();
         DebugContext.setCurrentQuery(query);
         try {
-            return callback.execute(new TransactionContext() {
-                @Override
-                public @NotNull Connection getConnection() {
-                    return connection;
-                }
-
-                @Override
-                public void setRollbackOnly() {
-                    rollbackOnly = true;
-                }
-
-                @Override
-                public boolean isRollbackOnly() {
-                    return rollbackOnly;
-                }
-            });
+            return callback.execute(new ConnectionContext());
         } catch (SQLException e) {
             throw new DatabaseSQLException(e);
         } finally {
@@ -69,6 +61,36 @@ public final class DatabaseConnection extends DatabaseAccess implements AutoClos
         }
     }
 
+    private final class ConnectionContext implements TransactionContext, StatementCacheOwner {
+
+        @Override
+        public @NotNull Connection getConnection() {
+            return connection;
+        }
+
+        @Override
+        public void setRollbackOnly() {
+            rollbackOnly = true;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return rollbackOnly;
+        }
+
+        @Override
+        public @Nullable PreparedStatementCache getStatementCache() {
+            return statementCache;
+        }
+    }
+
+    /**
+     * Returns always true, since the connection has a pending transaction until it is closed.
+     */
+    @Override
+    public boolean hasActiveTransaction() {
+        return true;
+    }
 
     /**
      * Marks the current transaction as rollback-only, indicating that the transaction
@@ -78,6 +100,34 @@ public final class DatabaseConnection extends DatabaseAccess implements AutoClos
         rollbackOnly = true;
     }
 
+    /**
+     * Returns the maximum amount of prepared statements cached for this connection.
+     */
+    public int getStatementCacheSize() {
+        return statementCache != null ? statementCache.getCapacity() : 0;
+    }
+
+    /**
+     * Sets the maximum amount of prepared statements cached for this connection, or zero to disable
+     * caching (the default). Cached statements are reused until the connection is closed, which pays
+     * off when the same statements are executed repeatedly. Changing the size discards the cached statements.
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0)
+            throw new IllegalArgumentException("Negative statement cache size: " + statementCacheSize);
+
+        if (statementCache != null)
+            statementCache.close();
+        statementCache = statementCacheSize > 0 ? new PreparedStatementCache(connection, statementCacheSize, statementCacheStatistics) : null;
+    }
+
+    /**
+     * Returns statistics of the cache of prepared statements of this connection.
+     */
+    public @NotNull CacheStatistics getStatementCacheStatistics() {
+        return statementCacheStatistics.snapshot();
+    }
+
     /**
      * Returns the underlying JDBC connection.
      */
@@ -92,6 +142,9 @@ public final class DatabaseConnection extends DatabaseAccess implements AutoClos
      */
     @Override
     public void close() {
+        if (statementCache != null)
+            statementCache.close();
+
         try {
             try {
                 if (rollbackOnly)
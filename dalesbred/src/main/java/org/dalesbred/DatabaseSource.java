@@ -55,6 +55,14 @@ public final class DatabaseSource {
         return instantiatorRegistry.getTypeConversionRegistry();
     }
 
+    /**
+     * Returns statistics of the cache that holds the instantiators resolved for each combination of
+     * target type and result columns. The cache is shared by all connections opened by this source.
+     */
+    public @NotNull CacheStatistics getInstantiatorCacheStatistics() {
+        return instantiatorRegistry.getInstantiatorCacheStatistics();
+    }
+
     /**
      * Opens a new connection from the underlying data source with auto-commit disabled.
      * The caller is responsible for closing the connection, typically via try-with-resources.
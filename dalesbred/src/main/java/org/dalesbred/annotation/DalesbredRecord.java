@@ -0,0 +1,21 @@
+package org.dalesbred.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * <p>
+ * Marks a record whose instances should be created using its canonical constructor. When
+ * {@code dalesbred-processor} is on the annotation processor path, it generates an instantiator for
+ * the record at compile time so that Dalesbred does not need to discover the constructor reflectively.
+ * </p>
+ * <p>
+ * Without the processor, the annotation has no effect and the record is instantiated as any other class.
+ * </p>
+ *
+ * @see org.dalesbred.instantiation.GeneratedInstantiator
+ */
+@Retention(RetentionPolicy.CLASS)
+@Documented
+@Target(ElementType.TYPE)
+public @interface DalesbredRecord {
+}
@@ -32,6 +32,9 @@ public abstract class Dialect {
 
     private static final Logger log = LoggerFactory.getLogger(Dialect.class);
 
+    /** Fetch size for streamed queries on databases that need a positive fetch size for streaming */
+    protected static final int STREAMING_FETCH_SIZE = 1000;
+
     public @NotNull Object valueToDatabase(@NotNull Object value) {
         return value;
     }
@@ -144,4 +147,48 @@ public abstract class Dialect {
     public @Nullable Type overrideResultSetMetaDataType(@NotNull String className) {
         return null;
     }
+
+    /**
+     * Configures a forward-only, read-only statement so that the driver fetches its results from the database
+     * as they are read instead of reading all of them when the statement is executed. Called for streamed queries
+     * after the other settings of the query have been applied. The dialect decides the fetch size of the statement,
+     * since some drivers stream only with specific fetch sizes. The default implementation uses the requested
+     * fetch size, if any, and otherwise relies on the default behaviour of the driver.
+     *
+     * @param ps statement to configure
+     * @param fetchSize fetch size given for the query or derived from the chunk size of the operation, or 0 if none was requested
+     * @throws SQLException if something fails
+     */
+    public void prepareStreamingStatement(@NotNull PreparedStatement ps, int fetchSize) throws SQLException {
+        if (fetchSize > 0)
+            ps.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Returns true if the driver streams results only when auto-commit is disabled. If so, auto-commit is disabled
+     * while the results of a streamed query are read and enabled again when they have been read, which commits
+     * the statements executed in the meantime. The default implementation returns false.
+     */
+    public boolean isAutoCommitDisabledForStreaming() {
+        return false;
+    }
+
+    /**
+     * Returns the maximum amount of rows a single {@code INSERT ... VALUES} statement may insert when batch
+     * updates are rewritten into multi-row inserts. The default implementation returns 1, meaning that
+     * multi-row inserts are not used.
+     *
+     * @see org.dalesbred.DatabaseAccess#setMultiRowInsertsEnabled(boolean)
+     */
+    public int getMaxInsertValuesRows() {
+        return 1;
+    }
+
+    /**
+     * Returns the maximum amount of parameters a single statement may have. Multi-row inserts are split
+     * into statements that stay within this limit.
+     */
+    public int getMaxParameterCount() {
+        return 999;
+    }
 }
@@ -4,4 +4,15 @@ package org.dalesbred.dialect;
  * Support for HSQLDB.
  */
 public class HsqldbDialect extends Dialect {
+
+    @Override
+    public int getMaxInsertValuesRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getMaxParameterCount() {
+        // There is no fixed limit, but keep the statements at a moderate size
+        return 65535;
+    }
 }
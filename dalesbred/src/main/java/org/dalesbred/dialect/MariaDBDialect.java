@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Type;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 /**
@@ -46,4 +47,20 @@ public class MariaDBDialect extends Dialect {
             default -> null;
         };
     }
+
+    @Override
+    public void prepareStreamingStatement(@NotNull PreparedStatement ps, int fetchSize) throws SQLException {
+        // MariaDB Connector/J streams the results in batches of fetch size when it is positive
+        ps.setFetchSize(fetchSize > 0 ? fetchSize : STREAMING_FETCH_SIZE);
+    }
+
+    @Override
+    public int getMaxInsertValuesRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getMaxParameterCount() {
+        return 65535;
+    }
 }
@@ -1,7 +1,29 @@
 package org.dalesbred.dialect;
 
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
 /**
  * Support for MySQL.
  */
 public class MySQLDialect extends Dialect {
+
+    @Override
+    public void prepareStreamingStatement(@NotNull PreparedStatement ps, int fetchSize) throws SQLException {
+        // Without cursor fetching, Connector/J streams the results row by row only with this special fetch
+        // size and reads all of them into memory with any other, so the requested fetch size can't be used.
+        ps.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Override
+    public int getMaxInsertValuesRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getMaxParameterCount() {
+        return 65535;
+    }
 }
@@ -6,6 +6,7 @@ import org.dalesbred.internal.utils.EnumUtils;
 import org.jetbrains.annotations.NotNull;
 import org.postgresql.util.PGobject;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Date;
@@ -18,16 +19,20 @@ public class PostgreSQLDialect extends Dialect {
 
     @Override
     public @NotNull <T extends Enum<T>, K> TypeConversionPair<Object,T> createNativeEnumConversions(@NotNull Class<T> enumType, @NotNull String typeName, @NotNull Function<T,K> keyFunction) {
+        // Both directions are computed up front for all constants, since enums are typically read and bound a lot.
+        // The PGobjects are shared between binds, which is fine since the driver only reads them.
+        Function<T, Object> databaseValues = EnumUtils.valuesByEnum(enumType, value -> createPgObject(String.valueOf(keyFunction.apply(value)), typeName));
+        Function<Object, T> constantsByKey = EnumUtils.enumsByKey(enumType, keyFunction);
+
         return new TypeConversionPair<>() {
             @Override
             public Object convertToDatabase(T obj) {
-                return createPgObject(String.valueOf(keyFunction.apply(obj)), typeName);
+                return databaseValues.apply(obj);
             }
 
             @Override
-            @SuppressWarnings("unchecked")
             public T convertFromDatabase(Object obj) {
-                return EnumUtils.enumByKey(enumType, keyFunction, (K) obj);
+                return constantsByKey.apply(obj);
             }
         };
     }
@@ -43,8 +48,30 @@ public class PostgreSQLDialect extends Dialect {
         }
     }
 
+    @Override
+    public void prepareStreamingStatement(@NotNull PreparedStatement ps, int fetchSize) throws SQLException {
+        // The driver uses a cursor only if fetch size is positive and auto-commit is disabled
+        ps.setFetchSize(fetchSize > 0 ? fetchSize : STREAMING_FETCH_SIZE);
+    }
+
+    @Override
+    public boolean isAutoCommitDisabledForStreaming() {
+        return true;
+    }
+
     @Override
     public void registerTypeConversions(@NotNull TypeConversionRegistry typeConversionRegistry) {
         typeConversionRegistry.registerConversionToDatabase(Date.class, v -> new Timestamp(v.getTime()));
     }
+
+    @Override
+    public int getMaxInsertValuesRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getMaxParameterCount() {
+        // The wire protocol encodes the number of parameters as a 16-bit unsigned integer
+        return 65535;
+    }
 }
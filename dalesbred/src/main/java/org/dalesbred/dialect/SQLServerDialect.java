@@ -4,4 +4,18 @@ package org.dalesbred.dialect;
  * Support for Microsoft SQL Server.
  */
 public class SQLServerDialect extends Dialect {
+
+    @Override
+    public int getMaxInsertValuesRows() {
+        return 1000;
+    }
+
+    /**
+     * SQL Server allows 2100 parameters, but the driver executes prepared statements through
+     * {@code sp_executesql}, whose own parameters count towards the limit.
+     */
+    @Override
+    public int getMaxParameterCount() {
+        return 2098;
+    }
 }
@@ -0,0 +1,59 @@
+package org.dalesbred.instantiation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * <p>
+ * Instantiator generated at compile time by {@code dalesbred-processor} for classes that have a constructor
+ * or a static method marked with {@link org.dalesbred.annotation.DalesbredInstantiator} and for records marked
+ * with {@link org.dalesbred.annotation.DalesbredRecord}.
+ * </p>
+ * <p>
+ * When Dalesbred needs to instantiate {@code com.example.Foo}, it first looks for a class named
+ * {@code com.example.Foo_DalesbredInstantiator} (or {@code com.example.Outer_Foo_DalesbredInstantiator} for
+ * nested class {@code Outer.Foo}) with a public no-argument constructor. If one is found, it is used instead of
+ * discovering the constructor reflectively.
+ * </p>
+ * <p>
+ * This interface is not meant to be implemented by hand.
+ * </p>
+ */
+public interface GeneratedInstantiator<T> {
+
+    /**
+     * Suffix appended to the flattened name of the instantiated class to form the name of the generated class.
+     */
+    @NotNull String CLASS_NAME_SUFFIX = "_DalesbredInstantiator";
+
+    /**
+     * Returns the generic types of the parameters that {@link #instantiate(Object[])} expects.
+     */
+    @NotNull List<Type> getParameterTypes();
+
+    /**
+     * Creates a new instance from given arguments that have already been converted to {@link #getParameterTypes()}.
+     */
+    @Nullable T instantiate(Object[] arguments) throws Exception;
+
+    /**
+     * Returns the name of the generated instantiator for given class.
+     */
+    static @NotNull String generatedClassName(@NotNull Class<?> cl) {
+        String packageName = cl.getPackageName();
+        String flatName = packageName.isEmpty() ? cl.getName() : cl.getName().substring(packageName.length() + 1);
+        String simpleName = flatName.replace('$', '_') + CLASS_NAME_SUFFIX;
+        return packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+    }
+
+    /**
+     * Creates a parameterized type for describing generic parameters in {@link #getParameterTypes()}.
+     */
+    static @NotNull ParameterizedType parameterizedType(@NotNull Class<?> rawType, @NotNull Type... typeArguments) {
+        return new GeneratedParameterizedType(rawType, typeArguments);
+    }
+}
@@ -0,0 +1,77 @@
+package org.dalesbred.instantiation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ParameterizedType} used by generated instantiators. Equality is compatible with the
+ * parameterized types returned by reflection.
+ */
+final class GeneratedParameterizedType implements ParameterizedType {
+
+    private final @NotNull Class<?> rawType;
+
+    private final @NotNull Type[] typeArguments;
+
+    GeneratedParameterizedType(@NotNull Class<?> rawType, @NotNull Type[] typeArguments) {
+        if (rawType.getTypeParameters().length != typeArguments.length)
+            throw new IllegalArgumentException("expected " + rawType.getTypeParameters().length + " type arguments for " + rawType.getName() + ", but got " + typeArguments.length);
+
+        this.rawType = rawType;
+        this.typeArguments = typeArguments.clone();
+        for (Type argument : this.typeArguments)
+            requireNonNull(argument);
+    }
+
+    @Override
+    public @NotNull Type[] getActualTypeArguments() {
+        return typeArguments.clone();
+    }
+
+    @Override
+    public @NotNull Type getRawType() {
+        return rawType;
+    }
+
+    @Override
+    public @Nullable Type getOwnerType() {
+        return rawType.getDeclaringClass();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+
+        if (obj instanceof ParameterizedType rhs) {
+            return rawType.equals(rhs.getRawType())
+                    && Objects.equals(getOwnerType(), rhs.getOwnerType())
+                    && Arrays.equals(typeArguments, rhs.getActualTypeArguments());
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(typeArguments) ^ Objects.hashCode(getOwnerType()) ^ rawType.hashCode();
+    }
+
+    @Override
+    public @NotNull String toString() {
+        StringBuilder sb = new StringBuilder(rawType.getTypeName()).append('<');
+
+        for (int i = 0; i < typeArguments.length; i++) {
+            if (i != 0) sb.append(", ");
+            sb.append(typeArguments[i].getTypeName());
+        }
+
+        return sb.append('>').toString();
+    }
+}
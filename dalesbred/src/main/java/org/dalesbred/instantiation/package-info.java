@@ -0,0 +1,4 @@
+/**
+ * Support for instantiators generated at compile time by {@code dalesbred-processor}.
+ */
+package org.dalesbred.instantiation;
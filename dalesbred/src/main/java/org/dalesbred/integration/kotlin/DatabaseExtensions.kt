@@ -4,6 +4,7 @@ import org.dalesbred.Database
 import org.dalesbred.query.SqlQuery
 import org.dalesbred.result.EmptyResultException
 import org.dalesbred.result.NonUniqueResultException
+import org.dalesbred.result.NullPolicy
 import org.intellij.lang.annotations.Language
 import java.sql.ResultSet
 import java.util.*
@@ -100,3 +101,45 @@ fun <T : Any> Database.findOptional(
     rowMapper: (ResultSet) -> T
 ): Optional<T> =
     findOptional(SqlQuery.query(sql, *args), rowMapper)
+
+/**
+ * Executes a query that returns a single column and reads the values into an [IntArray] without boxing them.
+ * Nulls are handled according to [nullPolicy].
+ */
+fun Database.findIntArray(query: SqlQuery, nullPolicy: NullPolicy = NullPolicy.FAIL): IntArray =
+    findIntArray(nullPolicy, query)
+
+/**
+ * Executes a query that returns a single column and reads the values into an [IntArray] without boxing them.
+ * Nulls are handled according to [nullPolicy].
+ */
+fun Database.findIntArray(@Language("SQL") sql: String, vararg args: Any?, nullPolicy: NullPolicy): IntArray =
+    findIntArray(nullPolicy, SqlQuery.query(sql, *args))
+
+/**
+ * Executes a query that returns a single column and reads the values into a [LongArray] without boxing them.
+ * Nulls are handled according to [nullPolicy].
+ */
+fun Database.findLongArray(query: SqlQuery, nullPolicy: NullPolicy = NullPolicy.FAIL): LongArray =
+    findLongArray(nullPolicy, query)
+
+/**
+ * Executes a query that returns a single column and reads the values into a [LongArray] without boxing them.
+ * Nulls are handled according to [nullPolicy].
+ */
+fun Database.findLongArray(@Language("SQL") sql: String, vararg args: Any?, nullPolicy: NullPolicy): LongArray =
+    findLongArray(nullPolicy, SqlQuery.query(sql, *args))
+
+/**
+ * Executes a query that returns a single column and reads the values into a [DoubleArray] without boxing them.
+ * Nulls are handled according to [nullPolicy].
+ */
+fun Database.findDoubleArray(query: SqlQuery, nullPolicy: NullPolicy = NullPolicy.FAIL): DoubleArray =
+    findDoubleArray(nullPolicy, query)
+
+/**
+ * Executes a query that returns a single column and reads the values into a [DoubleArray] without boxing them.
+ * Nulls are handled according to [nullPolicy].
+ */
+fun Database.findDoubleArray(@Language("SQL") sql: String, vararg args: Any?, nullPolicy: NullPolicy): DoubleArray =
+    findDoubleArray(nullPolicy, SqlQuery.query(sql, *args))
@@ -0,0 +1,28 @@
+package org.dalesbred.internal.instantiation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An instantiator that produces its result by converting the single value of the row.
+ */
+final class ConversionInstantiator<T> implements Instantiator<T> {
+
+    private final @NotNull TypeConversion conversion;
+
+    ConversionInstantiator(@NotNull TypeConversion conversion) {
+        this.conversion = requireNonNull(conversion);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable T instantiate(@NotNull InstantiatorArguments arguments) {
+        return (T) conversion.convert(arguments.getSingleValue());
+    }
+
+    @NotNull TypeConversion getConversion() {
+        return conversion;
+    }
+}
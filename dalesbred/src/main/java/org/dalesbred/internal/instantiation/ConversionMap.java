@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Collections.emptyList;
 import static org.dalesbred.internal.utils.Primitives.wrap;
@@ -13,12 +14,33 @@ final class ConversionMap {
 
     private final @NotNull Map<Type, List<ConversionRegistration>> mappings = new HashMap<>();
 
-    void register(@NotNull Type source, @NotNull Type target, @NotNull TypeConversion conversion) {
+    /**
+     * Results of previous lookups, including failed ones. Lookups walk the whole type hierarchy of the
+     * source, so they are memoized. Modified only while holding the lock of this map.
+     */
+    private final @NotNull Map<ConversionKey, Optional<TypeConversion>> resolvedConversions = new ConcurrentHashMap<>();
+
+    synchronized void register(@NotNull Type source, @NotNull Type target, @NotNull TypeConversion conversion) {
         mappings.computeIfAbsent(wrap(source), a -> new ArrayList<>()).add(new ConversionRegistration(target, conversion));
+        resolvedConversions.clear();
     }
 
     @NotNull
     Optional<TypeConversion> findConversion(@NotNull Type source, @NotNull Type target) {
+        ConversionKey key = new ConversionKey(source, target);
+
+        Optional<TypeConversion> conversion = resolvedConversions.get(key);
+        if (conversion == null) {
+            synchronized (this) {
+                conversion = resolveConversion(source, target);
+                resolvedConversions.put(key, conversion);
+            }
+        }
+
+        return conversion;
+    }
+
+    private @NotNull Optional<TypeConversion> resolveConversion(@NotNull Type source, @NotNull Type target) {
         for (Type cl = wrap(source); cl != null; cl = genericSuperClass(cl)) {
             Optional<TypeConversion> conversion = findConversionsRegisteredFor(cl, target);
             if (conversion.isPresent())
@@ -46,6 +68,9 @@ final class ConversionMap {
         return Optional.empty();
     }
 
+    private record ConversionKey(@NotNull Type source, @NotNull Type target) {
+    }
+
     private record ConversionRegistration(@NotNull Type target, @NotNull TypeConversion conversion) {
     }
 }
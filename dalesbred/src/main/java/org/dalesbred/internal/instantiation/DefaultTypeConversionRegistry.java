@@ -21,15 +21,18 @@ final class DefaultTypeConversionRegistry implements TypeConversionRegistry {
 
     private final @NotNull ConversionMap storeConversions = new ConversionMap();
 
-    public DefaultTypeConversionRegistry(@NotNull Dialect dialect) {
+    /** Called whenever a conversion is registered, so that derived caches can be invalidated */
+    private final @NotNull Runnable changeListener;
+
+    public DefaultTypeConversionRegistry(@NotNull Dialect dialect, @NotNull Runnable changeListener) {
         this.dialect = dialect;
+        this.changeListener = changeListener;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T extends Enum<T>,K> void registerEnumConversion(@NotNull Class<T> enumType, @NotNull Function<T, K> keyFunction) {
-        registerConversionFromDatabase(Object.class, enumType, value -> EnumUtils.enumByKey(enumType, keyFunction, (K) value));
-        registerConversionToDatabase(enumType, keyFunction);
+        registerConversionFromDatabase(Object.class, enumType, EnumUtils.enumsByKey(enumType, keyFunction));
+        registerConversionToDatabase(enumType, EnumUtils.valuesByEnum(enumType, keyFunction));
     }
 
     @Override
@@ -38,6 +41,11 @@ final class DefaultTypeConversionRegistry implements TypeConversionRegistry {
         registerConversions(Object.class, enumType, conversions::convertFromDatabase, conversions::convertToDatabase);
     }
 
+    void registerConversionFromDatabase(@NotNull Class<?> source, @NotNull Class<?> target, @NotNull TypeConversion conversion) {
+        loadConversions.register(source, target, conversion);
+        changeListener.run();
+    }
+
     public @NotNull Optional<TypeConversion> findConversionFromDbValue(@NotNull Type source, @NotNull Type target) {
         return loadConversions.findConversion(source, target);
     }
@@ -49,10 +57,12 @@ final class DefaultTypeConversionRegistry implements TypeConversionRegistry {
     @Override
     public <S, T> void registerConversionFromDatabase(@NotNull Class<S> source, @NotNull Class<T> target, @NotNull Function<S, T> conversion) {
         loadConversions.register(source, target, TypeConversion.fromNonNullFunction(conversion));
+        changeListener.run();
     }
 
     @Override
     public <S> void registerConversionToDatabase(@NotNull Class<S> source, @NotNull Function<S, ?> conversion) {
         storeConversions.register(source, Object.class, TypeConversion.fromNonNullFunction(conversion));
+        changeListener.run();
     }
 }
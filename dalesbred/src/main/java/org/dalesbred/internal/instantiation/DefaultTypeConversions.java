@@ -2,7 +2,6 @@ package org.dalesbred.internal.instantiation;
 
 import org.dalesbred.DatabaseException;
 import org.dalesbred.DatabaseSQLException;
-import org.dalesbred.conversion.TypeConversionRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.w3c.dom.Document;
 
@@ -29,16 +28,16 @@ final class DefaultTypeConversions {
 
     private DefaultTypeConversions() { }
 
-    public static void register(@NotNull TypeConversionRegistry registry) {
+    public static void register(@NotNull DefaultTypeConversionRegistry registry) {
         registry.registerConversions(String.class, URL.class, DefaultTypeConversions::convertStringToUrl, URL::toString);
         registry.registerConversions(String.class, URI.class, DefaultTypeConversions::convertStringToUri, URI::toString);
         registry.registerConversions(String.class, TimeZone.class, TimeZone::getTimeZone, TimeZone::getID);
 
-        registry.registerConversionFromDatabase(Number.class, Short.class, Number::shortValue);
-        registry.registerConversionFromDatabase(Number.class, Integer.class, Number::intValue);
-        registry.registerConversionFromDatabase(Number.class, Long.class, Number::longValue);
-        registry.registerConversionFromDatabase(Number.class, Float.class, Number::floatValue);
-        registry.registerConversionFromDatabase(Number.class, Double.class, Number::doubleValue);
+        registry.registerConversionFromDatabase(Number.class, Short.class, TypeConversion.numberConversion(Number::shortValue));
+        registry.registerConversionFromDatabase(Number.class, Integer.class, TypeConversion.numberConversion(Number::intValue));
+        registry.registerConversionFromDatabase(Number.class, Long.class, TypeConversion.numberConversion(Number::longValue));
+        registry.registerConversionFromDatabase(Number.class, Float.class, TypeConversion.numberConversion(Number::floatValue));
+        registry.registerConversionFromDatabase(Number.class, Double.class, TypeConversion.numberConversion(Number::doubleValue));
         registry.registerConversionFromDatabase(Number.class, BigInteger.class, DefaultTypeConversions::convertNumberToBigInteger);
         registry.registerConversionFromDatabase(Number.class, BigDecimal.class, DefaultTypeConversions::convertNumberToBigDecimal);
         registry.registerConversionFromDatabase(Clob.class, String.class, DefaultTypeConversions::convertClobToString);
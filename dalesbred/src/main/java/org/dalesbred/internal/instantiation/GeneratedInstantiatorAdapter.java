@@ -0,0 +1,61 @@
+package org.dalesbred.internal.instantiation;
+
+import org.dalesbred.instantiation.GeneratedInstantiator;
+import org.dalesbred.internal.utils.Throwables;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An instantiator that converts the arguments and passes them to a {@link GeneratedInstantiator}.
+ */
+final class GeneratedInstantiatorAdapter<T> implements Instantiator<T> {
+
+    private final @NotNull GeneratedInstantiator<T> generated;
+
+    private final @NotNull List<TypeConversion> conversions;
+
+    /** Whether each parameter is primitive and can't therefore be given a null */
+    private final @NotNull boolean[] primitive;
+
+    GeneratedInstantiatorAdapter(@NotNull GeneratedInstantiator<T> generated, @NotNull List<TypeConversion> conversions) {
+        this.generated = requireNonNull(generated);
+        this.conversions = requireNonNull(conversions);
+
+        List<Type> parameterTypes = generated.getParameterTypes();
+        this.primitive = new boolean[parameterTypes.size()];
+        for (int i = 0; i < primitive.length; i++)
+            primitive[i] = parameterTypes.get(i) instanceof Class<?> cl && cl.isPrimitive();
+    }
+
+    @Override
+    public @Nullable T instantiate(@NotNull InstantiatorArguments arguments) {
+        List<?> values = arguments.getValues();
+        Object[] argumentArray = new Object[conversions.size()];
+
+        for (int i = 0; i < argumentArray.length; i++) {
+            Object value = conversions.get(i).convert(values.get(i));
+            if (value == null && primitive[i])
+                throw PrimitiveColumnReaders.unexpectedNull(arguments.getTypes().getName(i));
+            argumentArray[i] = value;
+        }
+
+        try {
+            return generated.instantiate(argumentArray);
+        } catch (Exception e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    @NotNull GeneratedInstantiator<T> getGenerated() {
+        return generated;
+    }
+
+    @NotNull List<TypeConversion> getConversions() {
+        return conversions;
+    }
+}
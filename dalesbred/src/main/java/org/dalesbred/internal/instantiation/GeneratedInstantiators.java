@@ -0,0 +1,57 @@
+package org.dalesbred.internal.instantiation;
+
+import org.dalesbred.instantiation.GeneratedInstantiator;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * Locates the instantiators generated by {@code dalesbred-processor}. Lookups are done once per class.
+ */
+final class GeneratedInstantiators {
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(GeneratedInstantiators.class);
+
+    private static final @NotNull ClassValue<Optional<GeneratedInstantiator<?>>> generatedInstantiators = new ClassValue<>() {
+        @Override
+        protected @NotNull Optional<GeneratedInstantiator<?>> computeValue(@NotNull Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private GeneratedInstantiators() { }
+
+    static @NotNull Optional<GeneratedInstantiator<?>> find(@NotNull Class<?> cl) {
+        return generatedInstantiators.get(cl);
+    }
+
+    private static @NotNull Optional<GeneratedInstantiator<?>> load(@NotNull Class<?> cl) {
+        ClassLoader classLoader = cl.getClassLoader();
+        if (classLoader == null || cl.isArray() || cl.isPrimitive())
+            return Optional.empty();
+
+        String name = GeneratedInstantiator.generatedClassName(cl);
+        Class<?> generatedClass;
+        try {
+            generatedClass = Class.forName(name, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        }
+
+        if (!GeneratedInstantiator.class.isAssignableFrom(generatedClass)) {
+            log.warn("Ignoring {} because it does not implement {}", name, GeneratedInstantiator.class.getName());
+            return Optional.empty();
+        }
+
+        try {
+            GeneratedInstantiator<?> instantiator = (GeneratedInstantiator<?>) generatedClass.getConstructor().newInstance();
+            log.debug("Using generated instantiator {} for {}", name, cl.getName());
+            return Optional.of(instantiator);
+        } catch (ReflectiveOperationException | SecurityException e) {
+            log.warn("Could not create generated instantiator {}, falling back to reflection: {}", name, e.toString());
+            return Optional.empty();
+        }
+    }
+}
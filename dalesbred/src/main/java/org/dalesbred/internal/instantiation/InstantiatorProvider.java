@@ -1,13 +1,22 @@
 package org.dalesbred.internal.instantiation;
 
+import org.dalesbred.CacheStatistics;
 import org.dalesbred.annotation.DalesbredIgnore;
 import org.dalesbred.annotation.DalesbredInstantiator;
 import org.dalesbred.conversion.TypeConversionRegistry;
 import org.dalesbred.dialect.Dialect;
+import org.dalesbred.instantiation.GeneratedInstantiator;
 import org.dalesbred.integration.joda.JodaTypeConversions;
 import org.dalesbred.integration.threeten.ThreeTenTypeConversions;
+import org.dalesbred.internal.jdbc.ArgumentBinder;
+import org.dalesbred.internal.jdbc.ArgumentSetter;
+import org.dalesbred.internal.jdbc.ResultShapeCache;
+import org.dalesbred.internal.utils.LruCache;
+import org.dalesbred.internal.utils.EnumUtils;
 import org.dalesbred.internal.utils.OptionalUtils;
 import org.dalesbred.internal.utils.ReflectionUtils;
+import org.dalesbred.result.RowMapper;
+import org.dalesbred.result.RowMappingEngine;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -15,7 +24,11 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.*;
 import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -23,7 +36,8 @@ import static java.lang.reflect.Modifier.isPublic;
 import static java.util.Arrays.asList;
 import static java.util.Comparator.comparing;
 import static java.util.Objects.requireNonNull;
-import static org.dalesbred.internal.utils.CollectionUtils.arrayOfType;
+import static org.dalesbred.internal.utils.OptionalUtils.unwrapOptionalAsNull;
+import static org.dalesbred.internal.utils.StringUtils.isEqualIgnoringCaseAndUnderscores;
 import static org.dalesbred.internal.utils.TypeUtils.*;
 
 /**
@@ -35,11 +49,57 @@ public final class InstantiatorProvider {
 
     private final @NotNull DefaultTypeConversionRegistry typeConversionRegistry;
 
+    /**
+     * Resolved instantiators by target type and result shape. Failed resolutions are cached as well,
+     * so that repeatedly executing a query that can't be mapped doesn't redo the reflective search.
+     */
+    private final @NotNull LruCache<InstantiatorKey, ResolvedInstantiator> instantiatorCache = new LruCache<>(INSTANTIATOR_CACHE_SIZE);
+
+    /**
+     * Row mappers compiled from the resolved instantiators by target type, result shape and first column.
+     * Contains empty values for shapes that could not be compiled.
+     */
+    private final @NotNull LruCache<CompiledRowMapperKey, Optional<RowMapper<Object>>> compiledRowMapperCache = new LruCache<>(INSTANTIATOR_CACHE_SIZE);
+
+    /**
+     * Conversions resolved by {@link #findConversionFromDbValue(Type, Type)}, including failed resolutions.
+     * Composed conversions (optionals, arrays, enums) are thus built only once per pair of types.
+     */
+    private final @NotNull Map<ConversionKey, Optional<TypeConversion>> conversionCache = new ConcurrentHashMap<>();
+
+    /** Incremented whenever caches are cleared, so that resolutions racing with registrations are not cached */
+    private final @NotNull AtomicLong cacheGeneration = new AtomicLong();
+
+    /**
+     * Setters for binding arguments by their runtime class. Each setter has the conversions and dialect specific
+     * handling for its class resolved, so that binding an argument does not need to search for them. The classes
+     * are held weakly so that the cache doesn't keep classes of unloaded class loaders alive. {@link ClassValue}
+     * is not used, since its values would keep this provider reachable from classes that are never unloaded.
+     */
+    private final @NotNull Map<Class<?>, ArgumentSetter> argumentSetters = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** True if dialect overrides {@link Dialect#valueToDatabase(Object)} */
+    private final boolean dialectConvertsValues;
+
+    /** True if dialect overrides {@link Dialect#bindArgument(PreparedStatement, int, Object)} */
+    private final boolean dialectBindsArguments;
+
+    private volatile @NotNull RowMappingEngine rowMappingEngine = RowMappingEngine.REFLECTION;
+
+    private final @NotNull ResultShapeCache resultShapeCache;
+
+    private static final int INSTANTIATOR_CACHE_SIZE = 1024;
+
+    private static final int RESULT_SHAPE_CACHE_SIZE = 1024;
+
     private static final @NotNull Logger log = LoggerFactory.getLogger(InstantiatorProvider.class);
 
     public InstantiatorProvider(@NotNull Dialect dialect) {
         this.dialect = requireNonNull(dialect);
-        this.typeConversionRegistry = new DefaultTypeConversionRegistry(dialect);
+        this.typeConversionRegistry = new DefaultTypeConversionRegistry(dialect, this::clearCaches);
+        this.resultShapeCache = new ResultShapeCache(dialect, RESULT_SHAPE_CACHE_SIZE);
+        this.dialectConvertsValues = overridesDialectMethod(dialect, "valueToDatabase", Object.class);
+        this.dialectBindsArguments = overridesDialectMethod(dialect, "bindArgument", PreparedStatement.class, int.class, Object.class);
 
         DefaultTypeConversions.register(typeConversionRegistry);
 
@@ -66,21 +126,138 @@ public final class InstantiatorProvider {
             return dialect.valueToDatabase(value);
     }
 
+    /**
+     * Binds given argument to the statement, applying the same conversions as {@link #valueToDatabase(Object)}
+     * and finally {@link Dialect#bindArgument(PreparedStatement, int, Object)}. Optionals are unwrapped.
+     */
+    public void bindArgument(@NotNull PreparedStatement ps, int index, @Nullable Object value) throws SQLException {
+        if (value == null)
+            dialect.bindArgument(ps, index, null);
+        else
+            findArgumentSetter(value.getClass()).bind(ps, index, value);
+    }
+
+    private @NotNull ArgumentSetter findArgumentSetter(@NotNull Class<?> type) {
+        ArgumentSetter setter = argumentSetters.get(type);
+        if (setter == null) {
+            long generation = cacheGeneration.get();
+            setter = resolveArgumentSetter(type);
+            if (generation == cacheGeneration.get())
+                argumentSetters.put(type, setter);
+        }
+        return setter;
+    }
+
+    private @NotNull ArgumentSetter resolveArgumentSetter(@NotNull Class<?> type) {
+        if (type == Optional.class || type == OptionalInt.class || type == OptionalLong.class || type == OptionalDouble.class)
+            return (ps, index, value) -> bindArgument(ps, index, unwrapOptionalAsNull(value));
+
+        TypeConversion conversion = typeConversionRegistry.findConversionToDb(type).orElse(null);
+        if (conversion != null)
+            return (ps, index, value) -> bindDatabaseValue(ps, index, conversion.convert(value));
+
+        if (Enum.class.isAssignableFrom(type)) {
+            if (dialectConvertsValues)
+                return (ps, index, value) -> bindDatabaseValue(ps, index, dialect.valueToDatabase(((Enum<?>) value).name()));
+            else
+                return (ps, index, value) -> bindDatabaseValue(ps, index, ((Enum<?>) value).name());
+        }
+
+        if (dialectConvertsValues)
+            return (ps, index, value) -> bindDatabaseValue(ps, index, dialect.valueToDatabase(requireNonNull(value)));
+        else if (dialectBindsArguments)
+            return dialect::bindArgument;
+        else
+            return ArgumentBinder.setterFor(type);
+    }
+
+    /**
+     * Binds a value that has already been converted to its database representation.
+     */
+    private void bindDatabaseValue(@NotNull PreparedStatement ps, int index, @Nullable Object value) throws SQLException {
+        if (dialectBindsArguments || value == null)
+            dialect.bindArgument(ps, index, value);
+        else
+            ArgumentBinder.setterFor(value.getClass()).bind(ps, index, value);
+    }
+
+    private static boolean overridesDialectMethod(@NotNull Dialect dialect, @NotNull String name, @NotNull Class<?>... parameterTypes) {
+        try {
+            return dialect.getClass().getMethod(name, parameterTypes).getDeclaringClass() != Dialect.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public @NotNull <T> Instantiator<T> findInstantiator(@NotNull Class<T> type, @NotNull NamedTypeList types) {
         return (Instantiator<T>) findInstantiator((Type) type, types);
     }
 
     public @NotNull Instantiator<?> findInstantiator(@NotNull Type type, @NotNull NamedTypeList types) {
+        InstantiatorKey key = new InstantiatorKey(type, types);
+
+        ResolvedInstantiator resolved = instantiatorCache.get(key);
+        if (resolved == null) {
+            long generation = cacheGeneration.get();
+            try {
+                resolved = new ResolvedInstantiator(resolveInstantiator(type, types), null);
+            } catch (InstantiationFailureException e) {
+                resolved = new ResolvedInstantiator(null, e);
+            }
+            if (generation == cacheGeneration.get())
+                instantiatorCache.put(key, resolved);
+        }
+
+        return resolved.get();
+    }
+
+    /**
+     * Returns a row mapper that maps the columns starting from given (one-based) column into instances
+     * of given type, if the current {@link RowMappingEngine} compiles mappers and the instantiator for the
+     * shape can be compiled. Otherwise returns null, in which case the caller should use
+     * {@link #findInstantiator(Class, NamedTypeList)}. The returned mappers are stateless and thread-safe.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable <T> RowMapper<T> findCompiledRowMapper(@NotNull Class<T> type, @NotNull NamedTypeList types, int firstColumn) {
+        if (rowMappingEngine != RowMappingEngine.COMPILED)
+            return null;
+
+        CompiledRowMapperKey key = new CompiledRowMapperKey(type, types, firstColumn);
+
+        Optional<RowMapper<Object>> mapper = compiledRowMapperCache.get(key);
+        if (mapper == null) {
+            long generation = cacheGeneration.get();
+            mapper = Optional.ofNullable(RowMapperCompiler.compile(findInstantiator(type, types), types, firstColumn));
+            if (generation == cacheGeneration.get())
+                compiledRowMapperCache.put(key, mapper);
+        }
+
+        return (RowMapper<T>) mapper.orElse(null);
+    }
+
+    private void clearCaches() {
+        cacheGeneration.incrementAndGet();
+        conversionCache.clear();
+        argumentSetters.clear();
+        instantiatorCache.clear();
+        compiledRowMapperCache.clear();
+    }
+
+    private @NotNull Instantiator<?> resolveInstantiator(@NotNull Type type, @NotNull NamedTypeList types) {
         // First check if we have an immediate conversion registered. If so, we'll just use that.
         if (types.size() == 1) {
             TypeConversion conversion = findConversionFromDbValue(types.getType(0), type).orElse(null);
             if (conversion != null)
-                return args -> conversion.convert(args.getSingleValue());
+                return new ConversionInstantiator<>(conversion);
         }
 
         Class<?> cl = rawType(type);
 
+        Instantiator<?> generated = findGeneratedInstantiatorFor(cl, types);
+        if (generated != null)
+            return generated;
+
         Instantiator<?> instantiator = findExplicitInstantiatorFor(cl, types);
         if (instantiator != null)
             return instantiator;
@@ -95,6 +272,25 @@ public final class InstantiatorProvider {
                 .orElseThrow(() -> new InstantiationFailureException("could not find a way to instantiate " + type + " with parameters " + types));
     }
 
+    /**
+     * Returns an instantiator based on the instantiator generated at compile time for given class, or null
+     * if there is no generated instantiator.
+     */
+    private @Nullable Instantiator<?> findGeneratedInstantiatorFor(@NotNull Class<?> cl, @NotNull NamedTypeList types) throws InstantiationFailureException {
+        GeneratedInstantiator<?> generated = GeneratedInstantiators.find(cl).orElse(null);
+        if (generated == null)
+            return null;
+
+        List<Type> parameterTypes = generated.getParameterTypes();
+        if (parameterTypes.size() != types.size())
+            throw new InstantiationFailureException(String.format("Cannot instantiate %s, constructor takes %d arguments, but result set has %d",
+                    cl.getName(), parameterTypes.size(), types.size()));
+
+        return resolveConversions(types, parameterTypes)
+                .map(conversions -> new GeneratedInstantiatorAdapter<>(generated, conversions))
+                .orElseThrow(() -> new InstantiationFailureException("could not find a way to instantiate " + cl.getName() + " with parameters " + types));
+    }
+
     @SuppressWarnings("UnnecessaryLocalVariable")
     private @Nullable Instantiator<?> findExplicitInstantiatorFor(Class<?> cl, @NotNull NamedTypeList types) throws InstantiationFailureException {
         Executable ctorOrMethod = findExplicitInstantiatorReference(cl);
@@ -224,8 +420,22 @@ public final class InstantiatorProvider {
     /**
      * Returns conversion for converting value of source to target, or returns null if there's no such conversion.
      */
-    @SuppressWarnings("OptionalIsPresent")
     private @NotNull Optional<TypeConversion> findConversionFromDbValue(@NotNull Type source, @NotNull Type target) {
+        ConversionKey key = new ConversionKey(source, target);
+
+        Optional<TypeConversion> conversion = conversionCache.get(key);
+        if (conversion == null) {
+            long generation = cacheGeneration.get();
+            conversion = resolveConversionFromDbValue(source, target);
+            if (generation == cacheGeneration.get())
+                conversionCache.put(key, conversion);
+        }
+
+        return conversion;
+    }
+
+    @SuppressWarnings("OptionalIsPresent")
+    private @NotNull Optional<TypeConversion> resolveConversionFromDbValue(@NotNull Type source, @NotNull Type target) {
         if (isAssignable(target, source))
             return Optional.of(TypeConversion.identity());
 
@@ -252,7 +462,8 @@ public final class InstantiatorProvider {
     private static @NotNull Optional<TypeConversion> findEnumConversion(@NotNull Type target) {
         if (isEnum(target)) {
             Class cl = rawType(target).asSubclass(Enum.class);
-            return Optional.of(TypeConversion.fromNonNullFunction(value -> Enum.valueOf(cl, value.toString())));
+            Function<Object, ?> constantsByName = EnumUtils.enumsByKey(cl, Enum::name);
+            return Optional.of(TypeConversion.fromNonNullFunction(value -> constantsByName.apply(value.toString())));
         }
 
         return Optional.empty();
@@ -269,7 +480,7 @@ public final class InstantiatorProvider {
                 return Optional.of(SqlArrayConversion.sqlArray(typeParameter(target), this, Function.identity()));
 
             if (rawTarget.isArray())
-                return Optional.of(SqlArrayConversion.sqlArray(rawTarget.getComponentType(), this, list -> arrayOfType(rawTarget.getComponentType(), list)));
+                return Optional.of(SqlArrayConversion.sqlArrayToJavaArray(rawTarget.getComponentType(), this));
         }
 
         return Optional.empty();
@@ -330,11 +541,80 @@ public final class InstantiatorProvider {
                 .sorted(comparing((Constructor<?> ctor) -> ctor.getParameterTypes().length).reversed());
     }
 
+    /**
+     * Returns true if given class has a property that would be bound from a column with given name, or a
+     * public constructor parameter with a matching name. Parameters are considered only if their names are
+     * available through reflection, as is the case with the components of records.
+     */
+    public boolean hasPropertyOrParameterFor(@NotNull Class<?> cl, @NotNull String columnName) {
+        try {
+            if (PropertyAccessor.findAccessor(cl, columnName).isPresent())
+                return true;
+        } catch (InstantiationFailureException e) {
+            return true; // there are conflicting accessors for the column
+        }
+
+        if (cl.isRecord())
+            for (RecordComponent component : cl.getRecordComponents())
+                if (isEqualIgnoringCaseAndUnderscores(columnName, component.getName()))
+                    return true;
+
+        for (Constructor<?> ctor : cl.getConstructors())
+            for (Parameter parameter : ctor.getParameters())
+                if (parameter.isNamePresent() && isEqualIgnoringCaseAndUnderscores(columnName, parameter.getName()))
+                    return true;
+
+        return false;
+    }
+
     public @NotNull TypeConversionRegistry getTypeConversionRegistry() {
         return typeConversionRegistry;
     }
 
+    public @NotNull CacheStatistics getInstantiatorCacheStatistics() {
+        return instantiatorCache.getStatistics();
+    }
+
+    /**
+     * Returns the cache for shapes of results, which is used for resolving the column types of results.
+     */
+    public @NotNull ResultShapeCache getResultShapeCache() {
+        return resultShapeCache;
+    }
+
     public @NotNull Dialect getDialect() {
         return dialect;
     }
+
+    public @NotNull RowMappingEngine getRowMappingEngine() {
+        return rowMappingEngine;
+    }
+
+    public void setRowMappingEngine(@NotNull RowMappingEngine rowMappingEngine) {
+        this.rowMappingEngine = requireNonNull(rowMappingEngine);
+    }
+
+    private record InstantiatorKey(@NotNull Type type, @NotNull NamedTypeList types) {
+    }
+
+    private record ConversionKey(@NotNull Type source, @NotNull Type target) {
+    }
+
+    private record CompiledRowMapperKey(@NotNull Type type, @NotNull NamedTypeList types, int firstColumn) {
+    }
+
+    /**
+     * Result of resolving an instantiator: either the instantiator or the reason why there is none.
+     */
+    private record ResolvedInstantiator(@Nullable Instantiator<?> instantiator,
+                                        @Nullable InstantiationFailureException failure) {
+
+        @NotNull Instantiator<?> get() {
+            if (instantiator != null)
+                return instantiator;
+
+            assert failure != null;
+            throw new InstantiationFailureException(requireNonNull(failure.getMessage()), failure);
+        }
+    }
 }
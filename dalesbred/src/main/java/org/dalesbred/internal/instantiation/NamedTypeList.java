@@ -64,6 +64,22 @@ public final class NamedTypeList {
         return sb.toString();
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+
+        if (obj instanceof NamedTypeList rhs) {
+            return names.equals(rhs.names) && types.equals(rhs.types);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * names.hashCode() + types.hashCode();
+    }
+
     public static @NotNull Builder builder(int size) {
         return new Builder(size);
     }
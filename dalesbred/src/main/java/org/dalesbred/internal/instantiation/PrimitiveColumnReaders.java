@@ -0,0 +1,149 @@
+package org.dalesbred.internal.instantiation;
+
+import org.dalesbred.result.UnexpectedResultException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.dalesbred.internal.utils.Primitives.unwrap;
+
+/**
+ * Readers that fetch primitive columns with the typed getters of {@link ResultSet} instead of
+ * {@link ResultSet#getObject(int)}, so that the values are never boxed.
+ */
+final class PrimitiveColumnReaders {
+
+    /** {@code (ResultSet, int)primitive} readers by the primitive type they read */
+    private static final @NotNull Map<Class<?>, MethodHandle> READERS;
+
+    /** {@code (ResultSet, int, TypeConversion)Object} reader that rejects nulls */
+    private static final @NotNull MethodHandle READ_NON_NULL;
+
+    /**
+     * Lossless widening conversions: the primitive types that values of each primitive type can be
+     * read as without losing information.
+     */
+    private static final @NotNull Map<Class<?>, Set<Class<?>>> WIDENINGS = Map.of(
+            byte.class, Set.of(short.class, int.class, long.class, float.class, double.class),
+            short.class, Set.of(int.class, long.class, float.class, double.class),
+            int.class, Set.of(long.class, double.class),
+            float.class, Set.of(double.class));
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            READERS = Map.of(
+                    boolean.class, lookup.findStatic(PrimitiveColumnReaders.class, "readBoolean", methodType(boolean.class, ResultSet.class, int.class)),
+                    byte.class, lookup.findStatic(PrimitiveColumnReaders.class, "readByte", methodType(byte.class, ResultSet.class, int.class)),
+                    short.class, lookup.findStatic(PrimitiveColumnReaders.class, "readShort", methodType(short.class, ResultSet.class, int.class)),
+                    int.class, lookup.findStatic(PrimitiveColumnReaders.class, "readInt", methodType(int.class, ResultSet.class, int.class)),
+                    long.class, lookup.findStatic(PrimitiveColumnReaders.class, "readLong", methodType(long.class, ResultSet.class, int.class)),
+                    float.class, lookup.findStatic(PrimitiveColumnReaders.class, "readFloat", methodType(float.class, ResultSet.class, int.class)),
+                    double.class, lookup.findStatic(PrimitiveColumnReaders.class, "readDouble", methodType(double.class, ResultSet.class, int.class)));
+            READ_NON_NULL = lookup.findStatic(PrimitiveColumnReaders.class, "readNonNull", methodType(Object.class, ResultSet.class, int.class, TypeConversion.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private PrimitiveColumnReaders() { }
+
+    /**
+     * Returns a handle of type {@code (ResultSet)target} that reads given column without boxing, or null if
+     * the column can't be read that way. This is the case when the target is not primitive, the column does
+     * not contain primitive values, or the conversion between them is something else than a lossless widening
+     * done by the built-in number conversions. Conversions registered by the user are never skipped.
+     */
+    static @Nullable MethodHandle findReader(int column, @NotNull Type source, @NotNull TypeConversion conversion, @NotNull Class<?> target) {
+        if (!target.isPrimitive() || !(source instanceof Class<?> sourceClass))
+            return null;
+
+        Class<?> sourcePrimitive = unwrap(sourceClass);
+        if (!sourcePrimitive.isPrimitive())
+            return null;
+
+        boolean exact = sourcePrimitive == target && conversion.isIdentity();
+        boolean widening = (conversion.isIdentity() || conversion.isNumberConversion())
+                && WIDENINGS.getOrDefault(sourcePrimitive, Set.of()).contains(target);
+        if (!exact && !widening)
+            return null;
+
+        MethodHandle reader = READERS.get(sourcePrimitive);
+        if (reader == null)
+            return null;
+
+        return MethodHandles.insertArguments(reader, 1, column).asType(methodType(target, ResultSet.class));
+    }
+
+    /**
+     * Returns a handle of type {@code (ResultSet)target} that reads given column with {@link ResultSet#getObject(int)}
+     * and applies the conversion, throwing {@link UnexpectedResultException} instead of unboxing nulls.
+     */
+    static @NotNull MethodHandle convertingReader(int column, @NotNull TypeConversion conversion, @NotNull Class<?> target) {
+        return MethodHandles.insertArguments(READ_NON_NULL, 1, column, conversion).asType(methodType(target, ResultSet.class));
+    }
+
+    static @NotNull Object readNonNull(@NotNull ResultSet resultSet, int column, @NotNull TypeConversion conversion) throws SQLException {
+        Object value = conversion.convert(resultSet.getObject(column));
+        if (value == null) throw unexpectedNull(resultSet, column);
+        return value;
+    }
+
+    static boolean readBoolean(@NotNull ResultSet resultSet, int column) throws SQLException {
+        boolean value = resultSet.getBoolean(column);
+        if (!value && resultSet.wasNull()) throw unexpectedNull(resultSet, column);
+        return value;
+    }
+
+    static byte readByte(@NotNull ResultSet resultSet, int column) throws SQLException {
+        byte value = resultSet.getByte(column);
+        if (value == 0 && resultSet.wasNull()) throw unexpectedNull(resultSet, column);
+        return value;
+    }
+
+    static short readShort(@NotNull ResultSet resultSet, int column) throws SQLException {
+        short value = resultSet.getShort(column);
+        if (value == 0 && resultSet.wasNull()) throw unexpectedNull(resultSet, column);
+        return value;
+    }
+
+    static int readInt(@NotNull ResultSet resultSet, int column) throws SQLException {
+        int value = resultSet.getInt(column);
+        if (value == 0 && resultSet.wasNull()) throw unexpectedNull(resultSet, column);
+        return value;
+    }
+
+    static long readLong(@NotNull ResultSet resultSet, int column) throws SQLException {
+        long value = resultSet.getLong(column);
+        if (value == 0 && resultSet.wasNull()) throw unexpectedNull(resultSet, column);
+        return value;
+    }
+
+    static float readFloat(@NotNull ResultSet resultSet, int column) throws SQLException {
+        float value = resultSet.getFloat(column);
+        if (value == 0 && resultSet.wasNull()) throw unexpectedNull(resultSet, column);
+        return value;
+    }
+
+    static double readDouble(@NotNull ResultSet resultSet, int column) throws SQLException {
+        double value = resultSet.getDouble(column);
+        if (value == 0 && resultSet.wasNull()) throw unexpectedNull(resultSet, column);
+        return value;
+    }
+
+    private static @NotNull UnexpectedResultException unexpectedNull(@NotNull ResultSet resultSet, int column) throws SQLException {
+        return unexpectedNull(resultSet.getMetaData().getColumnLabel(column));
+    }
+
+    static @NotNull UnexpectedResultException unexpectedNull(@NotNull String columnName) {
+        return new UnexpectedResultException("Expected primitive value, but got null for column '" + columnName + "'");
+    }
+}
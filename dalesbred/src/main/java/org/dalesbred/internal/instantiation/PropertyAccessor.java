@@ -5,14 +5,18 @@ import org.dalesbred.internal.utils.Throwables;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
 import static java.lang.reflect.Modifier.isPublic;
+import static java.lang.reflect.Modifier.isStatic;
 import static org.dalesbred.internal.utils.StringUtils.isEqualIgnoringCaseAndUnderscores;
 
 abstract class PropertyAccessor {
@@ -21,8 +25,31 @@ abstract class PropertyAccessor {
 
     abstract Type getType();
 
+    /**
+     * Returns a method handle of type {@code (Object, T)void} that sets the property. By default {@code T} is
+     * {@code Object}, but subclasses can return a handle that targets the property directly with its own type,
+     * so that it can be inlined and primitive values don't need to be boxed.
+     */
+    @NotNull MethodHandle setterHandle() {
+        return SET.bindTo(this);
+    }
+
     private static final @NotNull Pattern PERIOD = Pattern.compile("\\.");
 
+    private static final @NotNull MethodType GENERIC_SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final @NotNull MethodType GENERIC_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final @NotNull MethodHandle SET;
+
+    static {
+        try {
+            SET = MethodHandles.lookup().findVirtual(PropertyAccessor.class, "set", GENERIC_SETTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     static @NotNull Optional<PropertyAccessor> findAccessor(@NotNull Class<?> cl, @NotNull String path) {
         String[] segments = PERIOD.split(path, -1);
 
@@ -37,12 +64,12 @@ abstract class PropertyAccessor {
         for (int i = 0; i < segments.length - 1; i++) {
             Field field = findField(currentClass, segments[i]).orElse(null);
             if (field != null) {
-                readers[i] = field::get;
+                readers[i] = PropertyReader.forField(field);
                 currentClass = field.getType();
             } else {
                 Method getter = findGetter(currentClass, segments[i]).orElse(null);
                 if (getter != null) {
-                    readers[i] = getter::invoke;
+                    readers[i] = PropertyReader.forGetter(getter);
                     currentClass = getter.getReturnType();
                 } else {
                     return Optional.empty();
@@ -112,8 +139,31 @@ abstract class PropertyAccessor {
 
         private final @NotNull Field field;
 
+        /** {@code (Object, FieldType)void} setter derived from the {@link VarHandle} of the field, or null if access checks failed */
+        private final @Nullable MethodHandle typedSetter;
+
+        /** {@link #typedSetter} adapted to {@code (Object, Object)void} */
+        private final @Nullable MethodHandle setter;
+
         private FieldPropertyAccessor(@NotNull Field field) {
             this.field = field;
+            this.typedSetter = resolveSetter(field);
+            this.setter = typedSetter != null ? typedSetter.asType(GENERIC_SETTER_TYPE) : null;
+        }
+
+        private static @Nullable MethodHandle resolveSetter(@NotNull Field field) {
+            if (isStatic(field.getModifiers()))
+                return null;
+
+            try {
+                VarHandle varHandle = MethodHandles.lookup().unreflectVarHandle(field);
+                if (!varHandle.isAccessModeSupported(VarHandle.AccessMode.SET))
+                    return null;
+
+                return varHandle.toMethodHandle(VarHandle.AccessMode.SET).asType(MethodType.methodType(void.class, Object.class, field.getType()));
+            } catch (IllegalAccessException e) {
+                return null;
+            }
         }
 
         @Override
@@ -121,11 +171,19 @@ abstract class PropertyAccessor {
             return field.getGenericType();
         }
 
+        @Override
+        @NotNull MethodHandle setterHandle() {
+            return typedSetter != null ? typedSetter : super.setterHandle();
+        }
+
         @Override
         void set(@NotNull Object object, Object value) {
             try {
-                field.set(object, value);
-            } catch (IllegalAccessException e) {
+                if (setter != null)
+                    setter.invokeExact(object, value);
+                else
+                    field.set(object, value);
+            } catch (Throwable e) {
                 throw Throwables.propagate(e);
             }
         }
@@ -135,8 +193,16 @@ abstract class PropertyAccessor {
 
         private final @NotNull Method setter;
 
+        /** {@code (Object, PropertyType)void} handle for the setter, or null if access checks failed */
+        private final @Nullable MethodHandle typedSetterHandle;
+
+        /** {@link #typedSetterHandle} adapted to {@code (Object, Object)void} */
+        private final @Nullable MethodHandle setterHandle;
+
         private SetterPropertyAccessor(@NotNull Method setter) {
             this.setter = setter;
+            this.typedSetterHandle = resolveHandle(setter, MethodType.methodType(void.class, Object.class, setter.getParameterTypes()[0]));
+            this.setterHandle = typedSetterHandle != null ? typedSetterHandle.asType(GENERIC_SETTER_TYPE) : null;
         }
 
         @Override
@@ -144,11 +210,19 @@ abstract class PropertyAccessor {
             return setter.getGenericParameterTypes()[0];
         }
 
+        @Override
+        @NotNull MethodHandle setterHandle() {
+            return typedSetterHandle != null ? typedSetterHandle : super.setterHandle();
+        }
+
         @Override
         void set(@NotNull Object object, Object value) {
             try {
-                setter.invoke(object, value);
-            } catch (Exception e) {
+                if (setterHandle != null)
+                    setterHandle.invokeExact(object, value);
+                else
+                    setter.invoke(object, value);
+            } catch (Throwable e) {
                 throw Throwables.propagate(e);
             }
         }
@@ -179,30 +253,69 @@ abstract class PropertyAccessor {
         }
 
         private @NotNull Object resolveFinalObject(@NotNull Object object) {
-            try {
-                Object obj = object;
-
-                for (PropertyReader reader : readers) {
-                    Object value = reader.propertyValue(obj);
-                    if (value != null)
-                        obj = value;
-                    else
-                        throw new InstantiationFailureException(
-                                "Failed to set property for '" + path + "', because one of the intermediate objects was null.");
-                }
+            Object obj = object;
+
+            for (PropertyReader reader : readers) {
+                Object value = readProperty(reader, obj);
+                if (value != null)
+                    obj = value;
+                else
+                    throw new InstantiationFailureException(
+                            "Failed to set property for '" + path + "', because one of the intermediate objects was null.");
+            }
 
-                return obj;
+            return obj;
+        }
 
-            } catch (InvocationTargetException | IllegalAccessException e) {
+        private @Nullable Object readProperty(@NotNull PropertyReader reader, @NotNull Object object) {
+            try {
+                return reader.propertyValue(object);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new InstantiationFailureException("Failed to set property for '" + path + "'.", e);
             }
         }
     }
 
     private interface PropertyReader {
-        @SuppressWarnings("RedundantThrows")
         @Nullable
-        Object propertyValue(@NotNull Object o) throws IllegalAccessException, InvocationTargetException;
+        Object propertyValue(@NotNull Object o) throws Throwable;
+
+        static @NotNull PropertyReader forField(@NotNull Field field) {
+            if (isStatic(field.getModifiers()))
+                return field::get;
+
+            try {
+                MethodHandle getter = MethodHandles.lookup().unreflectVarHandle(field).toMethodHandle(VarHandle.AccessMode.GET).asType(GENERIC_GETTER_TYPE);
+                return o -> (Object) getter.invokeExact(o);
+            } catch (IllegalAccessException e) {
+                return field::get;
+            }
+        }
+
+        static @NotNull PropertyReader forGetter(@NotNull Method method) {
+            MethodHandle getter = resolveHandle(method, GENERIC_GETTER_TYPE);
+            if (getter != null)
+                return o -> (Object) getter.invokeExact(o);
+            else
+                return method::invoke;
+        }
+    }
+
+    /**
+     * Returns a handle of given type for the method, or null if the method is not accessible
+     * through method handles, in which case the caller should fall back to reflection.
+     */
+    private static @Nullable MethodHandle resolveHandle(@NotNull Method method, @NotNull MethodType type) {
+        if (isStatic(method.getModifiers()))
+            return null;
+
+        try {
+            return MethodHandles.lookup().unreflect(method).asType(type);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
     }
 }
 
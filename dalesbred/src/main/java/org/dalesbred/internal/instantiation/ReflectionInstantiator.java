@@ -4,11 +4,15 @@ import org.dalesbred.internal.utils.Throwables;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
 import java.util.List;
 
+import static java.lang.reflect.Modifier.isStatic;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -23,6 +27,17 @@ final class ReflectionInstantiator<T> implements Instantiator<T> {
 
     private final int parameterCount;
 
+    /** Whether each parameter and property is primitive and can't therefore be given a null */
+    private final @NotNull boolean[] primitive;
+
+    /**
+     * Handle of type {@code (Object[])Object} that invokes the instantiator, or null if access
+     * checks failed, in which case we fall back to reflection.
+     */
+    private final @Nullable MethodHandle handle;
+
+    private static final @NotNull MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
     ReflectionInstantiator(@NotNull Executable instantiator,
                            @NotNull List<TypeConversion> conversions,
                            @NotNull List<PropertyAccessor> accessors) {
@@ -30,16 +45,48 @@ final class ReflectionInstantiator<T> implements Instantiator<T> {
         this.conversions = requireNonNull(conversions);
         this.accessors = requireNonNull(accessors);
         this.parameterCount = instantiator.getParameterTypes().length;
+        this.handle = resolveHandle(instantiator, parameterCount);
+        this.primitive = resolvePrimitives(instantiator, accessors);
     }
 
+    private static @Nullable MethodHandle resolveHandle(@NotNull Executable instantiator, int parameterCount) {
+        try {
+            MethodHandle handle;
+            if (instantiator instanceof Constructor<?> ctor)
+                handle = MethodHandles.lookup().unreflectConstructor(ctor);
+            else if (instantiator instanceof Method method && isStatic(method.getModifiers()))
+                handle = MethodHandles.lookup().unreflect(method);
+            else
+                return null;
+
+            return handle.asSpreader(Object[].class, parameterCount).asType(SPREAD_TYPE);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static @NotNull boolean[] resolvePrimitives(@NotNull Executable instantiator, @NotNull List<PropertyAccessor> accessors) {
+        Class<?>[] parameterTypes = instantiator.getParameterTypes();
+        boolean[] result = new boolean[parameterTypes.length + accessors.size()];
+
+        for (int i = 0; i < parameterTypes.length; i++)
+            result[i] = parameterTypes[i].isPrimitive();
+
+        for (int i = 0; i < accessors.size(); i++)
+            result[parameterTypes.length + i] = accessors.get(i).getType() instanceof Class<?> cl && cl.isPrimitive();
+
+        return result;
+    }
 
     @Override
     public @Nullable T instantiate(@NotNull InstantiatorArguments arguments) {
         try {
-            Object[] argumentArray = toArgumentArray(arguments.getValues());
+            Object[] argumentArray = toArgumentArray(arguments);
 
             @Nullable Object v;
-            if (instantiator instanceof Constructor<?>) {
+            if (handle != null) {
+                v = (Object) handle.invokeExact(argumentArray);
+            } else if (instantiator instanceof Constructor<?>) {
                 v = ((Constructor<?>) instantiator).newInstance(argumentArray);
             } else if (instantiator instanceof  Method) {
                 v = ((Method) instantiator).invoke(null, argumentArray);
@@ -52,7 +99,7 @@ final class ReflectionInstantiator<T> implements Instantiator<T> {
             if (value != null)
                 bindRemainingProperties(value, arguments);
             return value;
-        } catch (Exception e) {
+        } catch (Throwable e) {
             throw Throwables.propagate(e);
         }
     }
@@ -62,18 +109,37 @@ final class ReflectionInstantiator<T> implements Instantiator<T> {
 
         for (int i = 0, len = accessors.size(); i < len; i++) {
             int argumentIndex = i + parameterCount;
-            Object originalValue = values.get(argumentIndex);
-            Object convertedValue = conversions.get(argumentIndex).convert(originalValue);
+            Object convertedValue = convert(arguments, values, argumentIndex);
             accessors.get(i).set(result, convertedValue);
         }
     }
 
-    private @NotNull Object[] toArgumentArray(@NotNull List<?> arguments) {
+    @NotNull Executable getExecutable() {
+        return instantiator;
+    }
+
+    @NotNull List<TypeConversion> getConversions() {
+        return conversions;
+    }
+
+    @NotNull List<PropertyAccessor> getAccessors() {
+        return accessors;
+    }
+
+    private @NotNull Object[] toArgumentArray(@NotNull InstantiatorArguments arguments) {
+        List<?> values = arguments.getValues();
         Object[] result = new Object[parameterCount];
 
         for (int i = 0; i < result.length; i++)
-            result[i] = conversions.get(i).convert(arguments.get(i));
+            result[i] = convert(arguments, values, i);
 
         return result;
     }
+
+    private @Nullable Object convert(@NotNull InstantiatorArguments arguments, @NotNull List<?> values, int index) {
+        Object value = conversions.get(index).convert(values.get(index));
+        if (value == null && primitive[index])
+            throw PrimitiveColumnReaders.unexpectedNull(arguments.getTypes().getName(index));
+        return value;
+    }
 }
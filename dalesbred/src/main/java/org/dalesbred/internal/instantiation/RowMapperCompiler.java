@@ -0,0 +1,193 @@
+package org.dalesbred.internal.instantiation;
+
+import org.dalesbred.instantiation.GeneratedInstantiator;
+import org.dalesbred.internal.utils.Throwables;
+import org.dalesbred.result.RowMapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static java.lang.invoke.MethodHandles.*;
+import static java.lang.invoke.MethodType.methodType;
+import static org.dalesbred.internal.utils.TypeUtils.rawType;
+
+/**
+ * Compiles resolved instantiators into {@link RowMapper}s that read their arguments straight from the
+ * {@link ResultSet}, apply the conversions and invoke the constructor and setters through a single method
+ * handle. Since the handle is built once per result shape, the JIT is able to inline the whole mapping.
+ */
+final class RowMapperCompiler {
+
+    /** The type of compiled handles: {@code (ResultSet)Object} */
+    private static final @NotNull MethodType MAPPER_TYPE = methodType(Object.class, ResultSet.class);
+
+    /** {@code (ResultSet, int)Object}, ie. {@link ResultSet#getObject(int)} */
+    private static final @NotNull MethodHandle GET_OBJECT;
+
+    /** {@code (TypeConversion, Object)Object}, ie. {@link TypeConversion#convert(Object)} */
+    private static final @NotNull MethodHandle CONVERT;
+
+    /** {@code (GeneratedInstantiator, Object[])Object}, ie. {@link GeneratedInstantiator#instantiate(Object[])} */
+    private static final @NotNull MethodHandle INSTANTIATE;
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(RowMapperCompiler.class);
+
+    static {
+        try {
+            Lookup lookup = MethodHandles.lookup();
+            GET_OBJECT = lookup.findVirtual(ResultSet.class, "getObject", methodType(Object.class, int.class));
+            CONVERT = lookup.findVirtual(TypeConversion.class, "convert", methodType(Object.class, Object.class));
+            INSTANTIATE = lookup.findVirtual(GeneratedInstantiator.class, "instantiate", methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private RowMapperCompiler() { }
+
+    /**
+     * Compiles given instantiator into a row mapper that reads its arguments of given types starting
+     * from given (one-based) column. Returns null if the instantiator can't be compiled, in which case
+     * the caller should use the instantiator as it is.
+     */
+    static @Nullable RowMapper<Object> compile(@NotNull Instantiator<?> instantiator, @NotNull NamedTypeList types, int firstColumn) {
+        try {
+            MethodHandle handle;
+            if (instantiator instanceof ConversionInstantiator<?> conversionInstantiator)
+                handle = columnReader(firstColumn, types.getType(0), conversionInstantiator.getConversion(), Object.class);
+            else if (instantiator instanceof ReflectionInstantiator<?> reflectionInstantiator)
+                handle = compileReflectionInstantiator(reflectionInstantiator, types, firstColumn);
+            else if (instantiator instanceof GeneratedInstantiatorAdapter<?> generatedInstantiator)
+                handle = compileGeneratedInstantiator(generatedInstantiator, types, firstColumn);
+            else
+                return null;
+
+            return new CompiledRowMapper(handle.asType(MAPPER_TYPE));
+
+        } catch (IllegalAccessException | SecurityException e) {
+            log.debug("Could not compile {}, falling back to reflection: {}", instantiator, e.toString());
+            return null;
+        }
+    }
+
+    private static @NotNull MethodHandle compileReflectionInstantiator(@NotNull ReflectionInstantiator<?> instantiator, @NotNull NamedTypeList types, int firstColumn) throws IllegalAccessException {
+        Executable executable = instantiator.getExecutable();
+        List<TypeConversion> conversions = instantiator.getConversions();
+        List<PropertyAccessor> accessors = instantiator.getAccessors();
+
+        MethodHandle create = unreflect(executable);
+        create = create.asType(create.type().changeReturnType(Object.class));
+
+        int parameterCount = executable.getParameterCount();
+        if (parameterCount == 0) {
+            create = dropArguments(create, 0, ResultSet.class);
+        } else {
+            MethodHandle[] readers = new MethodHandle[parameterCount];
+            for (int i = 0; i < parameterCount; i++)
+                readers[i] = columnReader(firstColumn + i, types.getType(i), conversions.get(i), create.type().parameterType(i));
+
+            // (ResultSet, ..., ResultSet)Object -> (ResultSet)Object
+            create = permuteArguments(filterArguments(create, 0, readers), MAPPER_TYPE, new int[parameterCount]);
+        }
+
+        if (accessors.isEmpty())
+            return create;
+
+        // Build (Object, ResultSet)void that calls the setters in order
+        MethodHandle bind = empty(methodType(void.class, Object.class, ResultSet.class));
+        for (int i = accessors.size() - 1; i >= 0; i--) {
+            int argumentIndex = parameterCount + i;
+            MethodHandle setter = accessors.get(i).setterHandle();
+            MethodHandle reader = columnReader(firstColumn + argumentIndex, types.getType(argumentIndex), conversions.get(argumentIndex), setter.type().parameterType(1));
+            bind = foldArguments(bind, filterArguments(setter, 1, reader));
+        }
+
+        // (Object, ResultSet)Object that binds the properties and returns the instance
+        MethodHandle bindAndReturn = foldArguments(dropArguments(identity(Object.class), 1, ResultSet.class), bind);
+
+        return foldArguments(bindAndReturn, create);
+    }
+
+    private static @NotNull MethodHandle compileGeneratedInstantiator(@NotNull GeneratedInstantiatorAdapter<?> instantiator, @NotNull NamedTypeList types, int firstColumn) {
+        List<TypeConversion> conversions = instantiator.getConversions();
+        int parameterCount = conversions.size();
+
+        // (Object, ..., Object)Object that collects its arguments into an array for the generated instantiator
+        MethodHandle create = INSTANTIATE.bindTo(instantiator.getGenerated()).asCollector(Object[].class, parameterCount);
+
+        if (parameterCount == 0)
+            return dropArguments(create, 0, ResultSet.class);
+
+        // Read the columns as the actual parameter types so that nulls for primitive parameters are rejected
+        // like for other instantiators instead of failing in the generated code, then box them for the array.
+        List<Type> parameterTypes = instantiator.getGenerated().getParameterTypes();
+        MethodHandle[] readers = new MethodHandle[parameterCount];
+        for (int i = 0; i < parameterCount; i++)
+            readers[i] = columnReader(firstColumn + i, types.getType(i), conversions.get(i), rawType(parameterTypes.get(i)))
+                    .asType(methodType(Object.class, ResultSet.class));
+
+        return permuteArguments(filterArguments(create, 0, readers), MAPPER_TYPE, new int[parameterCount]);
+    }
+
+    /**
+     * Returns a handle of type {@code (ResultSet)type} that reads given column and applies the conversion.
+     * Primitive values are read without boxing when possible.
+     */
+    private static @NotNull MethodHandle columnReader(int column, @NotNull Type source, @NotNull TypeConversion conversion, @NotNull Class<?> type) {
+        MethodHandle primitiveReader = PrimitiveColumnReaders.findReader(column, source, conversion, type);
+        if (primitiveReader != null)
+            return primitiveReader;
+
+        if (type.isPrimitive())
+            return PrimitiveColumnReaders.convertingReader(column, conversion, type);
+
+        MethodHandle reader = insertArguments(GET_OBJECT, 1, column);
+
+        if (!conversion.isIdentity())
+            reader = filterReturnValue(reader, CONVERT.bindTo(conversion));
+
+        return reader.asType(methodType(type, ResultSet.class));
+    }
+
+    private static @NotNull MethodHandle unreflect(@NotNull Executable executable) throws IllegalAccessException {
+        Lookup lookup = MethodHandles.lookup();
+        if (executable instanceof Constructor<?> ctor)
+            return lookup.unreflectConstructor(ctor);
+        else if (executable instanceof Method method)
+            return lookup.unreflect(method);
+        else
+            throw new IllegalStateException("Unexpected instantiator: " + executable);
+    }
+
+    private static final class CompiledRowMapper implements RowMapper<Object> {
+
+        private final @NotNull MethodHandle handle;
+
+        CompiledRowMapper(@NotNull MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object mapRow(@NotNull ResultSet resultSet) throws SQLException {
+            try {
+                return (Object) handle.invokeExact(resultSet);
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw Throwables.propagate(e);
+            }
+        }
+    }
+}
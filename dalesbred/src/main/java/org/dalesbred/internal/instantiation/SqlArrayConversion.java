@@ -12,13 +12,18 @@ import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
+import static org.dalesbred.internal.utils.CollectionUtils.arrayOfType;
+
 final class SqlArrayConversion {
 
     private final @NotNull Type elementType;
 
+    private static final int INITIAL_CAPACITY = 16;
+
     private final @NotNull InstantiatorProvider instantiatorRegistry;
 
     private SqlArrayConversion(@NotNull Type elementType, @NotNull InstantiatorProvider instantiatorRegistry) {
@@ -30,36 +35,38 @@ final class SqlArrayConversion {
                                                    @NotNull Function<List<?>, ?> createResult) {
         SqlArrayConversion conversion = new SqlArrayConversion(elementType, instantiatorProvider);
 
-        return TypeConversion.fromNonNullFunction((Array array) -> createResult.apply(conversion.readArray(array)));
+        return TypeConversion.fromNonNullFunction((Array array) -> conversion.readArray(array, (resultSet, types) -> createResult.apply(conversion.readList(resultSet, types))));
+    }
+
+    /**
+     * Returns a conversion from SQL arrays into Java arrays of given component type. Arrays of int, long and
+     * double are read without boxing the elements if the database returns elements of matching type.
+     */
+    public static @NotNull TypeConversion sqlArrayToJavaArray(@NotNull Class<?> componentType, @NotNull InstantiatorProvider instantiatorProvider) {
+        SqlArrayConversion conversion = new SqlArrayConversion(componentType, instantiatorProvider);
+
+        return TypeConversion.fromNonNullFunction((Array array) -> conversion.readArray(array, (resultSet, types) -> {
+            Type valueType = types.getType(0);
+            if (componentType == int.class && valueType == Integer.class)
+                return readIntArray(resultSet);
+            else if (componentType == long.class && valueType == Long.class)
+                return readLongArray(resultSet);
+            else if (componentType == double.class && valueType == Double.class)
+                return readDoubleArray(resultSet);
+            else
+                return arrayOfType(componentType, conversion.readList(resultSet, types));
+        }));
     }
 
-    private @NotNull List<?> readArray(@NotNull Array array) {
+    private @NotNull Object readArray(@NotNull Array array, @NotNull ArrayReader reader) {
         try {
-            boolean allowNulls = !TypeUtils.isPrimitive(elementType);
             ResultSet resultSet = array.getResultSet();
             try {
                 NamedTypeList types = NamedTypeList.builder(1).add(
                     "value", ResultSetUtils.getColumnType(resultSet.getMetaData(), instantiatorRegistry.getDialect(), 2)
                 ).build();
-                Instantiator<?> ctor = instantiatorRegistry.findInstantiator(elementType, types);
-                ArrayList<Object> result = new ArrayList<>();
-
-                // For performance reasons we reuse the same arguments-array and InstantiatorArguments-object for all rows.
-                // This should be fine as long as the instantiators don't hang on to their arguments for too long.
-                Object[] arguments = new Object[1];
-                InstantiatorArguments instantiatorArguments = new InstantiatorArguments(types, arguments);
-
-                while (resultSet.next()) {
-                    arguments[0] = resultSet.getObject(2);
-
-                    Object value = ctor.instantiate(instantiatorArguments);
-                    if (value != null || allowNulls)
-                        result.add(value);
-                    else
-                        throw new UnexpectedResultException("Expected " + elementType + ", but got null");
-                }
 
-                return result;
+                return reader.read(resultSet, types);
 
             } finally {
                 try {
@@ -73,4 +80,74 @@ final class SqlArrayConversion {
             throw new DatabaseSQLException(e);
         }
     }
+
+    private @NotNull List<?> readList(@NotNull ResultSet resultSet, @NotNull NamedTypeList types) throws SQLException {
+        boolean allowNulls = !TypeUtils.isPrimitive(elementType);
+        Instantiator<?> ctor = instantiatorRegistry.findInstantiator(elementType, types);
+        ArrayList<Object> result = new ArrayList<>();
+
+        // For performance reasons we reuse the same arguments-array and InstantiatorArguments-object for all rows.
+        // This should be fine as long as the instantiators don't hang on to their arguments for too long.
+        Object[] arguments = new Object[1];
+        InstantiatorArguments instantiatorArguments = new InstantiatorArguments(types, arguments);
+
+        while (resultSet.next()) {
+            arguments[0] = resultSet.getObject(2);
+
+            Object value = ctor.instantiate(instantiatorArguments);
+            if (value != null || allowNulls)
+                result.add(value);
+            else
+                throw new UnexpectedResultException("Expected " + elementType + ", but got null");
+        }
+
+        return result;
+    }
+
+    private static @NotNull int[] readIntArray(@NotNull ResultSet resultSet) throws SQLException {
+        int[] result = new int[INITIAL_CAPACITY];
+        int size = 0;
+
+        while (resultSet.next()) {
+            if (size == result.length)
+                result = Arrays.copyOf(result, size * 2);
+
+            result[size++] = PrimitiveColumnReaders.readInt(resultSet, 2);
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    private static @NotNull long[] readLongArray(@NotNull ResultSet resultSet) throws SQLException {
+        long[] result = new long[INITIAL_CAPACITY];
+        int size = 0;
+
+        while (resultSet.next()) {
+            if (size == result.length)
+                result = Arrays.copyOf(result, size * 2);
+
+            result[size++] = PrimitiveColumnReaders.readLong(resultSet, 2);
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    private static @NotNull double[] readDoubleArray(@NotNull ResultSet resultSet) throws SQLException {
+        double[] result = new double[INITIAL_CAPACITY];
+        int size = 0;
+
+        while (resultSet.next()) {
+            if (size == result.length)
+                result = Arrays.copyOf(result, size * 2);
+
+            result[size++] = PrimitiveColumnReaders.readDouble(resultSet, 2);
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    @FunctionalInterface
+    private interface ArrayReader {
+        @NotNull Object read(@NotNull ResultSet resultSet, @NotNull NamedTypeList types) throws SQLException;
+    }
 }
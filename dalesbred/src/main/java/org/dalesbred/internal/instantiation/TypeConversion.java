@@ -12,20 +12,49 @@ public class TypeConversion {
 
     private final @NotNull Function<Object,Object> conversion;
 
+    /** Whether this is one of the built-in conversions between numbers */
+    private final boolean numberConversion;
+
+    private static final @NotNull TypeConversion IDENTITY = new TypeConversion(Function.identity(), false);
+
     @SuppressWarnings("unchecked")
-    private TypeConversion(@NotNull Function<?, ?> conversion) {
+    private TypeConversion(@NotNull Function<?, ?> conversion, boolean numberConversion) {
         this.conversion = (Function<Object,Object>) conversion;
+        this.numberConversion = numberConversion;
     }
 
     public static @NotNull <S,T> TypeConversion fromNonNullFunction(@NotNull Function<S, T> function) {
-        return new TypeConversion((S value) -> value != null ? function.apply(value) : null);
+        return new TypeConversion((S value) -> value != null ? function.apply(value) : null, false);
+    }
+
+    /**
+     * Returns a built-in conversion between numbers, which converts the values like the corresponding
+     * primitive conversion of the language.
+     */
+    static @NotNull <T> TypeConversion numberConversion(@NotNull Function<Number, T> function) {
+        return new TypeConversion((Number value) -> value != null ? function.apply(value) : null, true);
     }
 
     /**
      * Returns identity-conversion, ie. a conversion that does nothing.
      */
     public static @NotNull TypeConversion identity() {
-        return new TypeConversion(Function.identity());
+        return IDENTITY;
+    }
+
+    /**
+     * Returns true if this conversion is known to return its argument as it is.
+     */
+    public boolean isIdentity() {
+        return this == IDENTITY;
+    }
+
+    /**
+     * Returns true if this is a built-in conversion between numbers. When converting to wider primitive types,
+     * such conversions give the same results as reading the value with the typed getters of the result set.
+     */
+    public boolean isNumberConversion() {
+        return numberConversion;
     }
 
     public @Nullable Object convert(@Nullable Object value) {
@@ -34,6 +63,6 @@ public class TypeConversion {
 
     @SuppressWarnings("unchecked")
     public @NotNull TypeConversion compose(@NotNull Function<?,?> function) {
-        return new TypeConversion(conversion.andThen((Function<Object,Object>) function));
+        return new TypeConversion(conversion.andThen((Function<Object,Object>) function), false);
     }
 }
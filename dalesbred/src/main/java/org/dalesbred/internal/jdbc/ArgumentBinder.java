@@ -10,16 +10,44 @@ import org.w3c.dom.Document;
 import javax.xml.transform.dom.DOMResult;
 import java.io.InputStream;
 import java.io.Reader;
-import java.sql.Array;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-import java.sql.SQLXML;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.Map;
+
+import static java.util.Map.entry;
 
 public final class ArgumentBinder {
 
+    /**
+     * Setters for common types that bind values with typed setters instead of {@link PreparedStatement#setObject(int, Object)},
+     * so that the driver doesn't need to infer the type.
+     */
+    private static final @NotNull Map<Class<?>, ArgumentSetter> TYPED_SETTERS = Map.ofEntries(
+            entry(String.class, (ps, index, value) -> ps.setString(index, (String) value)),
+            entry(Integer.class, (ps, index, value) -> ps.setInt(index, (Integer) value)),
+            entry(Long.class, (ps, index, value) -> ps.setLong(index, (Long) value)),
+            entry(Short.class, (ps, index, value) -> ps.setShort(index, (Short) value)),
+            entry(Byte.class, (ps, index, value) -> ps.setByte(index, (Byte) value)),
+            entry(Double.class, (ps, index, value) -> ps.setDouble(index, (Double) value)),
+            entry(Float.class, (ps, index, value) -> ps.setFloat(index, (Float) value)),
+            entry(Boolean.class, (ps, index, value) -> ps.setBoolean(index, (Boolean) value)),
+            entry(BigDecimal.class, (ps, index, value) -> ps.setBigDecimal(index, (BigDecimal) value)),
+            entry(Timestamp.class, (ps, index, value) -> ps.setTimestamp(index, (Timestamp) value)),
+            entry(Date.class, (ps, index, value) -> ps.setDate(index, (Date) value)),
+            entry(Time.class, (ps, index, value) -> ps.setTime(index, (Time) value)),
+            entry(byte[].class, (ps, index, value) -> ps.setBytes(index, (byte[]) value)));
+
     private ArgumentBinder() {
     }
 
+    /**
+     * Returns a setter that binds values whose runtime class is exactly given class. The setter behaves like
+     * {@link #bindArgument(PreparedStatement, int, Object)}, but uses typed setters where possible.
+     */
+    public static @NotNull ArgumentSetter setterFor(@NotNull Class<?> type) {
+        return TYPED_SETTERS.getOrDefault(type, ArgumentBinder::bindArgument);
+    }
+
     public static void bindArgument(@NotNull PreparedStatement ps, int index, @Nullable Object value) throws SQLException {
         switch (value) {
             case InputStream inputStream -> bindInputStream(ps, index, inputStream);
@@ -0,0 +1,15 @@
+package org.dalesbred.internal.jdbc;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds arguments of a specific type to {@link PreparedStatement}s.
+ */
+@FunctionalInterface
+public interface ArgumentSetter {
+    void bind(@NotNull PreparedStatement ps, int index, @Nullable Object value) throws SQLException;
+}
@@ -0,0 +1,131 @@
+package org.dalesbred.internal.jdbc;
+
+import org.dalesbred.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a {@link PreparedStatementCache} for each physical connection, so that the statements survive
+ * when a connection pool hands the same connection to subsequent transactions.
+ *
+ * <p>The caches are keyed by the connection returned by {@link Connection#unwrap(Class)}, but statements
+ * are always prepared through the connection that was handed out for the current transaction, so that
+ * wrappers of pools and proxies see them. Pools that close the statements of a wrapper when it is closed
+ * thus limit the reuse to a single transaction, since closed statements are prepared again.
+ *
+ * <p>Caches of connections that have been closed are dropped whenever a cache is looked up, and all caches
+ * are closed when the capacity changes.
+ */
+public final class ConnectionStatementCaches {
+
+    /** Caches by physical connection, guarded by itself */
+    private final @NotNull Map<Connection, PreparedStatementCache> caches = new IdentityHashMap<>();
+
+    private final @NotNull PreparedStatementCache.Statistics statistics = new PreparedStatementCache.Statistics();
+
+    private volatile int capacity = 0;
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(ConnectionStatementCaches.class);
+
+    /**
+     * Returns the cache for the physical connection behind given connection, or null if caching is disabled.
+     * The returned cache prepares its statements through given connection and may be used only while the
+     * caller holds the connection.
+     */
+    public @Nullable PreparedStatementCache cacheFor(@NotNull Connection connection) {
+        Connection physicalConnection = unwrap(connection);
+        List<PreparedStatementCache> closedCaches;
+        PreparedStatementCache cache;
+
+        synchronized (caches) {
+            closedCaches = removeCachesOfClosedConnections();
+
+            int capacity = this.capacity;
+            if (capacity == 0) {
+                cache = null;
+            } else {
+                cache = caches.get(physicalConnection);
+                if (cache == null) {
+                    cache = new PreparedStatementCache(connection, capacity, statistics);
+                    caches.put(physicalConnection, cache);
+                } else {
+                    cache.setConnection(connection);
+                }
+            }
+        }
+
+        closeAll(closedCaches);
+        return cache;
+    }
+
+    private @NotNull List<PreparedStatementCache> removeCachesOfClosedConnections() {
+        List<PreparedStatementCache> closedCaches = new ArrayList<>();
+        for (Iterator<Map.Entry<Connection, PreparedStatementCache>> it = caches.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Connection, PreparedStatementCache> entry = it.next();
+            if (isClosed(entry.getKey())) {
+                closedCaches.add(entry.getValue());
+                it.remove();
+            }
+        }
+        return closedCaches;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum amount of statements cached for each connection, or zero to disable caching.
+     * Existing caches are closed: their idle statements immediately and borrowed ones when they are given back.
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Negative statement cache size: " + capacity);
+
+        List<PreparedStatementCache> oldCaches;
+        synchronized (caches) {
+            this.capacity = capacity;
+            oldCaches = new ArrayList<>(caches.values());
+            caches.clear();
+        }
+
+        closeAll(oldCaches);
+    }
+
+    public @NotNull CacheStatistics getStatistics() {
+        return statistics.snapshot();
+    }
+
+    private static void closeAll(@NotNull List<PreparedStatementCache> caches) {
+        for (PreparedStatementCache cache : caches)
+            cache.close();
+    }
+
+    private static @NotNull Connection unwrap(@NotNull Connection connection) {
+        try {
+            Connection unwrapped = connection.unwrap(Connection.class);
+            return unwrapped != null ? unwrapped : connection;
+        } catch (SQLException e) {
+            return connection;
+        }
+    }
+
+    private static boolean isClosed(@NotNull Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            log.debug("failed to check if connection is closed, assuming it is", e);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.dalesbred.internal.jdbc;
+
+import org.dalesbred.dialect.Dialect;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * A single-row {@code INSERT ... VALUES (?, ...)} statement that can be rewritten into statements inserting
+ * multiple rows with {@code VALUES (?, ...), (?, ...), ...}, so that batches are sent to the database as few
+ * statements instead of one statement per row regardless of the driver.
+ *
+ * <p>Only statements whose parameters all appear in the single row of the {@code VALUES} list are rewritten.
+ * The only clause allowed after the row is {@code ON CONFLICT ... DO NOTHING}, which is kept after the last row.
+ * Clauses that update existing rows (e.g. {@code ON CONFLICT DO UPDATE} or {@code ON DUPLICATE KEY UPDATE}) are
+ * not rewritten, since they behave differently when several rows of the same statement conflict.
+ */
+public final class MultiRowInsert {
+
+    /** SQL up to the row of values */
+    private final @NotNull String prefix;
+
+    /** The row of values, including the parentheses */
+    private final @NotNull String row;
+
+    /** SQL after the row of values */
+    private final @NotNull String suffix;
+
+    private final int parametersPerRow;
+
+    private final int maxRows;
+
+    /** Clauses allowed after the row, in the form returned by {@link #normalize(String)} */
+    private static final @NotNull Pattern ALLOWED_SUFFIX = Pattern.compile("(on conflict( (?!.*\\bdo update\\b).*)? do nothing)?");
+
+    private MultiRowInsert(@NotNull String prefix, @NotNull String row, @NotNull String suffix, int parametersPerRow, int maxRows) {
+        this.prefix = prefix;
+        this.row = row;
+        this.suffix = suffix;
+        this.parametersPerRow = parametersPerRow;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Parses given SQL, returning null if it can't be rewritten or if the limits of given dialect don't allow
+     * inserting more than one row per statement.
+     */
+    public static @Nullable MultiRowInsert parse(@NotNull String sql, @NotNull Dialect dialect) {
+        if (!sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("insert"))
+            return null;
+
+        int values = findValuesKeyword(sql);
+        if (values == -1)
+            return null;
+
+        int rowStart = skipWhitespace(sql, values + "values".length());
+        if (rowStart == sql.length() || sql.charAt(rowStart) != '(')
+            return null;
+
+        int rowEnd = findClosingParenthesis(sql, rowStart);
+        if (rowEnd == -1)
+            return null;
+
+        int next = skipWhitespace(sql, rowEnd + 1);
+        if (next < sql.length() && sql.charAt(next) == ',')
+            return null; // already inserts multiple rows
+
+        String prefix = sql.substring(0, rowStart);
+        String row = sql.substring(rowStart, rowEnd + 1);
+        String suffix = sql.substring(rowEnd + 1);
+
+        int parametersPerRow = countParameters(row);
+        if (parametersPerRow <= 0 || countParameters(prefix) != 0 || countParameters(suffix) != 0)
+            return null;
+
+        String normalizedSuffix = normalize(suffix);
+        if (normalizedSuffix == null || !ALLOWED_SUFFIX.matcher(normalizedSuffix).matches())
+            return null;
+
+        int maxRows = Math.min(dialect.getMaxInsertValuesRows(), dialect.getMaxParameterCount() / parametersPerRow);
+        if (maxRows < 2)
+            return null;
+
+        return new MultiRowInsert(prefix, row, suffix, parametersPerRow, maxRows);
+    }
+
+    /**
+     * Returns the SQL for inserting given amount of rows.
+     */
+    public @NotNull String sqlForRows(int rows) {
+        StringBuilder sb = new StringBuilder(prefix.length() + rows * (row.length() + 2) + suffix.length());
+        sb.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i != 0)
+                sb.append(", ");
+            sb.append(row);
+        }
+        sb.append(suffix);
+        return sb.toString();
+    }
+
+    public int getParametersPerRow() {
+        return parametersPerRow;
+    }
+
+    /**
+     * Returns the maximum amount of rows per statement allowed by the dialect.
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Returns the position of the first {@code VALUES} keyword outside quotes, comments and parentheses, or -1.
+     */
+    private static int findValuesKeyword(@NotNull String sql) {
+        int depth = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (startsQuotedOrComment(sql, i)) {
+                i = skipQuotedOrComment(sql, i);
+                if (i == -1)
+                    return -1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && sql.regionMatches(true, i, "values", 0, "values".length())
+                    && (i == 0 || !Character.isLetterOrDigit(sql.charAt(i - 1)))
+                    && (i + 6 == sql.length() || !Character.isLetterOrDigit(sql.charAt(i + 6)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int findClosingParenthesis(@NotNull String sql, int open) {
+        int depth = 0;
+        for (int i = open; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (startsQuotedOrComment(sql, i)) {
+                i = skipQuotedOrComment(sql, i);
+                if (i == -1)
+                    return -1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int countParameters(@NotNull String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (startsQuotedOrComment(sql, i)) {
+                i = skipQuotedOrComment(sql, i);
+                if (i == -1)
+                    return -1;
+            } else if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns given SQL in lower case with comments removed and whitespace collapsed to single spaces,
+     * or null if it has unterminated quotes or comments.
+     */
+    private static @Nullable String normalize(@NotNull String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (startsQuotedOrComment(sql, i)) {
+                int end = skipQuotedOrComment(sql, i);
+                if (end == -1)
+                    return null;
+                if (c == '\'' || c == '"')
+                    sb.append(sql, i, end + 1);
+                else
+                    sb.append(' ');
+                i = end;
+            } else {
+                sb.append(Character.isWhitespace(c) ? ' ' : Character.toLowerCase(c));
+            }
+        }
+        return sb.toString().trim().replaceAll(" +", " ");
+    }
+
+    private static boolean startsQuotedOrComment(@NotNull String sql, int start) {
+        char c = sql.charAt(start);
+        return c == '\'' || c == '"' || sql.startsWith("--", start) || sql.startsWith("/*", start);
+    }
+
+    /**
+     * Returns the position of the last character of the quoted section or comment starting at given position,
+     * or -1 if it is not terminated.
+     */
+    private static int skipQuotedOrComment(@NotNull String sql, int start) {
+        if (sql.startsWith("--", start)) {
+            int end = sql.indexOf('\n', start);
+            return end != -1 ? end : sql.length() - 1;
+        } else if (sql.startsWith("/*", start)) {
+            int end = sql.indexOf("*/", start + 2);
+            return end != -1 ? end + 1 : -1;
+        } else {
+            return sql.indexOf(sql.charAt(start), start + 1);
+        }
+    }
+
+    private static int skipWhitespace(@NotNull String sql, int start) {
+        int i = start;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i)))
+            i++;
+        return i;
+    }
+}
@@ -0,0 +1,289 @@
+package org.dalesbred.internal.jdbc;
+
+import org.dalesbred.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caches the prepared statements of a single connection by their SQL, generated-key mode and result set
+ * options, evicting the least recently used statements when the cache grows past its capacity.
+ *
+ * <p>Statements are borrowed for a single execution and given back to the cache when the {@link Lease}
+ * is closed. At that point their parameters are cleared and the fetch size, fetch direction and query
+ * timeout are restored, so that executions don't see the settings of the previous one. Since a borrowed
+ * statement is not available to others, nested executions of the same SQL simply prepare another one.
+ *
+ * <p>Like the connection itself, the cache is meant to be used by a single thread at a time, but it may be
+ * closed by another thread. Statements closed behind the back of the cache (e.g. because the connection or
+ * the wrapper of a pooled connection was closed) are detected when they are borrowed and prepared again.
+ */
+public final class PreparedStatementCache implements AutoCloseable {
+
+    /** The connection used for preparing new statements */
+    private @NotNull Connection connection;
+
+    private final int capacity;
+
+    private final @NotNull Statistics statistics;
+
+    /** Statements that are not currently borrowed, in access order */
+    private final @NotNull LinkedHashMap<Key, CachedStatement> idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+
+    private boolean closed = false;
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(PreparedStatementCache.class);
+
+    public PreparedStatementCache(@NotNull Connection connection, int capacity, @NotNull Statistics statistics) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("non-positive capacity: " + capacity);
+
+        this.connection = requireNonNull(connection);
+        this.capacity = capacity;
+        this.statistics = requireNonNull(statistics);
+    }
+
+    /**
+     * Sets the connection used for preparing new statements. Used when the same physical connection is
+     * handed out by a pool through a new wrapper, so that statements are prepared through the wrapper.
+     */
+    synchronized void setConnection(@NotNull Connection connection) {
+        this.connection = requireNonNull(connection);
+    }
+
+    /**
+     * Borrows a statement for executing given SQL.
+     */
+    public @NotNull Lease prepare(@NotNull String sql) throws SQLException {
+        return borrow(new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, null));
+    }
+
+    /**
+     * Borrows a statement for executing given SQL and returning the values of given generated columns.
+     *
+     * @param columnNames names of the generated columns to return or empty to let the database decide
+     */
+    public @NotNull Lease prepareWithGeneratedKeys(@NotNull String sql, @NotNull List<String> columnNames) throws SQLException {
+        return borrow(new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, List.copyOf(columnNames)));
+    }
+
+    /**
+     * Returns a lease for a statement that is not cached and is simply closed when the lease is closed.
+     */
+    public static @NotNull Lease uncached(@NotNull PreparedStatement statement) {
+        return new Lease(statement, null, null);
+    }
+
+    private synchronized @NotNull Lease borrow(@NotNull Key key) throws SQLException {
+        if (closed) {
+            // The cache was closed while its connection was in use: don't cache statements anymore
+            return uncached(key.prepare(connection));
+        }
+
+        CachedStatement statement = idleStatements.remove(key);
+        if (statement != null)
+            statistics.size.decrementAndGet();
+
+        if (statement != null && !statement.statement.isClosed()) {
+            statistics.hits.incrementAndGet();
+        } else {
+            statistics.misses.incrementAndGet();
+            statement = new CachedStatement(key, key.prepare(connection));
+        }
+
+        return new Lease(statement.statement, this, statement);
+    }
+
+    private synchronized void giveBack(@NotNull CachedStatement statement) {
+        if (closed || !statement.reset()) {
+            statement.close();
+            return;
+        }
+
+        CachedStatement replaced = idleStatements.put(statement.key, statement);
+        if (replaced != null) {
+            // A nested execution prepared another statement for the same key while this one was borrowed
+            statistics.evictions.incrementAndGet();
+            replaced.close();
+        } else {
+            statistics.size.incrementAndGet();
+        }
+
+        if (idleStatements.size() > capacity) {
+            Iterator<CachedStatement> it = idleStatements.values().iterator();
+            CachedStatement eldest = it.next();
+            it.remove();
+            statistics.evictions.incrementAndGet();
+            statistics.size.decrementAndGet();
+            eldest.close();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Closes all idle statements. Statements that are borrowed at the moment are closed when they are given back.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed)
+            return;
+
+        closed = true;
+        List<CachedStatement> statements = new ArrayList<>(idleStatements.values());
+        idleStatements.clear();
+        statistics.size.addAndGet(-statements.size());
+
+        for (CachedStatement statement : statements)
+            statement.close();
+    }
+
+    /**
+     * A statement borrowed from the cache. Closing the lease gives the statement back to the cache.
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final @NotNull PreparedStatement statement;
+
+        /** The cache owning the statement, or null if the statement is not cached */
+        private final @Nullable PreparedStatementCache cache;
+
+        private final @Nullable CachedStatement cachedStatement;
+
+        private boolean closed = false;
+
+        private Lease(@NotNull PreparedStatement statement, @Nullable PreparedStatementCache cache, @Nullable CachedStatement cachedStatement) {
+            this.statement = statement;
+            this.cache = cache;
+            this.cachedStatement = cachedStatement;
+        }
+
+        public @NotNull PreparedStatement getStatement() {
+            return statement;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (closed)
+                return;
+
+            closed = true;
+            if (cache != null && cachedStatement != null)
+                cache.giveBack(cachedStatement);
+            else
+                statement.close();
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counts shared by the caches of all connections of a database.
+     */
+    public static final class Statistics {
+
+        private final @NotNull AtomicLong hits = new AtomicLong();
+
+        private final @NotNull AtomicLong misses = new AtomicLong();
+
+        private final @NotNull AtomicLong evictions = new AtomicLong();
+
+        /** Idle statements in the caches that have not been closed */
+        private final @NotNull AtomicInteger size = new AtomicInteger();
+
+        public @NotNull CacheStatistics snapshot() {
+            return new CacheStatistics(hits.get(), misses.get(), evictions.get(), size.get());
+        }
+    }
+
+    /**
+     * A cached statement along with the settings it had when it was prepared.
+     */
+    private static final class CachedStatement {
+
+        private final @NotNull Key key;
+
+        private final @NotNull PreparedStatement statement;
+
+        private final int fetchSize;
+
+        private final int fetchDirection;
+
+        private final int queryTimeout;
+
+        CachedStatement(@NotNull Key key, @NotNull PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+
+            int size = 0, direction = ResultSet.FETCH_FORWARD, timeout = 0;
+            try {
+                size = statement.getFetchSize();
+                direction = statement.getFetchDirection();
+                timeout = statement.getQueryTimeout();
+            } catch (SQLException e) {
+                log.debug("failed to read settings of prepared statement", e);
+            }
+            this.fetchSize = size;
+            this.fetchDirection = direction;
+            this.queryTimeout = timeout;
+        }
+
+        /**
+         * Prepares the statement for the next execution, returning false if it can't be reused.
+         */
+        @SuppressWarnings("MagicConstant")
+        boolean reset() {
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (statement.getFetchSize() != fetchSize)
+                    statement.setFetchSize(fetchSize);
+                if (statement.getFetchDirection() != fetchDirection)
+                    statement.setFetchDirection(fetchDirection);
+                if (statement.getQueryTimeout() != queryTimeout)
+                    statement.setQueryTimeout(queryTimeout);
+                return true;
+            } catch (SQLException e) {
+                log.debug("failed to reset prepared statement, discarding it", e);
+                return false;
+            }
+        }
+
+        void close() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                log.warn("failed to close cached prepared statement", e);
+            }
+        }
+    }
+
+    private record Key(@NotNull String sql, int resultSetType, int resultSetConcurrency, @Nullable List<String> generatedKeyColumns) {
+
+        @SuppressWarnings({"MagicConstant", "SqlSourceToSinkFlow"})
+        @NotNull PreparedStatement prepare(@NotNull Connection connection) throws SQLException {
+            if (generatedKeyColumns == null)
+                return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            else if (generatedKeyColumns.isEmpty())
+                return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            else
+                return connection.prepareStatement(sql, generatedKeyColumns.toArray(new String[0]));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.dalesbred.internal.jdbc;
+
+import org.dalesbred.CacheStatistics;
+import org.dalesbred.dialect.Dialect;
+import org.dalesbred.internal.instantiation.NamedTypeList;
+import org.dalesbred.internal.utils.LruCache;
+import org.dalesbred.result.ResultTable.ColumnMetadata;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+import static org.dalesbred.internal.jdbc.ResultSetUtils.getColumnType;
+
+/**
+ * Caches the columns described by {@link ResultSetMetaData} by the SQL that produced the result, so that
+ * repeated executions of the same query don't need to introspect the metadata column by column.
+ *
+ * <p>Since the shape of a result can change even if the SQL stays the same (e.g. {@code select *} after
+ * the table has been altered), cached shapes are validated against the column count of the result
+ * and recomputed if it does not match. The cache is disabled by default.
+ */
+public final class ResultShapeCache {
+
+    private final @NotNull Dialect dialect;
+
+    private final @NotNull LruCache<String, Shape> shapes;
+
+    private volatile boolean enabled = false;
+
+    public ResultShapeCache(@NotNull Dialect dialect, int capacity) {
+        this.dialect = requireNonNull(dialect);
+        this.shapes = new LruCache<>(capacity);
+    }
+
+    /**
+     * Returns the names and types of the columns of given result.
+     *
+     * @param sql the SQL that produced the result or null if it is not known
+     */
+    public @NotNull NamedTypeList getTypes(@Nullable String sql, @NotNull ResultSet resultSet) throws SQLException {
+        return getTypes(sql, resultSet.getMetaData());
+    }
+
+    /**
+     * Returns the names and types of the columns described by given metadata.
+     *
+     * @param sql the SQL that produced the metadata or null if it is not known
+     */
+    public @NotNull NamedTypeList getTypes(@Nullable String sql, @NotNull ResultSetMetaData metaData) throws SQLException {
+        if (!enabled || sql == null)
+            return ResultSetUtils.getTypes(metaData, dialect);
+
+        return getShape(sql, metaData).types;
+    }
+
+    /**
+     * Returns the metadata of the columns of given result.
+     *
+     * @param sql the SQL that produced the result or null if it is not known
+     */
+    public @NotNull List<ColumnMetadata> getColumns(@Nullable String sql, @NotNull ResultSet resultSet) throws SQLException {
+        if (!enabled || sql == null)
+            return resolveColumns(resultSet.getMetaData());
+
+        return getShape(sql, resultSet.getMetaData()).columns;
+    }
+
+    private @NotNull Shape getShape(@NotNull String sql, @NotNull ResultSetMetaData metaData) throws SQLException {
+        Shape shape = shapes.get(sql);
+        if (shape == null || shape.columns.size() != metaData.getColumnCount()) {
+            shape = new Shape(resolveColumns(metaData));
+            shapes.put(sql, shape);
+        }
+        return shape;
+    }
+
+    private @NotNull List<ColumnMetadata> resolveColumns(@NotNull ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        ColumnMetadata[] result = new ColumnMetadata[columnCount];
+
+        for (int i = 0; i < columnCount; i++) {
+            result[i] = new ColumnMetadata(i, metaData.getColumnLabel(i + 1), getColumnType(metaData, dialect, i + 1),
+                metaData.getColumnType(i + 1), metaData.getColumnTypeName(i + 1));
+        }
+
+        return List.of(result);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled)
+            shapes.clear();
+    }
+
+    public @NotNull CacheStatistics getStatistics() {
+        return shapes.getStatistics();
+    }
+
+    private static final class Shape {
+
+        private final @NotNull List<ColumnMetadata> columns;
+
+        private final @NotNull NamedTypeList types;
+
+        Shape(@NotNull List<ColumnMetadata> columns) {
+            this.columns = columns;
+
+            NamedTypeList.Builder builder = NamedTypeList.builder(columns.size());
+            for (ColumnMetadata column : columns)
+                builder.add(column.getName(), column.getType());
+            this.types = builder.build();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.dalesbred.internal.jdbc;
+
+import org.dalesbred.internal.utils.Throwables;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+import java.sql.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the raw values of the rows of a {@link ResultSet} on a background thread. The reader copies the values
+ * returned by {@link ResultSet#getObject(int)} into a fixed ring of blocks while the caller consumes the previous
+ * block, so that fetching rows from the database overlaps with processing them. At most {@code blockCount} blocks
+ * of {@code blockSize} rows are held in memory at a time.
+ *
+ * <p>The reader is the only thread that touches the result (and thus the connection) until this prefetcher is
+ * closed. Therefore values that refer back to the connection are detached before the rows are handed over:
+ * blobs and clobs are copied into memory. Values that can't be detached (e.g. arrays and XML) are rejected, so
+ * callers must check the column types with {@link #canDetach(Class)} before prefetching.
+ */
+public final class RowPrefetcher implements AutoCloseable {
+
+    /** Amount of blocks in the ring: one being filled by the reader while the other is consumed */
+    public static final int DEFAULT_BLOCK_COUNT = 2;
+
+    /** Amount of rows in a block if fetch size is not specified */
+    public static final int DEFAULT_BLOCK_SIZE = 1000;
+
+    private final @NotNull ResultSet resultSet;
+
+    private final int columnCount;
+
+    private final int blockSize;
+
+    /** Blocks filled by the reader, in order */
+    private final @NotNull BlockingQueue<Block> filledBlocks;
+
+    /** Blocks that the reader can fill */
+    private final @NotNull BlockingQueue<Block> freeBlocks;
+
+    private final @NotNull Thread reader;
+
+    private volatile boolean closed = false;
+
+    private @Nullable Block currentBlock;
+
+    private int currentIndex;
+
+    /** True after the last block has been consumed */
+    private boolean exhausted = false;
+
+    public RowPrefetcher(@NotNull ResultSet resultSet, int columnCount, int blockSize, int blockCount) {
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("block size must be positive, but was " + blockSize);
+        if (blockCount <= 0)
+            throw new IllegalArgumentException("block count must be positive, but was " + blockCount);
+
+        this.resultSet = requireNonNull(resultSet);
+        this.columnCount = columnCount;
+        this.blockSize = blockSize;
+        this.filledBlocks = new ArrayBlockingQueue<>(blockCount);
+        this.freeBlocks = new ArrayBlockingQueue<>(blockCount);
+
+        for (int i = 0; i < blockCount; i++)
+            freeBlocks.add(new Block(blockSize, columnCount));
+
+        this.reader = Thread.ofVirtual().name("dalesbred-prefetch").start(this::readBlocks);
+    }
+
+    /**
+     * Returns true if values of given column type can be detached from the result, meaning that they don't
+     * need the connection after the reader has moved on.
+     */
+    public static boolean canDetach(@NotNull Class<?> columnType) {
+        for (Class<?> attachedType : new Class<?>[]{Array.class, SQLXML.class, Ref.class, Struct.class, ResultSet.class})
+            if (attachedType.isAssignableFrom(columnType) || columnType.isAssignableFrom(attachedType))
+                return false;
+        return true;
+    }
+
+    /**
+     * Fills free blocks with rows until the result is exhausted, reading fails or this prefetcher is closed.
+     */
+    private void readBlocks() {
+        try {
+            while (true) {
+                Block block = freeBlocks.take();
+                if (closed)
+                    return;
+
+                fill(block);
+                filledBlocks.add(block);
+
+                if (block.last)
+                    return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fill(@NotNull Block block) {
+        block.size = 0;
+        try {
+            while (block.size < blockSize && !closed) {
+                if (!resultSet.next()) {
+                    block.last = true;
+                    return;
+                }
+
+                Object[] row = block.rows[block.size];
+                for (int i = 0; i < columnCount; i++)
+                    row[i] = detach(resultSet.getObject(i + 1));
+                block.size++;
+            }
+        } catch (Throwable e) {
+            block.failure = e;
+            block.last = true;
+        }
+    }
+
+    private static @Nullable Object detach(@Nullable Object value) throws SQLException {
+        if (value instanceof Blob blob) {
+            try {
+                return new SerialBlob(blob.getBytes(1, Math.toIntExact(blob.length())));
+            } finally {
+                free(blob);
+            }
+        } else if (value instanceof Clob clob) {
+            try {
+                return new SerialClob(clob.getSubString(1, Math.toIntExact(clob.length())).toCharArray());
+            } finally {
+                free(clob);
+            }
+        } else if (value != null && !canDetach(value.getClass())) {
+            throw new SQLException("Can't prefetch values of " + value.getClass().getName() + '.');
+        } else {
+            return value;
+        }
+    }
+
+    private static void free(@NotNull Blob blob) throws SQLException {
+        try {
+            blob.free();
+        } catch (SQLFeatureNotSupportedException ignored) {
+        }
+    }
+
+    private static void free(@NotNull Clob clob) throws SQLException {
+        try {
+            clob.free();
+        } catch (SQLFeatureNotSupportedException ignored) {
+        }
+    }
+
+    /**
+     * Returns the values of the next row, or null if there are no more rows. The returned array may be reused
+     * for other rows after the next call.
+     *
+     * @throws SQLException if reading the rows failed, after the rows read before the failure have been returned
+     */
+    public @Nullable Object[] nextRow() throws SQLException {
+        if (closed)
+            throw new SQLException("Prefetcher has been closed.");
+
+        while (currentBlock == null || currentIndex >= currentBlock.size) {
+            if (exhausted)
+                return null;
+
+            if (currentBlock != null) {
+                Block block = currentBlock;
+                currentBlock = null;
+
+                if (block.last) {
+                    exhausted = true;
+                    if (block.failure != null)
+                        throw readFailure(block.failure);
+                    return null;
+                }
+
+                freeBlocks.add(block);
+            }
+
+            try {
+                currentBlock = filledBlocks.take();
+                currentIndex = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for rows.", e);
+            }
+        }
+
+        return currentBlock.rows[currentIndex++];
+    }
+
+    private static @NotNull SQLException readFailure(@NotNull Throwable failure) {
+        if (failure instanceof SQLException e)
+            return new SQLException(e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+        throw Throwables.propagate(failure);
+    }
+
+    /**
+     * Stops the reader and waits for it to finish the block it is reading, so that the result can be used
+     * again after this method returns. Doesn't close the result.
+     */
+    @Override
+    public void close() throws SQLException {
+        closed = true;
+        currentBlock = null;
+
+        // Wake up the reader if it is waiting for a free block
+        filledBlocks.clear();
+        freeBlocks.offer(new Block(0, 0));
+
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the reader to stop.", e);
+        }
+    }
+
+    private static final class Block {
+
+        private final @NotNull Object[][] rows;
+
+        private int size = 0;
+
+        private boolean last = false;
+
+        private @Nullable Throwable failure;
+
+        Block(int blockSize, int columnCount) {
+            this.rows = new Object[blockSize][columnCount];
+        }
+    }
+}
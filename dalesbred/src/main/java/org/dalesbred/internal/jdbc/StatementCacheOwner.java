@@ -0,0 +1,14 @@
+package org.dalesbred.internal.jdbc;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Implemented by transaction contexts that may cache the prepared statements of their connection.
+ */
+public interface StatementCacheOwner {
+
+    /**
+     * Returns the cache of prepared statements of the connection, or null if statements are not cached.
+     */
+    @Nullable PreparedStatementCache getStatementCache();
+}
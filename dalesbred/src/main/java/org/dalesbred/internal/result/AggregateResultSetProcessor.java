@@ -0,0 +1,183 @@
+package org.dalesbred.internal.result;
+
+import org.dalesbred.internal.instantiation.Instantiator;
+import org.dalesbred.internal.instantiation.InstantiatorArguments;
+import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.instantiation.NamedTypeList;
+import org.dalesbred.result.AggregateMapping;
+import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.UnexpectedResultException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * ResultSetProcessor that assembles object graphs described by an {@link AggregateMapping} from a joined
+ * result in a single pass. Objects are identified by the path of keys leading to them, so each distinct
+ * object is instantiated only once, no matter how many rows of the join it appears on.
+ */
+public final class AggregateResultSetProcessor<T> implements ResultSetProcessor<List<T>> {
+
+    private final @NotNull AggregateMapping<T> mapping;
+
+    private final @NotNull InstantiatorProvider instantiatorRegistry;
+
+    private final @Nullable String sql;
+
+    public AggregateResultSetProcessor(@NotNull AggregateMapping<T> mapping, @NotNull InstantiatorProvider instantiatorRegistry, @Nullable String sql) {
+        this.mapping = requireNonNull(mapping);
+        this.instantiatorRegistry = requireNonNull(instantiatorRegistry);
+        this.sql = sql;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NotNull List<T> process(@NotNull ResultSet resultSet) throws SQLException {
+        NamedTypeList types = instantiatorRegistry.getResultShapeCache().getTypes(sql, resultSet);
+
+        List<Integer> columns = new ArrayList<>(types.size());
+        for (int i = 0; i < types.size(); i++)
+            columns.add(i);
+
+        Level root = new Level(mapping, "", columns, types, instantiatorRegistry);
+
+        List<Object> result = new ArrayList<>();
+        Map<List<Object>, Object> instances = new HashMap<>();
+        while (resultSet.next())
+            root.processRow(resultSet, null, List.of(), instances, (parent, instance) -> result.add(instance));
+
+        return (List<T>) result;
+    }
+
+    /**
+     * A resolved level of the graph: the columns of the objects of the level, their instantiator
+     * and the levels of their children.
+     */
+    private static final class Level {
+
+        /** One-based indices of the columns of this level */
+        private final @NotNull int[] columns;
+
+        private final int keyColumn;
+
+        private final @NotNull Instantiator<?> instantiator;
+
+        private final @NotNull Object[] values;
+
+        private final @NotNull InstantiatorArguments arguments;
+
+        private final @NotNull List<Level> children = new ArrayList<>();
+
+        private final @NotNull List<BiConsumer<Object, Object>> adders = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        Level(@NotNull AggregateMapping<?> mapping,
+              @NotNull String prefix,
+              @NotNull List<Integer> availableColumns,
+              @NotNull NamedTypeList types,
+              @NotNull InstantiatorProvider instantiatorRegistry) {
+
+            List<? extends AggregateMapping.Child<?, ?>> childMappings = mapping.getChildren();
+            verifyPrefixesDontOverlap(mapping, childMappings);
+
+            List<Integer> ownColumns = new ArrayList<>(availableColumns);
+            for (AggregateMapping.Child<?, ?> child : childMappings) {
+                String childPrefix = child.getColumnPrefix();
+
+                List<Integer> childColumns = new ArrayList<>();
+                for (Integer column : availableColumns) {
+                    String name = types.getName(column).substring(prefix.length());
+                    if (startsWithIgnoreCase(name, childPrefix)) {
+                        if (instantiatorRegistry.hasPropertyOrParameterFor(mapping.getType(), name))
+                            throw new UnexpectedResultException("Column '" + types.getName(column) + "' is ambiguous: it has the prefix '"
+                                    + childPrefix + "' of the children of " + mapping.getType().getName() + ", but " + mapping.getType().getName()
+                                    + " also has a property or parameter matching '" + name + "'");
+                        childColumns.add(column);
+                    }
+                }
+
+                ownColumns.removeAll(childColumns);
+                children.add(new Level(child.getMapping(), prefix + childPrefix, childColumns, types, instantiatorRegistry));
+                adders.add((BiConsumer<Object, Object>) child.getAdder());
+            }
+
+            NamedTypeList.Builder ownTypes = NamedTypeList.builder(ownColumns.size());
+            int key = -1;
+            this.columns = new int[ownColumns.size()];
+            for (int i = 0; i < columns.length; i++) {
+                int column = ownColumns.get(i);
+                String name = types.getName(column).substring(prefix.length());
+
+                columns[i] = column + 1;
+                ownTypes.add(name, types.getType(column));
+                if (key == -1 && name.equalsIgnoreCase(mapping.getKeyColumn()))
+                    key = column + 1;
+            }
+
+            if (key == -1)
+                throw new UnexpectedResultException("Expected key column '" + prefix + mapping.getKeyColumn() + "' for " + mapping.getType().getName() + ", but it was not found in " + types.getNames());
+
+            NamedTypeList levelTypes = ownTypes.build();
+            this.keyColumn = key;
+            this.instantiator = instantiatorRegistry.findInstantiator(mapping.getType(), levelTypes);
+
+            // Like MapResultSetProcessor, reuse the arguments for all rows since they are not retained
+            this.values = new Object[columns.length];
+            this.arguments = new InstantiatorArguments(levelTypes, values);
+        }
+
+        /**
+         * Verifies that no column can belong to more than one child, which would be the case if the prefix
+         * of a child was the prefix of another child as well (e.g. {@code a_} and {@code a_b_}).
+         */
+        private static void verifyPrefixesDontOverlap(@NotNull AggregateMapping<?> mapping, @NotNull List<? extends AggregateMapping.Child<?, ?>> children) {
+            for (int i = 0; i < children.size(); i++) {
+                for (int j = 0; j < children.size(); j++) {
+                    String prefix1 = children.get(i).getColumnPrefix();
+                    String prefix2 = children.get(j).getColumnPrefix();
+                    if (i != j && startsWithIgnoreCase(prefix2, prefix1))
+                        throw new UnexpectedResultException("Column prefixes '" + prefix1 + "' and '" + prefix2 + "' of the children of "
+                                + mapping.getType().getName() + " overlap");
+                }
+            }
+        }
+
+        private static boolean startsWithIgnoreCase(@NotNull String s, @NotNull String prefix) {
+            return s.regionMatches(true, 0, prefix, 0, prefix.length());
+        }
+
+        void processRow(@NotNull ResultSet resultSet,
+                        @Nullable Object parent,
+                        @NotNull List<Object> parentPath,
+                        @NotNull Map<List<Object>, Object> instances,
+                        @NotNull BiConsumer<Object, Object> adder) throws SQLException {
+            Object key = resultSet.getObject(keyColumn);
+            if (key == null)
+                return;
+
+            List<Object> path = new ArrayList<>(parentPath.size() + 2);
+            path.addAll(parentPath);
+            path.add(this);
+            path.add(key);
+
+            Object instance = instances.get(path);
+            if (instance == null) {
+                for (int i = 0; i < columns.length; i++)
+                    values[i] = resultSet.getObject(columns[i]);
+
+                instance = instantiator.instantiate(arguments);
+                instances.put(path, instance);
+                adder.accept(parent, instance);
+            }
+
+            for (int i = 0; i < children.size(); i++)
+                children.get(i).processRow(resultSet, instance, path, instances, adders.get(i));
+        }
+    }
+}
@@ -4,10 +4,10 @@ import org.dalesbred.internal.instantiation.Instantiator;
 import org.dalesbred.internal.instantiation.InstantiatorArguments;
 import org.dalesbred.internal.instantiation.InstantiatorProvider;
 import org.dalesbred.internal.instantiation.NamedTypeList;
-import org.dalesbred.internal.jdbc.ResultSetUtils;
 import org.dalesbred.result.RowMapper;
 import org.dalesbred.result.UnexpectedResultException;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -20,10 +20,15 @@ public final class InstantiatorRowMapper<T> implements RowMapper<T> {
 
     private final @NotNull InstantiatorProvider instantiatorProvider;
 
+    /** The SQL that produces the results, used for looking up the shape of the result if known */
+    private final @Nullable String sql;
+
     private NamedTypeList types;
 
     private Instantiator<T> ctor;
 
+    private RowMapper<T> compiledMapper;
+
     // For performance reasons we reuse the same arguments-array and InstantiatorArguments-object for all rows.
     // This should be fine as long as the instantiators don't hang on to their arguments for too long.
     private Object[] arguments;
@@ -31,26 +36,40 @@ public final class InstantiatorRowMapper<T> implements RowMapper<T> {
     private InstantiatorArguments instantiatorArguments;
 
     public InstantiatorRowMapper(@NotNull Class<T> cl, @NotNull InstantiatorProvider instantiatorProvider) {
+        this(cl, instantiatorProvider, null);
+    }
+
+    public InstantiatorRowMapper(@NotNull Class<T> cl, @NotNull InstantiatorProvider instantiatorProvider, @Nullable String sql) {
         this.cl = requireNonNull(cl);
         this.instantiatorProvider = requireNonNull(instantiatorProvider);
+        this.sql = sql;
     }
 
     @SuppressWarnings("ConstantConditions")
     @Override
     public T mapRow(@NotNull ResultSet resultSet) throws SQLException {
         if (types == null) {
-            types = ResultSetUtils.getTypes(resultSet.getMetaData(), instantiatorProvider.getDialect());
-            ctor = instantiatorProvider.findInstantiator(cl, types);
-            arguments = new Object[types.size()];
-            instantiatorArguments = new InstantiatorArguments(types, arguments);
+            types = instantiatorProvider.getResultShapeCache().getTypes(sql, resultSet);
+            compiledMapper = instantiatorProvider.findCompiledRowMapper(cl, types, 1);
+            if (compiledMapper == null) {
+                ctor = instantiatorProvider.findInstantiator(cl, types);
+                arguments = new Object[types.size()];
+                instantiatorArguments = new InstantiatorArguments(types, arguments);
+            }
         }
 
         boolean allowNulls = !cl.isPrimitive();
 
-        for (int i = 0; i < arguments.length; i++)
-            arguments[i] = resultSet.getObject(i+1);
+        T value;
+        if (compiledMapper != null) {
+            value = compiledMapper.mapRow(resultSet);
+        } else {
+            for (int i = 0; i < arguments.length; i++)
+                arguments[i] = resultSet.getObject(i+1);
+
+            value = ctor.instantiate(instantiatorArguments);
+        }
 
-        T value = ctor.instantiate(instantiatorArguments);
         if (value != null || allowNulls)
             return value;
         else
@@ -0,0 +1,62 @@
+package org.dalesbred.internal.result;
+
+import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.instantiation.NamedTypeList;
+import org.dalesbred.internal.utils.Primitives;
+import org.dalesbred.result.IntKeyMap;
+import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.RowMapper;
+import org.dalesbred.result.UnexpectedResultException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * ResultSetProcessor that expects results with int keys in the first column and creates a {@link IntKeyMap}
+ * from them, reading the keys without boxing. If the keys are not distinct, the result contains the last
+ * binding of given key.
+ */
+public final class IntKeyMapResultSetProcessor<V> implements ResultSetProcessor<IntKeyMap<V>> {
+
+    private final @NotNull Class<V> valueType;
+
+    private final @NotNull InstantiatorProvider instantiatorRegistry;
+
+    private final @Nullable String sql;
+
+    private final int expectedSize;
+
+    public IntKeyMapResultSetProcessor(@NotNull Class<V> valueType,
+                                       @NotNull InstantiatorProvider instantiatorRegistry,
+                                       @Nullable String sql,
+                                       int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("negative expected size: " + expectedSize);
+
+        this.valueType = Primitives.wrap(requireNonNull(valueType));
+        this.instantiatorRegistry = requireNonNull(instantiatorRegistry);
+        this.sql = sql;
+        this.expectedSize = expectedSize;
+    }
+
+    @Override
+    public @NotNull IntKeyMap<V> process(@NotNull ResultSet resultSet) throws SQLException {
+        NamedTypeList types = MapResultSetProcessor.resolveTypes(resultSet, instantiatorRegistry, sql);
+        RowMapper<V> valueMapper = MapResultSetProcessor.createValueMapper(valueType, types.subList(1, types.size()), instantiatorRegistry);
+
+        IntKeyMap<V> result = new IntKeyMap<>(expectedSize);
+        while (resultSet.next()) {
+            int key = resultSet.getInt(1);
+            if (key == 0 && resultSet.wasNull())
+                throw new UnexpectedResultException("Expected non-null key, but got null for column '" + types.getName(0) + "'");
+
+            result.put(key, valueMapper.mapRow(resultSet));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package org.dalesbred.internal.result;
+
+import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.instantiation.NamedTypeList;
+import org.dalesbred.internal.instantiation.TypeConversion;
+import org.dalesbred.internal.utils.Primitives;
+import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.RowMapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.BiFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * ResultSetProcessor for results with keys in the first column and values in the rest. Resolves
+ * row-mappers for the keys and the values from the metadata of the result and delegates the
+ * processing to a processor built from them.
+ */
+public final class KeyValueResultSetProcessor<K, V, R> implements ResultSetProcessor<R> {
+
+    private final @NotNull Class<K> keyType;
+
+    private final @NotNull Class<V> valueType;
+
+    private final @NotNull InstantiatorProvider instantiatorRegistry;
+
+    private final @Nullable String sql;
+
+    private final @NotNull BiFunction<RowMapper<K>, RowMapper<V>, ResultSetProcessor<R>> processorFactory;
+
+    public KeyValueResultSetProcessor(@NotNull Class<K> keyType,
+                                      @NotNull Class<V> valueType,
+                                      @NotNull InstantiatorProvider instantiatorRegistry,
+                                      @Nullable String sql,
+                                      @NotNull BiFunction<RowMapper<K>, RowMapper<V>, ResultSetProcessor<R>> processorFactory) {
+        this.keyType = Primitives.wrap(requireNonNull(keyType));
+        this.valueType = Primitives.wrap(requireNonNull(valueType));
+        this.instantiatorRegistry = requireNonNull(instantiatorRegistry);
+        this.sql = sql;
+        this.processorFactory = requireNonNull(processorFactory);
+    }
+
+    @Override
+    public R process(@NotNull ResultSet resultSet) throws SQLException {
+        NamedTypeList types = MapResultSetProcessor.resolveTypes(resultSet, instantiatorRegistry, sql);
+
+        TypeConversion keyConversion = instantiatorRegistry.getConversionFromDbValue(types.getType(0), keyType);
+        RowMapper<K> keyMapper = rs -> keyType.cast(keyConversion.convert(rs.getObject(1)));
+        RowMapper<V> valueMapper = MapResultSetProcessor.createValueMapper(valueType, types.subList(1, types.size()), instantiatorRegistry);
+
+        return processorFactory.apply(keyMapper, valueMapper).process(resultSet);
+    }
+}
@@ -0,0 +1,62 @@
+package org.dalesbred.internal.result;
+
+import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.instantiation.NamedTypeList;
+import org.dalesbred.internal.utils.Primitives;
+import org.dalesbred.result.LongKeyMap;
+import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.RowMapper;
+import org.dalesbred.result.UnexpectedResultException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * ResultSetProcessor that expects results with long keys in the first column and creates a {@link LongKeyMap}
+ * from them, reading the keys without boxing. If the keys are not distinct, the result contains the last
+ * binding of given key.
+ */
+public final class LongKeyMapResultSetProcessor<V> implements ResultSetProcessor<LongKeyMap<V>> {
+
+    private final @NotNull Class<V> valueType;
+
+    private final @NotNull InstantiatorProvider instantiatorRegistry;
+
+    private final @Nullable String sql;
+
+    private final int expectedSize;
+
+    public LongKeyMapResultSetProcessor(@NotNull Class<V> valueType,
+                                        @NotNull InstantiatorProvider instantiatorRegistry,
+                                        @Nullable String sql,
+                                        int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("negative expected size: " + expectedSize);
+
+        this.valueType = Primitives.wrap(requireNonNull(valueType));
+        this.instantiatorRegistry = requireNonNull(instantiatorRegistry);
+        this.sql = sql;
+        this.expectedSize = expectedSize;
+    }
+
+    @Override
+    public @NotNull LongKeyMap<V> process(@NotNull ResultSet resultSet) throws SQLException {
+        NamedTypeList types = MapResultSetProcessor.resolveTypes(resultSet, instantiatorRegistry, sql);
+        RowMapper<V> valueMapper = MapResultSetProcessor.createValueMapper(valueType, types.subList(1, types.size()), instantiatorRegistry);
+
+        LongKeyMap<V> result = new LongKeyMap<>(expectedSize);
+        while (resultSet.next()) {
+            long key = resultSet.getLong(1);
+            if (key == 0 && resultSet.wasNull())
+                throw new UnexpectedResultException("Expected non-null key, but got null for column '" + types.getName(0) + "'");
+
+            result.put(key, valueMapper.mapRow(resultSet));
+        }
+
+        return result;
+    }
+}
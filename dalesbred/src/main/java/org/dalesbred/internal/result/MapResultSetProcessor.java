@@ -1,11 +1,12 @@
 package org.dalesbred.internal.result;
 
 import org.dalesbred.internal.instantiation.*;
-import org.dalesbred.internal.jdbc.ResultSetUtils;
 import org.dalesbred.internal.utils.Primitives;
 import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.RowMapper;
 import org.dalesbred.result.UnexpectedResultException;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -28,23 +29,72 @@ public final class MapResultSetProcessor<K,V> implements ResultSetProcessor<Map<
 
     private final @NotNull InstantiatorProvider instantiatorRegistry;
 
+    private final @Nullable String sql;
+
     public MapResultSetProcessor(@NotNull Class<K> keyType,
                                  @NotNull Class<V> valueType,
                                  @NotNull InstantiatorProvider instantiatorRegistry) {
+        this(keyType, valueType, instantiatorRegistry, null);
+    }
+
+    public MapResultSetProcessor(@NotNull Class<K> keyType,
+                                 @NotNull Class<V> valueType,
+                                 @NotNull InstantiatorProvider instantiatorRegistry,
+                                 @Nullable String sql) {
         this.keyType = Primitives.wrap(requireNonNull(keyType));
         this.valueType = Primitives.wrap(requireNonNull(valueType));
         this.instantiatorRegistry = requireNonNull(instantiatorRegistry);
+        this.sql = sql;
     }
 
     @Override
     public @NotNull Map<K, V> process(@NotNull ResultSet resultSet) throws SQLException {
+        return process(resultSet, new LinkedHashMap<>());
+    }
 
-        NamedTypeList types = ResultSetUtils.getTypes(resultSet.getMetaData(), instantiatorRegistry.getDialect());
-        if (types.size() < 2)
-            throw new UnexpectedResultException("Expected ResultSet with at least 2 columns, but got " + types.size() + " columns.");
+    /**
+     * Processes the results into given map, returning the map.
+     */
+    public @NotNull <M extends Map<K, V>> M process(@NotNull ResultSet resultSet, @NotNull M result) throws SQLException {
+        NamedTypeList types = resolveTypes(resultSet, instantiatorRegistry, sql);
 
         NamedTypeList valueTypes = types.subList(1, types.size());
         TypeConversion keyConversion = instantiatorRegistry.getConversionFromDbValue(types.getType(0), keyType);
+        RowMapper<V> valueMapper = createValueMapper(valueType, valueTypes, instantiatorRegistry);
+
+        while (resultSet.next()) {
+            K key = keyType.cast(keyConversion.convert(resultSet.getObject(1)));
+            V value = valueMapper.mapRow(resultSet);
+
+            result.put(key, value);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the types of the columns of a result that contains the keys in the first column and
+     * the values in the rest.
+     */
+    static @NotNull NamedTypeList resolveTypes(@NotNull ResultSet resultSet,
+                                               @NotNull InstantiatorProvider instantiatorRegistry,
+                                               @Nullable String sql) throws SQLException {
+        NamedTypeList types = instantiatorRegistry.getResultShapeCache().getTypes(sql, resultSet);
+        if (types.size() < 2)
+            throw new UnexpectedResultException("Expected ResultSet with at least 2 columns, but got " + types.size() + " columns.");
+        return types;
+    }
+
+    /**
+     * Creates a row mapper that maps the columns starting from the second one into values of the map.
+     */
+    static @NotNull <V> RowMapper<V> createValueMapper(@NotNull Class<V> valueType,
+                                                       @NotNull NamedTypeList valueTypes,
+                                                       @NotNull InstantiatorProvider instantiatorRegistry) {
+        RowMapper<V> compiledMapper = instantiatorRegistry.findCompiledRowMapper(valueType, valueTypes, 2);
+        if (compiledMapper != null)
+            return compiledMapper;
+
         Instantiator<V> valueInstantiator = instantiatorRegistry.findInstantiator(valueType, valueTypes);
 
         // For performance reasons we reuse the same arguments-array and InstantiatorArguments-object for all rows.
@@ -52,19 +102,12 @@ public final class MapResultSetProcessor<K,V> implements ResultSetProcessor<Map<
         Object[] valueArguments = new Object[valueTypes.size()];
         InstantiatorArguments instantiatorArguments = new InstantiatorArguments(valueTypes, valueArguments);
 
-        Map<K, V> result = new LinkedHashMap<>();
-        while (resultSet.next()) {
-            K key = keyType.cast(keyConversion.convert(resultSet.getObject(1)));
-
+        return resultSet -> {
             for (int i = 0; i < valueArguments.length; i++)
                 valueArguments[i] = resultSet.getObject(i+2);
 
-            V value = valueInstantiator.instantiate(instantiatorArguments);
-
-            result.put(key, value);
-        }
-
-        return result;
+            return valueInstantiator.instantiate(instantiatorArguments);
+        };
     }
 
 }
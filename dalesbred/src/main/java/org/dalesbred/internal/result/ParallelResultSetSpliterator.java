@@ -0,0 +1,268 @@
+package org.dalesbred.internal.result;
+
+import org.dalesbred.dialect.Dialect;
+import org.dalesbred.internal.instantiation.Instantiator;
+import org.dalesbred.internal.instantiation.InstantiatorArguments;
+import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.instantiation.NamedTypeList;
+import org.dalesbred.result.UnexpectedResultException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spliterator that reads the raw column values of an open {@link ResultSet} in fixed-size chunks and
+ * instantiates the results from them separately. Each split is a chunk of rows read from the result, so
+ * that a parallel stream runs the instantiators (and thus the conversions) of the chunks on its worker
+ * threads while reading the {@link ResultSet} stays serialized.
+ *
+ * <p>Chunks are read only when the stream splits the spliterator, and at most a bounded amount of chunks is
+ * read ahead of the instantiation. Once that many chunks are waiting to be instantiated, the spliterator refuses
+ * to split and the stream processes the remaining rows sequentially, so that the rows of the whole result are
+ * never held in memory at once.
+ */
+public final class ParallelResultSetSpliterator<T> implements Spliterator<T> {
+
+    private final @NotNull ResultSet resultSet;
+
+    private final int columnCount;
+
+    private final @NotNull Function<Object[], T> instantiator;
+
+    private final @NotNull Dialect dialect;
+
+    private final int chunkSize;
+
+    private final int maxOutstandingChunks;
+
+    /** Chunks that have been split off but whose rows have not all been instantiated yet */
+    private final @NotNull AtomicInteger outstandingChunks = new AtomicInteger();
+
+    /** True when all rows have been read. Guarded by this. */
+    private boolean exhausted = false;
+
+    /** Amount of chunks read ahead for each thread of the common pool (and the thread invoking the stream) */
+    private static final int OUTSTANDING_CHUNKS_PER_THREAD = 4;
+
+    ParallelResultSetSpliterator(@NotNull ResultSet resultSet,
+                                 int columnCount,
+                                 @NotNull Function<Object[], T> instantiator,
+                                 @NotNull Dialect dialect,
+                                 int chunkSize,
+                                 int maxOutstandingChunks) {
+        this.resultSet = requireNonNull(resultSet);
+        this.columnCount = columnCount;
+        this.instantiator = requireNonNull(instantiator);
+        this.dialect = requireNonNull(dialect);
+        this.chunkSize = chunkSize;
+        this.maxOutstandingChunks = maxOutstandingChunks;
+    }
+
+    /**
+     * Returns a parallel stream of instances of given class, instantiated from the rows of given result.
+     * Closing the stream closes both the result and the statement that produced it.
+     *
+     * @param sql the SQL that produced the result or null if it is not known
+     */
+    public static @NotNull <T> Stream<T> stream(@NotNull PreparedStatement ps,
+                                                @NotNull ResultSet resultSet,
+                                                @NotNull Class<T> cl,
+                                                @NotNull InstantiatorProvider instantiatorProvider,
+                                                @Nullable String sql,
+                                                int chunkSize) throws SQLException {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("chunk size must be positive, but was " + chunkSize);
+
+        NamedTypeList types = instantiatorProvider.getResultShapeCache().getTypes(sql, resultSet);
+        Instantiator<T> ctor = instantiatorProvider.findInstantiator(cl, types);
+        boolean allowNulls = !cl.isPrimitive();
+
+        Function<Object[], T> instantiator = row -> {
+            T value = ctor.instantiate(new InstantiatorArguments(types, row));
+            if (value != null || allowNulls)
+                return value;
+            else
+                throw new UnexpectedResultException("Expected " + cl.getName() + ", but got null");
+        };
+
+        Dialect dialect = instantiatorProvider.getDialect();
+        int maxOutstandingChunks = OUTSTANDING_CHUNKS_PER_THREAD * (ForkJoinPool.getCommonPoolParallelism() + 1);
+        return StreamSupport.stream(new ParallelResultSetSpliterator<>(resultSet, types.size(), instantiator, dialect, chunkSize, maxOutstandingChunks), true)
+                .onClose(() -> ResultSetSpliterator.close(ps, resultSet, dialect));
+    }
+
+    @Override
+    public boolean tryAdvance(@NotNull Consumer<? super T> action) {
+        Object[][] rows = readChunk(1);
+        if (rows == null)
+            return false;
+
+        action.accept(instantiator.apply(rows[0]));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(@NotNull Consumer<? super T> action) {
+        Object[][] rows;
+        while ((rows = readChunk(chunkSize)) != null)
+            for (Object[] row : rows)
+                action.accept(instantiator.apply(row));
+    }
+
+    @Override
+    public @Nullable Spliterator<T> trySplit() {
+        // Don't read further ahead if the workers are falling behind: the remaining rows will then be
+        // instantiated sequentially by the thread that owns this spliterator.
+        if (outstandingChunks.get() >= maxOutstandingChunks)
+            return null;
+
+        Object[][] rows = readChunk(chunkSize);
+        if (rows == null)
+            return null;
+
+        outstandingChunks.incrementAndGet();
+        Chunk<T> chunk = new Chunk<>(rows, instantiator, outstandingChunks);
+        return new ChunkSpliterator<>(chunk, 0, rows.length);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    /**
+     * Reads the raw values of at most given amount of rows, or returns null if there are no more rows.
+     */
+    private synchronized @Nullable Object[][] readChunk(int maxRows) {
+        if (exhausted)
+            return null;
+
+        try {
+            Object[][] rows = new Object[maxRows][];
+            int count = 0;
+            while (count < maxRows && resultSet.next()) {
+                Object[] row = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++)
+                    row[i] = resultSet.getObject(i + 1);
+                rows[count++] = row;
+            }
+
+            if (count < maxRows)
+                exhausted = true;
+
+            if (count == 0)
+                return null;
+
+            return count == maxRows ? rows : Arrays.copyOf(rows, count);
+
+        } catch (SQLException e) {
+            exhausted = true;
+            throw dialect.convertException(e);
+        }
+    }
+
+    /**
+     * A chunk of rows that has been read, but not yet fully instantiated. The chunk stops being outstanding
+     * once all of its rows have been instantiated, possibly by different threads if the chunk was split further.
+     */
+    private static final class Chunk<T> {
+
+        private final @NotNull Object[][] rows;
+
+        private final @NotNull Function<Object[], T> instantiator;
+
+        private final @NotNull AtomicInteger remainingRows;
+
+        private final @NotNull AtomicInteger outstandingChunks;
+
+        Chunk(@NotNull Object[][] rows, @NotNull Function<Object[], T> instantiator, @NotNull AtomicInteger outstandingChunks) {
+            this.rows = rows;
+            this.instantiator = instantiator;
+            this.remainingRows = new AtomicInteger(rows.length);
+            this.outstandingChunks = outstandingChunks;
+        }
+
+        T instantiate(int index) {
+            Object[] row = rows[index];
+            rows[index] = null;
+            try {
+                return instantiator.apply(row);
+            } finally {
+                if (remainingRows.decrementAndGet() == 0)
+                    outstandingChunks.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Instantiates results from a range of a chunk of rows that has already been read.
+     */
+    private static final class ChunkSpliterator<T> implements Spliterator<T> {
+
+        private final @NotNull Chunk<T> chunk;
+
+        private int index;
+
+        private final int end;
+
+        ChunkSpliterator(@NotNull Chunk<T> chunk, int index, int end) {
+            this.chunk = chunk;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(@NotNull Consumer<? super T> action) {
+            if (index >= end)
+                return false;
+
+            action.accept(chunk.instantiate(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(@NotNull Consumer<? super T> action) {
+            while (index < end)
+                action.accept(chunk.instantiate(index++));
+        }
+
+        @Override
+        public @Nullable Spliterator<T> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (mid <= index)
+                return null;
+
+            ChunkSpliterator<T> prefix = new ChunkSpliterator<>(chunk, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.dalesbred.internal.result;
+
+import org.dalesbred.internal.instantiation.Instantiator;
+import org.dalesbred.internal.instantiation.InstantiatorArguments;
+import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.instantiation.NamedTypeList;
+import org.dalesbred.internal.jdbc.RowPrefetcher;
+import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.UnexpectedResultException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+import static org.dalesbred.internal.utils.TypeUtils.rawType;
+
+/**
+ * ResultSetProcessor that instantiates a list of results from rows read ahead by a {@link RowPrefetcher}.
+ * The results are instantiated from the raw values of the rows, so the processing thread never touches the
+ * result or the connection while the rows are being read. Results with columns whose values can't be detached
+ * from the result are processed without prefetching.
+ */
+public final class PrefetchingListResultSetProcessor<T> implements ResultSetProcessor<List<T>> {
+
+    private final @NotNull Class<T> cl;
+
+    private final @NotNull InstantiatorProvider instantiatorProvider;
+
+    private final @Nullable String sql;
+
+    private final int blockSize;
+
+    public PrefetchingListResultSetProcessor(@NotNull Class<T> cl, @NotNull InstantiatorProvider instantiatorProvider, @Nullable String sql, int blockSize) {
+        this.cl = requireNonNull(cl);
+        this.instantiatorProvider = requireNonNull(instantiatorProvider);
+        this.sql = sql;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public @NotNull List<T> process(@NotNull ResultSet resultSet) throws SQLException {
+        NamedTypeList types = instantiatorProvider.getResultShapeCache().getTypes(sql, resultSet);
+        for (int i = 0; i < types.size(); i++)
+            if (!RowPrefetcher.canDetach(rawType(types.getType(i))))
+                return new InstantiatorRowMapper<>(cl, instantiatorProvider, sql).list().process(resultSet);
+
+        Instantiator<T> ctor = instantiatorProvider.findInstantiator(cl, types);
+        boolean allowNulls = !cl.isPrimitive();
+
+        List<T> result = new ArrayList<>();
+        try (RowPrefetcher prefetcher = new RowPrefetcher(resultSet, types.size(), blockSize, RowPrefetcher.DEFAULT_BLOCK_COUNT)) {
+            Object[] row;
+            while ((row = prefetcher.nextRow()) != null) {
+                T value = ctor.instantiate(new InstantiatorArguments(types, row));
+                if (value == null && !allowNulls)
+                    throw new UnexpectedResultException("Expected " + cl.getName() + ", but got null");
+                result.add(value);
+            }
+        }
+        return result;
+    }
+}
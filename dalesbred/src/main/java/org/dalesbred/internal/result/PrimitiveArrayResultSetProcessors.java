@@ -0,0 +1,110 @@
+package org.dalesbred.internal.result;
+
+import org.dalesbred.result.NullPolicy;
+import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.UnexpectedResultException;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * ResultSetProcessors that read single-column results into primitive arrays with the typed getters
+ * of {@link ResultSet}, so that no values are boxed.
+ */
+public final class PrimitiveArrayResultSetProcessors {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private PrimitiveArrayResultSetProcessors() { }
+
+    public static @NotNull ResultSetProcessor<int[]> intArray(@NotNull NullPolicy nullPolicy) {
+        requireNonNull(nullPolicy);
+        return resultSet -> {
+            verifySingleColumn(resultSet);
+
+            int[] result = new int[INITIAL_CAPACITY];
+            int size = 0;
+            while (resultSet.next()) {
+                int value = resultSet.getInt(1);
+                if (value == 0 && resultSet.wasNull()) {
+                    if (nullPolicy.isSkip()) continue;
+                    value = replacement(nullPolicy, resultSet).intValue();
+                }
+
+                if (size == result.length)
+                    result = Arrays.copyOf(result, grow(size));
+                result[size++] = value;
+            }
+            return Arrays.copyOf(result, size);
+        };
+    }
+
+    public static @NotNull ResultSetProcessor<long[]> longArray(@NotNull NullPolicy nullPolicy) {
+        requireNonNull(nullPolicy);
+        return resultSet -> {
+            verifySingleColumn(resultSet);
+
+            long[] result = new long[INITIAL_CAPACITY];
+            int size = 0;
+            while (resultSet.next()) {
+                long value = resultSet.getLong(1);
+                if (value == 0 && resultSet.wasNull()) {
+                    if (nullPolicy.isSkip()) continue;
+                    value = replacement(nullPolicy, resultSet).longValue();
+                }
+
+                if (size == result.length)
+                    result = Arrays.copyOf(result, grow(size));
+                result[size++] = value;
+            }
+            return Arrays.copyOf(result, size);
+        };
+    }
+
+    public static @NotNull ResultSetProcessor<double[]> doubleArray(@NotNull NullPolicy nullPolicy) {
+        requireNonNull(nullPolicy);
+        return resultSet -> {
+            verifySingleColumn(resultSet);
+
+            double[] result = new double[INITIAL_CAPACITY];
+            int size = 0;
+            while (resultSet.next()) {
+                double value = resultSet.getDouble(1);
+                if (value == 0 && resultSet.wasNull()) {
+                    if (nullPolicy.isSkip()) continue;
+                    value = replacement(nullPolicy, resultSet).doubleValue();
+                }
+
+                if (size == result.length)
+                    result = Arrays.copyOf(result, grow(size));
+                result[size++] = value;
+            }
+            return Arrays.copyOf(result, size);
+        };
+    }
+
+    private static void verifySingleColumn(@NotNull ResultSet resultSet) throws SQLException {
+        int columnCount = resultSet.getMetaData().getColumnCount();
+        if (columnCount != 1)
+            throw new UnexpectedResultException("Expected ResultSet with 1 column, but got " + columnCount + " columns.");
+    }
+
+    private static @NotNull Number replacement(@NotNull NullPolicy nullPolicy, @NotNull ResultSet resultSet) throws SQLException {
+        Number replacement = nullPolicy.getReplacement();
+        if (replacement == null)
+            throw new UnexpectedResultException("Expected primitive value, but got null for column '" + resultSet.getMetaData().getColumnLabel(1) + "'");
+        return replacement;
+    }
+
+    private static int grow(int size) {
+        if (size == MAX_ARRAY_SIZE)
+            throw new OutOfMemoryError("result too large for an array");
+        return (int) Math.min(size + (size >> 1) + 1L, MAX_ARRAY_SIZE);
+    }
+}
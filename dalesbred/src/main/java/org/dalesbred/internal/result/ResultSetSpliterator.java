@@ -0,0 +1,71 @@
+package org.dalesbred.internal.result;
+
+import org.dalesbred.dialect.Dialect;
+import org.dalesbred.result.RowMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spliterator that maps the rows of an open {@link ResultSet} lazily as they are consumed.
+ */
+public final class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final @NotNull ResultSet resultSet;
+
+    private final @NotNull RowMapper<T> rowMapper;
+
+    private final @NotNull Dialect dialect;
+
+    private ResultSetSpliterator(@NotNull ResultSet resultSet, @NotNull RowMapper<T> rowMapper, @NotNull Dialect dialect) {
+        super(Long.MAX_VALUE, ORDERED);
+        this.resultSet = requireNonNull(resultSet);
+        this.rowMapper = requireNonNull(rowMapper);
+        this.dialect = requireNonNull(dialect);
+    }
+
+    /**
+     * Returns a sequential stream of the rows of given result. Closing the stream closes both the result
+     * and the statement that produced it.
+     */
+    public static @NotNull <T> Stream<T> stream(@NotNull PreparedStatement ps,
+                                                @NotNull ResultSet resultSet,
+                                                @NotNull RowMapper<T> rowMapper,
+                                                @NotNull Dialect dialect) {
+        return StreamSupport.stream(new ResultSetSpliterator<>(resultSet, rowMapper, dialect), false)
+                .onClose(() -> close(ps, resultSet, dialect));
+    }
+
+    @Override
+    public boolean tryAdvance(@NotNull Consumer<? super T> action) {
+        try {
+            if (!resultSet.next())
+                return false;
+
+            action.accept(rowMapper.mapRow(resultSet));
+            return true;
+        } catch (SQLException e) {
+            throw dialect.convertException(e);
+        }
+    }
+
+    static void close(@NotNull PreparedStatement ps, @NotNull ResultSet resultSet, @NotNull Dialect dialect) {
+        try {
+            try {
+                resultSet.close();
+            } finally {
+                ps.close();
+            }
+        } catch (SQLException e) {
+            throw dialect.convertException(e);
+        }
+    }
+}
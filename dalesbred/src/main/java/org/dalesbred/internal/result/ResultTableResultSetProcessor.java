@@ -1,57 +1,69 @@
 package org.dalesbred.internal.result;
 
-import org.dalesbred.dialect.Dialect;
+import org.dalesbred.internal.jdbc.ResultShapeCache;
 import org.dalesbred.result.ResultSetProcessor;
 import org.dalesbred.result.ResultTable;
 import org.dalesbred.result.ResultTable.ColumnMetadata;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.List;
 
-import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
-import static org.dalesbred.internal.jdbc.ResultSetUtils.getColumnType;
 
 /**
  * Creates a {@link ResultTable} from {@link ResultSet}.
  */
 public final class ResultTableResultSetProcessor implements ResultSetProcessor<ResultTable> {
 
-    private final @NotNull Dialect dialect;
+    private final @NotNull ResultShapeCache shapeCache;
 
-    public ResultTableResultSetProcessor(@NotNull Dialect dialect) {
-        this.dialect = requireNonNull(dialect);
-    }
+    private final @Nullable String sql;
 
-    @Override
-    public @NotNull ResultTable process(@NotNull ResultSet resultSet) throws SQLException {
-        ResultSetMetaData metaData = resultSet.getMetaData();
-        int columnCount = metaData.getColumnCount();
+    private final boolean columnar;
 
-        ResultTable.Builder builder = createBuilder(metaData, dialect);
-        while (resultSet.next()) {
-            Object[] row = new Object[columnCount];
+    private final long memoryBudget;
 
-            for (int i = 0; i < columnCount; i++)
-                row[i] = resultSet.getObject(i+1);
+    public ResultTableResultSetProcessor(@NotNull ResultShapeCache shapeCache, @Nullable String sql) {
+        this(shapeCache, sql, false);
+    }
 
-            builder.addRow(asList(row));
-        }
+    /**
+     * @param columnar whether to create a columnar table, see {@link ResultTable#columnarBuilder(List)}
+     */
+    public ResultTableResultSetProcessor(@NotNull ResultShapeCache shapeCache, @Nullable String sql, boolean columnar) {
+        this(shapeCache, sql, columnar, Long.MAX_VALUE);
+    }
 
-        return builder.build();
+    /**
+     * @param memoryBudget bytes of rows to keep in memory before spilling the rest into a temporary file,
+     *                     see {@link ResultTable#spillingBuilder(List, long)}. Ignored for columnar tables.
+     */
+    public ResultTableResultSetProcessor(@NotNull ResultShapeCache shapeCache, @Nullable String sql, boolean columnar, long memoryBudget) {
+        this.shapeCache = requireNonNull(shapeCache);
+        this.sql = sql;
+        this.columnar = columnar;
+        this.memoryBudget = memoryBudget;
     }
 
-    private static @NotNull ResultTable.Builder createBuilder(@NotNull ResultSetMetaData metaData, @NotNull Dialect dialect) throws SQLException {
-        int columnCount = metaData.getColumnCount();
-        ColumnMetadata[] result = new ColumnMetadata[columnCount];
+    @Override
+    public @NotNull ResultTable process(@NotNull ResultSet resultSet) throws SQLException {
+        List<ColumnMetadata> columns = shapeCache.getColumns(sql, resultSet);
 
-        for (int i = 0; i < columnCount; i++) {
-            result[i] = new ColumnMetadata(i, metaData.getColumnLabel(i + 1), getColumnType(metaData, dialect, i + 1),
-                metaData.getColumnType(i + 1), metaData.getColumnTypeName(i + 1));
-        }
+        ResultTable.Builder builder = columnar ? ResultTable.columnarBuilder(columns)
+            : memoryBudget != Long.MAX_VALUE ? ResultTable.spillingBuilder(columns, memoryBudget)
+            : ResultTable.builder(columns);
 
-        return ResultTable.builder(asList(result));
+        try {
+            while (resultSet.next())
+                builder.addRow(resultSet);
+
+            return builder.build();
+        } catch (SQLException | RuntimeException e) {
+            builder.discard();
+            throw e;
+        }
     }
 }
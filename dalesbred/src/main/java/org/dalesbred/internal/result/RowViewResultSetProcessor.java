@@ -0,0 +1,170 @@
+package org.dalesbred.internal.result;
+
+import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.instantiation.NamedTypeList;
+import org.dalesbred.internal.instantiation.TypeConversion;
+import org.dalesbred.internal.utils.Primitives;
+import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.RowCallback;
+import org.dalesbred.result.RowView;
+import org.dalesbred.result.UnexpectedResultException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * ResultSetProcessor that passes every row to a {@link RowCallback} through a single reused {@link RowView}.
+ * Returns the amount of processed rows.
+ */
+public final class RowViewResultSetProcessor implements ResultSetProcessor<Long> {
+
+    private final @NotNull RowCallback callback;
+
+    private final @NotNull InstantiatorProvider instantiatorRegistry;
+
+    private final @Nullable String sql;
+
+    public RowViewResultSetProcessor(@NotNull RowCallback callback, @NotNull InstantiatorProvider instantiatorRegistry, @Nullable String sql) {
+        this.callback = requireNonNull(callback);
+        this.instantiatorRegistry = requireNonNull(instantiatorRegistry);
+        this.sql = sql;
+    }
+
+    @Override
+    public @NotNull Long process(@NotNull ResultSet resultSet) throws SQLException {
+        NamedTypeList types = instantiatorRegistry.getResultShapeCache().getTypes(sql, resultSet);
+        ResultSetRowView view = new ResultSetRowView(resultSet, types, instantiatorRegistry);
+
+        long rows = 0;
+        while (resultSet.next()) {
+            callback.processRow(view);
+            rows++;
+        }
+        return rows;
+    }
+
+    private static final class ResultSetRowView implements RowView {
+
+        private final @NotNull ResultSet resultSet;
+
+        private final @NotNull NamedTypeList types;
+
+        private final @NotNull InstantiatorProvider instantiatorRegistry;
+
+        private final @NotNull Map<String, Integer> indicesByName;
+
+        /** The target type of the most recent conversion of each column, cached along with the conversion */
+        private final @Nullable Class<?>[] conversionTargets;
+
+        private final @Nullable TypeConversion[] conversions;
+
+        ResultSetRowView(@NotNull ResultSet resultSet, @NotNull NamedTypeList types, @NotNull InstantiatorProvider instantiatorRegistry) {
+            this.resultSet = resultSet;
+            this.types = types;
+            this.instantiatorRegistry = instantiatorRegistry;
+            this.conversionTargets = new Class<?>[types.size()];
+            this.conversions = new TypeConversion[types.size()];
+
+            this.indicesByName = new HashMap<>();
+            for (int i = types.size() - 1; i >= 0; i--)
+                indicesByName.put(types.getName(i), i);
+        }
+
+        @Override
+        public int getColumnCount() {
+            return types.size();
+        }
+
+        @Override
+        public @NotNull String getColumnName(int column) {
+            return types.getName(column);
+        }
+
+        @Override
+        public int indexOf(@NotNull String column) {
+            Integer index = indicesByName.get(column);
+            if (index != null)
+                return index;
+
+            for (int i = 0; i < types.size(); i++)
+                if (column.equalsIgnoreCase(types.getName(i)))
+                    return i;
+
+            throw new IllegalArgumentException("no column '" + column + "' in " + types.getNames());
+        }
+
+        @Override
+        public boolean isNull(int column) throws SQLException {
+            return resultSet.getObject(checkIndex(column)) == null;
+        }
+
+        @Override
+        public int getInt(int column) throws SQLException {
+            int value = resultSet.getInt(checkIndex(column));
+            if (value == 0 && resultSet.wasNull()) throw unexpectedNull(column);
+            return value;
+        }
+
+        @Override
+        public long getLong(int column) throws SQLException {
+            long value = resultSet.getLong(checkIndex(column));
+            if (value == 0 && resultSet.wasNull()) throw unexpectedNull(column);
+            return value;
+        }
+
+        @Override
+        public double getDouble(int column) throws SQLException {
+            double value = resultSet.getDouble(checkIndex(column));
+            if (value == 0 && resultSet.wasNull()) throw unexpectedNull(column);
+            return value;
+        }
+
+        @Override
+        public boolean getBoolean(int column) throws SQLException {
+            boolean value = resultSet.getBoolean(checkIndex(column));
+            if (!value && resultSet.wasNull()) throw unexpectedNull(column);
+            return value;
+        }
+
+        @Override
+        public @Nullable String getString(int column) throws SQLException {
+            return resultSet.getString(checkIndex(column));
+        }
+
+        @Override
+        public @Nullable Object getObject(int column) throws SQLException {
+            return resultSet.getObject(checkIndex(column));
+        }
+
+        @Override
+        public <T> @Nullable T get(int column, @NotNull Class<T> type) throws SQLException {
+            Object value = resultSet.getObject(checkIndex(column));
+            Class<T> target = Primitives.wrap(type);
+
+            TypeConversion conversion = conversions[column];
+            if (conversionTargets[column] != target) {
+                conversion = instantiatorRegistry.getConversionFromDbValue(types.getType(column), target);
+                conversions[column] = conversion;
+                conversionTargets[column] = target;
+            }
+
+            return target.cast(conversion.convert(value));
+        }
+
+        private int checkIndex(int column) {
+            if (column < 0 || column >= types.size())
+                throw new IndexOutOfBoundsException("column " + column + " out of bounds for " + types.size() + " columns");
+            return column + 1;
+        }
+
+        private @NotNull UnexpectedResultException unexpectedNull(int column) {
+            return new UnexpectedResultException("Expected primitive value, but got null for column '" + types.getName(column) + "'");
+        }
+    }
+}
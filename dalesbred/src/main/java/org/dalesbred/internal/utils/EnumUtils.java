@@ -4,7 +4,8 @@ import org.dalesbred.DatabaseException;
 import org.dalesbred.internal.instantiation.InstantiationFailureException;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Objects;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 public final class EnumUtils {
@@ -19,11 +20,39 @@ public final class EnumUtils {
             throw new DatabaseException("invalid ordinal " + ordinal + " for enum type " + enumType.getName());
     }
 
-    public static @NotNull <T extends Enum<T>,K> T enumByKey(@NotNull Class<T> enumType, @NotNull Function<T, K> keyFunction, @NotNull K key) {
-        for (T enumConstant : enumType.getEnumConstants())
-            if (Objects.equals(key, keyFunction.apply(enumConstant)))
-                return enumConstant;
+    /**
+     * Returns a function that finds the enum constant by its key. The keys of all constants are computed
+     * once, so finding a constant is a hash lookup instead of a scan over the constants.
+     */
+    public static @NotNull <T extends Enum<T>,K> Function<Object, T> enumsByKey(@NotNull Class<T> enumType, @NotNull Function<T, K> keyFunction) {
+        T[] constants = enumType.getEnumConstants();
+        Map<Object, T> constantsByKey = new HashMap<>(constants.length * 2);
 
-        throw new InstantiationFailureException("could not find enum constant of type " + enumType.getName() + " for " + key);
+        // Prefer the first constant if multiple constants have the same key
+        for (T enumConstant : constants)
+            constantsByKey.putIfAbsent(keyFunction.apply(enumConstant), enumConstant);
+
+        return key -> {
+            T enumConstant = constantsByKey.get(key);
+            if (enumConstant == null)
+                throw new InstantiationFailureException("could not find enum constant of type " + enumType.getName() + " for " + key);
+            return enumConstant;
+        };
+    }
+
+    /**
+     * Returns a function that returns the value of given function for enum constants. The values
+     * of all constants are computed once and looked up by ordinal afterwards.
+     */
+    public static @NotNull <T extends Enum<T>,V> Function<T, V> valuesByEnum(@NotNull Class<T> enumType, @NotNull Function<T, V> valueFunction) {
+        T[] constants = enumType.getEnumConstants();
+        Object[] values = new Object[constants.length];
+
+        for (T enumConstant : constants)
+            values[enumConstant.ordinal()] = valueFunction.apply(enumConstant);
+
+        @SuppressWarnings("unchecked")
+        Function<T, V> lookup = enumConstant -> (V) values[enumConstant.ordinal()];
+        return lookup;
     }
 }
@@ -0,0 +1,74 @@
+package org.dalesbred.internal.utils;
+
+import org.dalesbred.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe map that holds at most given amount of entries, evicting the least recently
+ * used entry when it grows past its capacity. Keeps track of hits, misses and evictions.
+ */
+public final class LruCache<K, V> {
+
+    private final int capacity;
+
+    private final @NotNull LinkedHashMap<K, V> entries;
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private long evictions = 0;
+
+    public LruCache(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("negative capacity: " + capacity);
+
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the value cached for given key, or null if there is no such value.
+     */
+    public synchronized @Nullable V get(@NotNull K key) {
+        V value = entries.get(key);
+        if (value != null)
+            hits++;
+        else
+            misses++;
+        return value;
+    }
+
+    public synchronized void put(@NotNull K key, @NotNull V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized @NotNull CacheStatistics getStatistics() {
+        return new CacheStatistics(hits, misses, evictions, entries.size());
+    }
+}
@@ -0,0 +1,91 @@
+package org.dalesbred.query;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Determines how many rows are sent to the database in each batch when a batch update reads its
+ * rows from an iterator or a stream. The size is either fixed or adapted after each batch based on
+ * how long the batch took to execute compared to a target latency.
+ *
+ * @see org.dalesbred.DatabaseAccess#updateBatch(String, java.util.Iterator, BatchSize)
+ */
+public final class BatchSize {
+
+    private final int initialSize;
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final @Nullable Duration targetLatency;
+
+    private BatchSize(int initialSize, int minSize, int maxSize, @Nullable Duration targetLatency) {
+        this.initialSize = initialSize;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetLatency = targetLatency;
+    }
+
+    /**
+     * Returns a batch size that always sends given amount of rows per batch.
+     */
+    public static @NotNull BatchSize fixed(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("non-positive batch size: " + size);
+
+        return new BatchSize(size, size, size, null);
+    }
+
+    /**
+     * Returns a batch size that starts from given size and is adjusted between given bounds: the size is
+     * doubled after batches that execute in less than half of the target latency and halved after batches
+     * that take longer than the target.
+     */
+    public static @NotNull BatchSize adaptive(int initialSize, int minSize, int maxSize, @NotNull Duration targetLatency) {
+        if (minSize <= 0)
+            throw new IllegalArgumentException("non-positive minimum batch size: " + minSize);
+        if (initialSize < minSize || initialSize > maxSize)
+            throw new IllegalArgumentException("initial batch size " + initialSize + " not in range [" + minSize + ", " + maxSize + "]");
+        if (targetLatency.isNegative() || targetLatency.isZero())
+            throw new IllegalArgumentException("non-positive target latency: " + targetLatency);
+
+        return new BatchSize(initialSize, minSize, maxSize, requireNonNull(targetLatency));
+    }
+
+    public int getInitialSize() {
+        return initialSize;
+    }
+
+    public boolean isAdaptive() {
+        return targetLatency != null;
+    }
+
+    /**
+     * Returns the size of the next batch after a batch of given size executed in given time.
+     */
+    public int nextSize(int currentSize, long elapsedNanos) {
+        if (targetLatency == null)
+            return currentSize;
+
+        long targetNanos = targetLatency.toNanos();
+        if (elapsedNanos > targetNanos)
+            return Math.max(minSize, currentSize / 2);
+        else if (elapsedNanos < targetNanos / 2)
+            return (int) Math.min(maxSize, currentSize * 2L);
+        else
+            return currentSize;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        if (targetLatency == null)
+            return "BatchSize [fixed=" + initialSize + ']';
+        else
+            return "BatchSize [initial=" + initialSize + ", min=" + minSize + ", max=" + maxSize + ", targetLatency=" + targetLatency + ']';
+    }
+}
@@ -0,0 +1,153 @@
+package org.dalesbred.query;
+
+import org.dalesbred.internal.utils.ReflectionUtils;
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL with named parameters, parsed once for binding the properties of many beans or the values of many
+ * maps to the same statement. The accessors for the parameters are resolved once for each bean class
+ * instead of looking them up for each variable of each row like {@link VariableResolver#forBean(Object)}.
+ *
+ * @see org.dalesbred.DatabaseAccess#updateNamedBatch(String, java.util.Collection)
+ */
+public final class NamedParameterBatch {
+
+    private final @NotNull String sql;
+
+    private final @NotNull List<String> parameterNames;
+
+    private final @NotNull Map<Class<?>, Accessor[]> accessorsByClass = new HashMap<>();
+
+    /** The class whose accessors were used last, to skip the lookup for homogeneous batches */
+    private @Nullable Class<?> lastClass;
+
+    private @NotNull Accessor[] lastAccessors = new Accessor[0];
+
+    private NamedParameterBatch(@NotNull NamedParameterSql namedSql) {
+        this.sql = namedSql.sql();
+        this.parameterNames = namedSql.parameterNames();
+    }
+
+    /**
+     * Parses given SQL, where the parameters are prefixed by a colon, e.g. ":argument".
+     *
+     * @throws SqlSyntaxException if SQL is malformed
+     */
+    public static @NotNull NamedParameterBatch parse(@NotNull @Language("SQL") String sql) {
+        return new NamedParameterBatch(NamedParameterSqlParser.parseSqlStatement(sql));
+    }
+
+    /**
+     * Returns the SQL to execute, where the named parameters have been replaced by positional placeholders.
+     */
+    public @NotNull String getSql() {
+        return sql;
+    }
+
+    public @NotNull List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * Passes the values of the parameters for given bean or map to given consumer, along with their
+     * one-based positions in the SQL.
+     *
+     * @throws VariableResolutionException if the value of a parameter can't be resolved
+     */
+    public void bind(@NotNull Object beanOrMap, @NotNull ArgumentConsumer consumer) throws SQLException {
+        bind(beanOrMap, 1, consumer);
+    }
+
+    /**
+     * Passes the values of the parameters for given bean or map to given consumer, along with their
+     * positions in the statement, starting from given index.
+     *
+     * @throws VariableResolutionException if the value of a parameter can't be resolved
+     */
+    public void bind(@NotNull Object beanOrMap, int firstIndex, @NotNull ArgumentConsumer consumer) throws SQLException {
+        Accessor[] accessors = accessorsFor(beanOrMap.getClass());
+        for (int i = 0; i < accessors.length; i++)
+            consumer.accept(firstIndex + i, accessors[i].getValue(beanOrMap));
+    }
+
+    private @NotNull Accessor[] accessorsFor(@NotNull Class<?> cl) {
+        if (cl == lastClass)
+            return lastAccessors;
+
+        Accessor[] accessors = accessorsByClass.computeIfAbsent(cl, this::resolveAccessors);
+        lastClass = cl;
+        lastAccessors = accessors;
+        return accessors;
+    }
+
+    private @NotNull Accessor[] resolveAccessors(@NotNull Class<?> cl) {
+        Accessor[] accessors = new Accessor[parameterNames.size()];
+        for (int i = 0; i < accessors.length; i++) {
+            String name = parameterNames.get(i);
+            accessors[i] = Map.class.isAssignableFrom(cl) ? mapAccessor(name) : beanAccessor(cl, name);
+        }
+        return accessors;
+    }
+
+    private static @NotNull Accessor mapAccessor(@NotNull String name) {
+        return object -> {
+            Map<?, ?> map = (Map<?, ?>) object;
+            Object value = map.get(name);
+            if (value != null || map.containsKey(name))
+                return value;
+            else
+                throw new VariableResolutionException("No value registered for key '" + name + '\'');
+        };
+    }
+
+    private static @NotNull Accessor beanAccessor(@NotNull Class<?> cl, @NotNull String name) {
+        Method getter = ReflectionUtils.findGetter(cl, name).orElse(null);
+        if (getter != null) {
+            return object -> {
+                try {
+                    return getter.invoke(object);
+                } catch (InvocationTargetException e) {
+                    throw new VariableResolutionException("Failed to resolve variable '" + name + "': " + e.getTargetException(), e.getTargetException());
+                } catch (IllegalAccessException e) {
+                    throw new VariableResolutionException("Could not access variable'" + name + '\'', e);
+                }
+            };
+        }
+
+        Field field = ReflectionUtils.findField(cl, name).orElse(null);
+        if (field != null) {
+            return object -> {
+                try {
+                    return field.get(object);
+                } catch (IllegalAccessException e) {
+                    throw new VariableResolutionException("Could not access variable'" + name + '\'', e);
+                }
+            };
+        }
+
+        throw new VariableResolutionException("No accessor found for '" + name + "' in " + cl.getName());
+    }
+
+    /**
+     * Receives the values of the parameters bound by {@link #bind(Object, int, ArgumentConsumer)}.
+     */
+    @FunctionalInterface
+    public interface ArgumentConsumer {
+        void accept(int index, @Nullable Object value) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Accessor {
+        @Nullable Object getValue(@NotNull Object object);
+    }
+}
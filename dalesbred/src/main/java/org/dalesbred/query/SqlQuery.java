@@ -31,6 +31,8 @@ public final class SqlQuery implements Serializable {
 
     private @Nullable Duration timeout;
 
+    private boolean prefetch = false;
+
     @Serial
     private static final long serialVersionUID = 1;
 
@@ -158,6 +160,27 @@ public final class SqlQuery implements Serializable {
         this.timeout = timeout;
     }
 
+    /**
+     * Returns true if the rows of this query are read ahead on a background thread.
+     */
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * When enabled, a background thread reads the rows of the result in blocks of the fetch size into a bounded
+     * ring of buffers while the results of the rows read previously are instantiated, so that waiting for the
+     * database overlaps with converting the rows. This pays off for large results over high-latency connections.
+     *
+     * <p>Prefetching is supported only by {@link org.dalesbred.DatabaseAccess#findAll(Class, SqlQuery)}, where
+     * Dalesbred instantiates the results itself; other methods throw {@link IllegalArgumentException} for queries
+     * that enable it. Blobs and clobs are read into memory before they are handed over, and results with columns
+     * whose values need the connection to be read (e.g. arrays and XML) are processed without prefetching.
+     */
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
     @Override
     public @NotNull String toString() {
         StringBuilder sb = new StringBuilder(10 + sql.length() + 10 * args.size());
@@ -0,0 +1,50 @@
+package org.dalesbred.query;
+
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A query to prepare ahead of time, along with the type its rows are mapped to.
+ *
+ * @see org.dalesbred.DatabaseAccess#warmUp(java.util.List)
+ */
+public final class WarmUpQuery {
+
+    private final @NotNull String sql;
+
+    private final @Nullable Class<?> resultType;
+
+    /**
+     * Creates a query whose rows are mapped to instances of given type.
+     *
+     * @param sql the SQL of the query, exactly as it is executed later
+     * @param resultType type of the results or null if the results are not mapped to instances of a class
+     */
+    public WarmUpQuery(@NotNull @Language("SQL") String sql, @Nullable Class<?> resultType) {
+        this.sql = requireNonNull(sql);
+        this.resultType = resultType;
+    }
+
+    /**
+     * Creates a query whose results are not mapped to instances of a class.
+     */
+    public WarmUpQuery(@NotNull @Language("SQL") String sql) {
+        this(sql, null);
+    }
+
+    public @NotNull String getSql() {
+        return sql;
+    }
+
+    public @Nullable Class<?> getResultType() {
+        return resultType;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return resultType != null ? sql + " -> " + resultType.getName() : sql;
+    }
+}
@@ -0,0 +1,49 @@
+package org.dalesbred.query;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Describes how a {@link WarmUpQuery} was prepared.
+ */
+public final class WarmUpResult {
+
+    private final @NotNull WarmUpQuery query;
+
+    private final @NotNull Duration duration;
+
+    private final boolean metadataAvailable;
+
+    public WarmUpResult(@NotNull WarmUpQuery query, @NotNull Duration duration, boolean metadataAvailable) {
+        this.query = requireNonNull(query);
+        this.duration = requireNonNull(duration);
+        this.metadataAvailable = metadataAvailable;
+    }
+
+    public @NotNull WarmUpQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Returns the time spent on preparing the query and resolving its mapping.
+     */
+    public @NotNull Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns true if the driver described the result of the query without executing it. If not,
+     * the statement was prepared, but the instantiator for the result type could not be resolved.
+     */
+    public boolean isMetadataAvailable() {
+        return metadataAvailable;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "WarmUpResult [query=" + query + ", duration=" + duration + ", metadataAvailable=" + metadataAvailable + ']';
+    }
+}
@@ -0,0 +1,123 @@
+package org.dalesbred.result;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Describes how to assemble object graphs from a joined result: the type of the objects, the column
+ * identifying them, and their child collections. Each distinct key produces a single object, so the
+ * parents repeated on the rows of a join are instantiated only once.
+ *
+ * <pre>{@code
+ * AggregateMapping<Order> orders = AggregateMapping.of(Order.class, "id")
+ *     .withChildren("line_", AggregateMapping.of(OrderLine.class, "id"), Order::addLine);
+ *
+ * List<Order> result = db.findAll(orders,
+ *     "select o.id, o.customer, l.id as line_id, l.product as line_product " +
+ *     "from orders o left join order_line l on l.order_id = o.id");
+ * }</pre>
+ *
+ * <p>The columns whose labels start with the prefix of a child belong to the child, with the prefix
+ * removed. Prefixes of nested children are relative to the prefix of their parent. The rest of the
+ * columns are used for instantiating the object itself. Children whose key is null, as produced by
+ * outer joins for parents without children, are ignored.
+ *
+ * <p>Since the columns are assigned by their prefixes, the prefixes of the children of a mapping may not
+ * overlap (e.g. {@code line_} and {@code line_tag_}) and a column with the prefix of a child may not match
+ * a property or a named constructor parameter of the parent. Such ambiguities are reported with
+ * {@link UnexpectedResultException} instead of guessing where the column belongs.
+ */
+public final class AggregateMapping<T> {
+
+    private final @NotNull Class<T> type;
+
+    private final @NotNull String keyColumn;
+
+    private final @NotNull List<Child<T, ?>> children;
+
+    private AggregateMapping(@NotNull Class<T> type, @NotNull String keyColumn, @NotNull List<Child<T, ?>> children) {
+        this.type = requireNonNull(type);
+        this.keyColumn = requireNonNull(keyColumn);
+        this.children = unmodifiableList(children);
+    }
+
+    /**
+     * Returns a mapping for objects of given type, identified by the value of given column.
+     */
+    public static @NotNull <T> AggregateMapping<T> of(@NotNull Class<T> type, @NotNull String keyColumn) {
+        return new AggregateMapping<>(type, keyColumn, List.of());
+    }
+
+    /**
+     * Returns a new mapping that also assembles the children described by given mapping from the columns
+     * with given prefix, passing each distinct child to given consumer along with its parent.
+     */
+    public @NotNull <C> AggregateMapping<T> withChildren(@NotNull String columnPrefix,
+                                                         @NotNull AggregateMapping<C> mapping,
+                                                         @NotNull BiConsumer<? super T, ? super C> adder) {
+        if (columnPrefix.isEmpty())
+            throw new IllegalArgumentException("empty column prefix");
+
+        List<Child<T, ?>> newChildren = new ArrayList<>(children);
+        newChildren.add(new Child<>(columnPrefix, mapping, adder));
+        return new AggregateMapping<>(type, keyColumn, newChildren);
+    }
+
+    public @NotNull Class<T> getType() {
+        return type;
+    }
+
+    public @NotNull String getKeyColumn() {
+        return keyColumn;
+    }
+
+    public @NotNull List<Child<T, ?>> getChildren() {
+        return children;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "AggregateMapping [type=" + type.getName() + ", keyColumn=" + keyColumn + ", children=" + children + ']';
+    }
+
+    /**
+     * A child collection of an {@link AggregateMapping}.
+     */
+    public static final class Child<P, C> {
+
+        private final @NotNull String columnPrefix;
+
+        private final @NotNull AggregateMapping<C> mapping;
+
+        private final @NotNull BiConsumer<? super P, ? super C> adder;
+
+        private Child(@NotNull String columnPrefix, @NotNull AggregateMapping<C> mapping, @NotNull BiConsumer<? super P, ? super C> adder) {
+            this.columnPrefix = requireNonNull(columnPrefix);
+            this.mapping = requireNonNull(mapping);
+            this.adder = requireNonNull(adder);
+        }
+
+        public @NotNull String getColumnPrefix() {
+            return columnPrefix;
+        }
+
+        public @NotNull AggregateMapping<C> getMapping() {
+            return mapping;
+        }
+
+        public @NotNull BiConsumer<? super P, ? super C> getAdder() {
+            return adder;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return columnPrefix + "*: " + mapping;
+        }
+    }
+}
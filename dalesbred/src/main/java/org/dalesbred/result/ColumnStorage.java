@@ -0,0 +1,330 @@
+package org.dalesbred.result;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Values of a single column of a columnar {@link ResultTable}. Columns of primitive types store
+ * their values in primitive arrays and keep track of nulls in a separate bitmap.
+ */
+abstract class ColumnStorage {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Rows where the value of this column is null */
+    final @NotNull BitSet nulls = new BitSet();
+
+    int size;
+
+    /**
+     * Returns storage suitable for values of given type.
+     */
+    static @NotNull ColumnStorage forType(@NotNull Class<?> type) {
+        if (type == Integer.class || type == int.class)
+            return new IntStorage();
+        else if (type == Long.class || type == long.class)
+            return new LongStorage();
+        else if (type == Double.class || type == double.class)
+            return new DoubleStorage();
+        else if (type == Boolean.class || type == boolean.class)
+            return new BooleanStorage();
+        else
+            return new ObjectStorage();
+    }
+
+    /**
+     * Reads the value of given (one-based) column of the current row and appends it to this column.
+     */
+    abstract void read(@NotNull ResultSet resultSet, int column) throws SQLException;
+
+    /**
+     * Appends given value to this column.
+     *
+     * @throws IllegalArgumentException if the value can't be stored in this column
+     */
+    abstract void add(@Nullable Object value);
+
+    /**
+     * Throws {@link IllegalArgumentException} if given value can't be stored in this column.
+     */
+    void checkValue(@Nullable Object value) {
+    }
+
+    abstract @Nullable Object get(int row);
+
+    /**
+     * Trims the backing array to the size of this column.
+     */
+    abstract void trim();
+
+    boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    int getInt(int row) {
+        return ((Number) requireValue(row)).intValue();
+    }
+
+    long getLong(int row) {
+        return ((Number) requireValue(row)).longValue();
+    }
+
+    double getDouble(int row) {
+        return ((Number) requireValue(row)).doubleValue();
+    }
+
+    final @NotNull Object requireValue(int row) {
+        Object value = get(row);
+        if (value == null)
+            throw new UnexpectedResultException("Expected primitive value, but got null on row " + row);
+        return value;
+    }
+
+    final void checkNotNull(int row) {
+        if (isNull(row))
+            throw new UnexpectedResultException("Expected primitive value, but got null on row " + row);
+    }
+
+    static @NotNull Number requireNumber(@NotNull Object value) {
+        if (value instanceof Number number)
+            return number;
+        throw new IllegalArgumentException("Expected number, but got " + value.getClass().getName() + ": " + value);
+    }
+
+    static boolean requireBoolean(@NotNull Object value) {
+        if (value instanceof Boolean bool)
+            return bool;
+        throw new IllegalArgumentException("Expected boolean, but got " + value.getClass().getName() + ": " + value);
+    }
+
+    static int grow(int capacity) {
+        return Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+    }
+
+    private static final class IntStorage extends ColumnStorage {
+
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            int value = resultSet.getInt(column);
+            append(value, value == 0 && resultSet.wasNull());
+        }
+
+        @Override
+        void checkValue(@Nullable Object value) {
+            if (value != null)
+                requireNumber(value);
+        }
+
+        @Override
+        void add(@Nullable Object value) {
+            append(value != null ? requireNumber(value).intValue() : 0, value == null);
+        }
+
+        private void append(int value, boolean isNull) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, grow(size));
+            if (isNull)
+                nulls.set(size);
+            values[size++] = value;
+        }
+
+        @Override
+        @Nullable Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        int getInt(int row) {
+            checkNotNull(row);
+            return values[row];
+        }
+
+        @Override
+        long getLong(int row) {
+            checkNotNull(row);
+            return values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            checkNotNull(row);
+            return values[row];
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class LongStorage extends ColumnStorage {
+
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            long value = resultSet.getLong(column);
+            append(value, value == 0 && resultSet.wasNull());
+        }
+
+        @Override
+        void checkValue(@Nullable Object value) {
+            if (value != null)
+                requireNumber(value);
+        }
+
+        @Override
+        void add(@Nullable Object value) {
+            append(value != null ? requireNumber(value).longValue() : 0, value == null);
+        }
+
+        private void append(long value, boolean isNull) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, grow(size));
+            if (isNull)
+                nulls.set(size);
+            values[size++] = value;
+        }
+
+        @Override
+        @Nullable Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        long getLong(int row) {
+            checkNotNull(row);
+            return values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            checkNotNull(row);
+            return values[row];
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class DoubleStorage extends ColumnStorage {
+
+        private double[] values = new double[INITIAL_CAPACITY];
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            double value = resultSet.getDouble(column);
+            append(value, value == 0 && resultSet.wasNull());
+        }
+
+        @Override
+        void checkValue(@Nullable Object value) {
+            if (value != null)
+                requireNumber(value);
+        }
+
+        @Override
+        void add(@Nullable Object value) {
+            append(value != null ? requireNumber(value).doubleValue() : 0, value == null);
+        }
+
+        private void append(double value, boolean isNull) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, grow(size));
+            if (isNull)
+                nulls.set(size);
+            values[size++] = value;
+        }
+
+        @Override
+        @Nullable Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            checkNotNull(row);
+            return values[row];
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class BooleanStorage extends ColumnStorage {
+
+        private final @NotNull BitSet values = new BitSet();
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            boolean value = resultSet.getBoolean(column);
+            append(value, !value && resultSet.wasNull());
+        }
+
+        @Override
+        void checkValue(@Nullable Object value) {
+            if (value != null)
+                requireBoolean(value);
+        }
+
+        @Override
+        void add(@Nullable Object value) {
+            append(value != null && requireBoolean(value), value == null);
+        }
+
+        private void append(boolean value, boolean isNull) {
+            if (isNull)
+                nulls.set(size);
+            values.set(size++, value);
+        }
+
+        @Override
+        @Nullable Object get(int row) {
+            return isNull(row) ? null : values.get(row);
+        }
+
+        @Override
+        void trim() {
+        }
+    }
+
+    private static final class ObjectStorage extends ColumnStorage {
+
+        private Object[] values = new Object[INITIAL_CAPACITY];
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            add(resultSet.getObject(column));
+        }
+
+        @Override
+        void add(@Nullable Object value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, grow(size));
+            if (value == null)
+                nulls.set(size);
+            values[size++] = value;
+        }
+
+        @Override
+        @Nullable Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package org.dalesbred.result;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A compact map with primitive {@code int} keys, using open addressing with linear probing. Keys are stored
+ * in a primitive array, so each entry costs only the key and the reference to the value instead of an entry
+ * object and a boxed key.
+ *
+ * <p>Unlike {@link LinkedHashMap}, the map does not retain the insertion order. The map supports removal of
+ * entries through {@link #remove(int)}, but not through its iterators.
+ */
+public final class IntKeyMap<V> extends AbstractMap<Integer, V> {
+
+    // IntKeyMap and LongKeyMap are kept as separate copies of the same code that differ only in the type of
+    // the keys and the hash function, like the primitive collections of libraries that generate a class
+    // for each key type. Sharing the probing through a common base class would either box the keys or
+    // add a virtual call to each key access of the probe loops. Changes must be made to both classes.
+
+    private static final int MIN_CAPACITY = 16;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /** Keys of the entries, {@code 0} marks a free slot */
+    private int[] keys;
+
+    private @Nullable Object[] values;
+
+    private int mask;
+
+    private int size;
+
+    /** Since {@code 0} marks free slots, the entry with zero key is stored separately */
+    private boolean hasZeroKey;
+
+    private @Nullable V zeroValue;
+
+    public IntKeyMap() {
+        this(0);
+    }
+
+    /**
+     * Creates a map that can hold given amount of entries without resizing.
+     */
+    public IntKeyMap(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("negative expected size: " + expectedSize);
+
+        allocate(capacityFor(expectedSize));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : slotOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer k && containsKey(k.intValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(int key) {
+        if (key == 0)
+            return zeroValue;
+
+        int slot = slotOf(key);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    @Override
+    public @Nullable V get(Object key) {
+        return key instanceof Integer k ? get(k.intValue()) : null;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        if (!(key instanceof Integer k))
+            return defaultValue;
+
+        return containsKey(k.intValue()) ? get(k.intValue()) : defaultValue;
+    }
+
+    /**
+     * Associates given value with given key, returning the previous value of the key.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V put(int key, @Nullable V value) {
+        if (key == 0) {
+            V old = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return old;
+        }
+
+        int slot = indexOf(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                V old = (V) values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size >= maxSize() && keys.length == MAX_CAPACITY)
+            throw new IllegalStateException("IntKeyMap can't hold more than " + maxSize() + " entries");
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > maxSize())
+            resize(keys.length << 1);
+        return null;
+    }
+
+    @Override
+    public @Nullable V put(@NotNull Integer key, @Nullable V value) {
+        return put(key.intValue(), value);
+    }
+
+    /**
+     * Removes the entry of given key, returning its value.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V remove(int key) {
+        if (key == 0) {
+            V old = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+            }
+            return old;
+        }
+
+        int slot = slotOf(key);
+        if (slot < 0)
+            return null;
+
+        V old = (V) values[slot];
+        size--;
+
+        // Shift the following entries of the probe sequence back so that they remain reachable
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (keys[next] != 0) {
+            int home = indexOf(keys[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = 0;
+        values[free] = null;
+        return old;
+    }
+
+    @Override
+    public @Nullable V remove(Object key) {
+        return key instanceof Integer k ? remove(k.intValue()) : null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    @Override
+    public @NotNull Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<Entry<Integer, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int slotOf(int key) {
+        int slot = indexOf(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int indexOf(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int maxSize() {
+        return keys.length - (keys.length >>> 2);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private void resize(int capacity) {
+        if (capacity > MAX_CAPACITY)
+            throw new IllegalStateException("map is too large");
+
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int slot = indexOf(key);
+                while (keys[slot] != 0)
+                    slot = (slot + 1) & mask;
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long minCapacity = (long) Math.ceil(expectedSize / 0.75);
+        if (minCapacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("expected size too large: " + expectedSize);
+
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) minCapacity - 1) << 1);
+    }
+
+    private final class EntryIterator implements Iterator<Entry<Integer, V>> {
+
+        private int slot = hasZeroKey ? -1 : nextSlot(0);
+
+        @Override
+        public boolean hasNext() {
+            return slot < keys.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public @NotNull Entry<Integer, V> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            Entry<Integer, V> entry = slot == -1
+                ? new SimpleImmutableEntry<>(0, zeroValue)
+                : new SimpleImmutableEntry<>(keys[slot], (V) values[slot]);
+            slot = nextSlot(slot + 1);
+            return entry;
+        }
+
+        private int nextSlot(int start) {
+            int i = start;
+            while (i < keys.length && keys[i] == 0)
+                i++;
+            return i;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.dalesbred.result;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Determines how SQL nulls are handled when reading results into primitive arrays.
+ */
+public final class NullPolicy {
+
+    /**
+     * Throw {@link UnexpectedResultException} when a null is encountered.
+     */
+    public static final @NotNull NullPolicy FAIL = new NullPolicy(null);
+
+    /**
+     * Leave the rows containing nulls out of the result.
+     */
+    public static final @NotNull NullPolicy SKIP = new NullPolicy(null);
+
+    private final @Nullable Number replacement;
+
+    private NullPolicy(@Nullable Number replacement) {
+        this.replacement = replacement;
+    }
+
+    /**
+     * Replace nulls with given value. The value is converted to the primitive type of the result
+     * using the standard narrowing conversions of {@link Number}.
+     */
+    public static @NotNull NullPolicy replaceWith(@NotNull Number value) {
+        return new NullPolicy(requireNonNull(value));
+    }
+
+    public boolean isSkip() {
+        return this == SKIP;
+    }
+
+    /**
+     * Returns the value that nulls are replaced with, or null if nulls are not replaced.
+     */
+    public @Nullable Number getReplacement() {
+        return replacement;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        if (this == FAIL)
+            return "NullPolicy.FAIL";
+        else if (this == SKIP)
+            return "NullPolicy.SKIP";
+        else
+            return "NullPolicy.replaceWith(" + replacement + ')';
+    }
+}
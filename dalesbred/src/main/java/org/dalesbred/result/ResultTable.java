@@ -2,12 +2,13 @@ package org.dalesbred.result;
 
 import org.dalesbred.internal.utils.TypeUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
 
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
@@ -16,16 +17,42 @@ import static org.dalesbred.internal.utils.CollectionUtils.mapToList;
 /**
  * Represents the results of the query along with its metadata. Basically a detached
  * version of {@link java.sql.ResultSet}.
+ *
+ * <p>A table is stored either by rows or, if created with {@link #columnarBuilder(List)}, by columns. Columnar
+ * tables store columns of primitive types in primitive arrays, and their rows are views created on demand.
+ *
+ * <p>Tables created with {@link #spillingBuilder(List, long)} move the rows exceeding their memory budget into
+ * a temporary file, from which they are read on demand. Such tables should be closed when they are no longer
+ * needed to release the file. Closing other tables has no effect.
  */
-public final class ResultTable implements Iterable<ResultTable.ResultRow> {
+public final class ResultTable implements Iterable<ResultTable.ResultRow>, AutoCloseable {
 
     private final @NotNull List<ColumnMetadata> columns;
 
     private final @NotNull List<ResultRow> rows;
 
-    private ResultTable(@NotNull List<ColumnMetadata> columns, @NotNull List<ResultRow> rows) {
+    private final @NotNull ColumnIndices indices;
+
+    /** The values by column if this table is columnar, otherwise null */
+    private final @Nullable ColumnStorage[] storage;
+
+    /** The rows that did not fit in memory, if any */
+    private final @Nullable RowSpillFile spill;
+
+    private ResultTable(@NotNull List<ColumnMetadata> columns, @NotNull List<ResultRow> rows, @Nullable RowSpillFile spill, @NotNull ColumnIndices indices) {
+        this.columns = unmodifiableList(columns);
+        this.rows = spill != null ? new SpilledRows(rows, spill, columns.size(), indices) : unmodifiableList(rows);
+        this.indices = indices;
+        this.storage = null;
+        this.spill = spill;
+    }
+
+    private ResultTable(@NotNull List<ColumnMetadata> columns, @NotNull ColumnStorage[] storage, int rowCount, @NotNull ColumnIndices indices) {
         this.columns = unmodifiableList(columns);
-        this.rows = unmodifiableList(rows);
+        this.rows = new ColumnarRows(storage, rowCount, indices);
+        this.indices = indices;
+        this.storage = storage;
+        this.spill = null;
     }
 
     public int getRowCount() {
@@ -36,10 +63,37 @@ public final class ResultTable implements Iterable<ResultTable.ResultRow> {
         return columns.size();
     }
 
+    /**
+     * Returns true if this table stores its values by column.
+     */
+    public boolean isColumnar() {
+        return storage != null;
+    }
+
+    /**
+     * Returns true if some rows of this table have been moved to a temporary file.
+     */
+    public boolean isSpilled() {
+        return spill != null;
+    }
+
+    /**
+     * Releases the temporary file holding the rows that did not fit in memory. The rows of the file
+     * can't be accessed after closing. Has no effect if the table has not been spilled.
+     */
+    @Override
+    public void close() {
+        if (spill != null)
+            spill.close();
+    }
+
     /**
      * Returns the value of given column of given row. Both indices are zero-based.
      */
     public Object get(int row, int column) {
+        if (storage != null)
+            return storage[column].get(Objects.checkIndex(row, rows.size()));
+
         return rows.get(row).get(column);
     }
 
@@ -47,7 +101,87 @@ public final class ResultTable implements Iterable<ResultTable.ResultRow> {
      * Returns the value of given named column of given row.
      */
     public Object get(int row, @NotNull String column) {
-        return rows.get(row).get(column);
+        return get(row, indices.columnIndexForName(column));
+    }
+
+    /**
+     * Returns true if the value of given column of given row is null. Both indices are zero-based.
+     */
+    public boolean isNull(int row, int column) {
+        if (storage != null)
+            return storage[column].isNull(Objects.checkIndex(row, rows.size()));
+
+        return rows.get(row).get(column) == null;
+    }
+
+    /**
+     * Returns the values of given column as ints.
+     *
+     * @throws UnexpectedResultException if the column contains nulls
+     */
+    public @NotNull int[] getIntColumn(int column) {
+        int[] result = new int[rows.size()];
+        for (int row = 0; row < result.length; row++)
+            result[row] = storage != null ? storage[column].getInt(row) : numberAt(row, column).intValue();
+        return result;
+    }
+
+    /**
+     * Returns the values of given named column as ints.
+     *
+     * @throws UnexpectedResultException if the column contains nulls
+     */
+    public @NotNull int[] getIntColumn(@NotNull String column) {
+        return getIntColumn(indices.columnIndexForName(column));
+    }
+
+    /**
+     * Returns the values of given column as longs.
+     *
+     * @throws UnexpectedResultException if the column contains nulls
+     */
+    public @NotNull long[] getLongColumn(int column) {
+        long[] result = new long[rows.size()];
+        for (int row = 0; row < result.length; row++)
+            result[row] = storage != null ? storage[column].getLong(row) : numberAt(row, column).longValue();
+        return result;
+    }
+
+    /**
+     * Returns the values of given named column as longs.
+     *
+     * @throws UnexpectedResultException if the column contains nulls
+     */
+    public @NotNull long[] getLongColumn(@NotNull String column) {
+        return getLongColumn(indices.columnIndexForName(column));
+    }
+
+    /**
+     * Returns the values of given column as doubles.
+     *
+     * @throws UnexpectedResultException if the column contains nulls
+     */
+    public @NotNull double[] getDoubleColumn(int column) {
+        double[] result = new double[rows.size()];
+        for (int row = 0; row < result.length; row++)
+            result[row] = storage != null ? storage[column].getDouble(row) : numberAt(row, column).doubleValue();
+        return result;
+    }
+
+    /**
+     * Returns the values of given named column as doubles.
+     *
+     * @throws UnexpectedResultException if the column contains nulls
+     */
+    public @NotNull double[] getDoubleColumn(@NotNull String column) {
+        return getDoubleColumn(indices.columnIndexForName(column));
+    }
+
+    private @NotNull Number numberAt(int row, int column) {
+        Object value = rows.get(row).get(column);
+        if (value == null)
+            throw new UnexpectedResultException("Expected primitive value, but got null on row " + row);
+        return (Number) value;
     }
 
     public @NotNull List<ResultRow> getRows() {
@@ -114,7 +248,7 @@ public final class ResultTable implements Iterable<ResultTable.ResultRow> {
         private final ColumnIndices indices;
 
         private ResultRow(@NotNull List<Object> values, @NotNull ColumnIndices indices) {
-            this.values = unmodifiableList(values);
+            this.values = values;
             this.indices = requireNonNull(indices);
         }
 
@@ -222,6 +356,25 @@ public final class ResultTable implements Iterable<ResultTable.ResultRow> {
         return new Builder(columns);
     }
 
+    /**
+     * Returns a builder for building a columnar ResultTable for given columns. The values of columns with
+     * types {@code Integer}, {@code Long}, {@code Double} and {@code Boolean} are stored in primitive arrays.
+     */
+    public static @NotNull Builder columnarBuilder(@NotNull List<ColumnMetadata> columns) {
+        return new Builder(columns, true, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a builder for building a ResultTable that keeps its rows in memory until their estimated size
+     * exceeds given amount of bytes, and moves the rest of the rows to a temporary file.
+     */
+    public static @NotNull Builder spillingBuilder(@NotNull List<ColumnMetadata> columns, long memoryBudget) {
+        if (memoryBudget < 0)
+            throw new IllegalArgumentException("negative memory budget: " + memoryBudget);
+
+        return new Builder(columns, false, memoryBudget);
+    }
+
     /**
      * A builder for building ResultTables.
      */
@@ -230,21 +383,180 @@ public final class ResultTable implements Iterable<ResultTable.ResultRow> {
         private final List<ColumnMetadata> columns;
         private final @NotNull ColumnIndices indices;
         private final List<ResultRow> rows = new ArrayList<>();
+        private final @Nullable ColumnStorage[] storage;
+        private int rowCount;
+        private final long memoryBudget;
+        private long estimatedSize;
+        private @Nullable RowSpillFile spill;
 
         public Builder(@NotNull List<ColumnMetadata> columns) {
+            this(columns, false, Long.MAX_VALUE);
+        }
+
+        private Builder(@NotNull List<ColumnMetadata> columns, boolean columnar, long memoryBudget) {
             this.columns = requireNonNull(columns);
             this.indices = new ColumnIndices(columns);
+            this.memoryBudget = memoryBudget;
+
+            if (columnar) {
+                storage = new ColumnStorage[columns.size()];
+                for (int i = 0; i < storage.length; i++)
+                    storage[i] = ColumnStorage.forType(columns.get(i).getRawType());
+            } else {
+                storage = null;
+            }
         }
 
         public void addRow(@NotNull List<Object> row) {
             if (row.size() != columns.size())
                 throw new IllegalArgumentException("expected " + columns + " size values, but got " + row.size());
 
-            rows.add(new ResultRow(row, indices));
+            if (storage != null) {
+                // Check all values first so that a rejected row doesn't leave the columns of different lengths
+                for (int i = 0; i < storage.length; i++)
+                    storage[i].checkValue(row.get(i));
+                for (int i = 0; i < storage.length; i++)
+                    storage[i].add(row.get(i));
+            } else if (spill != null) {
+                spill.addRow(row);
+            } else {
+                rows.add(new ResultRow(unmodifiableList(row), indices));
+
+                estimatedSize += estimateSize(row);
+                if (estimatedSize > memoryBudget)
+                    spill = new RowSpillFile();
+            }
+            rowCount++;
+        }
+
+        /**
+         * Adds the current row of given result set, which must have the columns of this builder.
+         */
+        public void addRow(@NotNull ResultSet resultSet) throws SQLException {
+            int columnCount = columns.size();
+
+            if (storage != null) {
+                for (int i = 0; i < columnCount; i++)
+                    storage[i].read(resultSet, i + 1);
+                rowCount++;
+            } else {
+                Object[] row = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++)
+                    row[i] = resultSet.getObject(i + 1);
+                addRow(Arrays.asList(row));
+            }
         }
 
         public @NotNull ResultTable build() {
-            return new ResultTable(columns, rows);
+            if (storage != null) {
+                for (ColumnStorage column : storage)
+                    column.trim();
+                return new ResultTable(columns, storage, rowCount, indices);
+            }
+
+            if (spill != null)
+                spill.finish();
+
+            return new ResultTable(columns, rows, spill, indices);
+        }
+
+        /**
+         * Discards the rows added so far, releasing the temporary file if the rows have been spilled to one.
+         * Used when building the table fails.
+         */
+        public void discard() {
+            rows.clear();
+            if (spill != null)
+                spill.close();
+        }
+
+        /**
+         * Returns a rough estimate of the heap used by given row and its values.
+         */
+        private static long estimateSize(@NotNull List<Object> row) {
+            long size = 64 + 4L * row.size();
+            for (Object value : row) {
+                if (value instanceof String s)
+                    size += 40 + s.length();
+                else if (value instanceof byte[] bytes)
+                    size += 16 + bytes.length;
+                else if (value instanceof Integer || value instanceof Boolean)
+                    size += 16;
+                else if (value instanceof Long || value instanceof Double)
+                    size += 24;
+                else if (value != null)
+                    size += 48;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Rows of a table that have been partly spilled to a temporary file. The spilled rows are read on demand.
+     */
+    private static final class SpilledRows extends AbstractList<ResultRow> implements RandomAccess {
+
+        private final @NotNull List<ResultRow> heapRows;
+        private final @NotNull RowSpillFile spill;
+        private final int columnCount;
+        private final @NotNull ColumnIndices indices;
+
+        SpilledRows(@NotNull List<ResultRow> heapRows, @NotNull RowSpillFile spill, int columnCount, @NotNull ColumnIndices indices) {
+            this.heapRows = heapRows;
+            this.spill = spill;
+            this.columnCount = columnCount;
+            this.indices = indices;
+        }
+
+        @Override
+        public @NotNull ResultRow get(int index) {
+            Objects.checkIndex(index, size());
+            if (index < heapRows.size())
+                return heapRows.get(index);
+
+            return new ResultRow(unmodifiableList(spill.readRow(index - heapRows.size(), columnCount)), indices);
+        }
+
+        @Override
+        public int size() {
+            return heapRows.size() + spill.getRowCount();
+        }
+    }
+
+    /**
+     * Rows of a columnar table, created on demand as views to the columns.
+     */
+    private static final class ColumnarRows extends AbstractList<ResultRow> implements RandomAccess {
+
+        private final @NotNull ColumnStorage[] storage;
+        private final int size;
+        private final @NotNull ColumnIndices indices;
+
+        ColumnarRows(@NotNull ColumnStorage[] storage, int size, @NotNull ColumnIndices indices) {
+            this.storage = storage;
+            this.size = size;
+            this.indices = indices;
+        }
+
+        @Override
+        public @NotNull ResultRow get(int index) {
+            int row = Objects.checkIndex(index, size);
+            return new ResultRow(new AbstractList<>() {
+                @Override
+                public Object get(int column) {
+                    return storage[column].get(row);
+                }
+
+                @Override
+                public int size() {
+                    return storage.length;
+                }
+            }, indices);
+        }
+
+        @Override
+        public int size() {
+            return size;
         }
     }
 
@@ -253,23 +565,41 @@ public final class ResultTable implements Iterable<ResultTable.ResultRow> {
      */
     private static class ColumnIndices {
 
-        // Just store the names as list. Since the amount of columns is usually small,
-        // it's probably faster than HashMap and consumes a lot less memory.
         private final @NotNull String[] names;
 
+        /** Indices by exact name. Other spellings fall back to case-insensitive search. */
+        private final @NotNull Map<String, Integer> indicesByName;
+
         ColumnIndices(@NotNull List<ColumnMetadata> columns) {
             names = new String[columns.size()];
+            indicesByName = new HashMap<>();
 
             for (int i = 0; i < names.length; i++)
                 names[i] = columns.get(i).getName();
+
+            // Only map the names that the case-insensitive search would resolve to the same column
+            for (int i = 0; i < names.length; i++)
+                if (searchIgnoringCase(names[i]) == i)
+                    indicesByName.put(names[i], i);
         }
 
         int columnIndexForName(@NotNull String name) {
+            Integer index = indicesByName.get(name);
+            if (index != null)
+                return index;
+
+            int i = searchIgnoringCase(name);
+            if (i != -1)
+                return i;
+
+            throw new IllegalArgumentException("unknown column name '" + name + '\'');
+        }
+
+        private int searchIgnoringCase(@NotNull String name) {
             for (int i = 0; i < names.length; i++)
                 if (name.equalsIgnoreCase(names[i]))
                     return i;
-
-            throw new IllegalArgumentException("unknown column name '" + name + '\'');
+            return -1;
         }
     }
 }
@@ -0,0 +1,17 @@
+package org.dalesbred.result;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.SQLException;
+
+/**
+ * Processes rows of a result through a {@link RowView} without instantiating an object for each row.
+ */
+@FunctionalInterface
+public interface RowCallback {
+
+    /**
+     * Processes the current row. The view is reused for the following rows, so it must not be retained.
+     */
+    void processRow(@NotNull RowView row) throws SQLException;
+}
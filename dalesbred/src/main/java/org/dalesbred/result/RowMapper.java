@@ -4,9 +4,12 @@ import org.jetbrains.annotations.NotNull;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
 
 /**
  * Maps a single row of result-set into an object.
@@ -70,4 +73,99 @@ public interface RowMapper<T> {
             return result;
         };
     }
+
+    /**
+     * Creates a {@link ResultSetProcessor} that applies this row-mapper to every row and passes the results
+     * to given consumer in chunks of at most given size. The same list is reused for all chunks, so the consumer
+     * must copy it if it needs the results after returning. The processor returns the total amount of rows.
+     */
+    default @NotNull ResultSetProcessor<Long> chunked(int chunkSize, @NotNull Consumer<? super List<T>> consumer) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("chunk size must be positive, but was " + chunkSize);
+
+        return resultSet -> {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            long rows = 0;
+
+            while (resultSet.next()) {
+                chunk.add(mapRow(resultSet));
+                rows++;
+
+                if (chunk.size() == chunkSize) {
+                    consumer.accept(chunk);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty())
+                consumer.accept(chunk);
+
+            return rows;
+        };
+    }
+
+    /**
+     * Creates a {@link ResultSetProcessor} that groups the rows by the keys produced by given key-mapper and
+     * reduces the rows of each group with given collector. The groups are kept in a hash map, so the rows
+     * don't need to be ordered by key. The resulting map retains the order in which the keys were first seen.
+     */
+    default @NotNull <K, A, D> ResultSetProcessor<Map<K, D>> groupingBy(@NotNull RowMapper<? extends K> keyMapper,
+                                                                         @NotNull Collector<? super T, A, D> downstream) {
+        return resultSet -> {
+            Supplier<A> supplier = downstream.supplier();
+            BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+            Function<K, A> newContainer = key -> supplier.get();
+
+            Map<K, A> groups = new LinkedHashMap<>();
+            while (resultSet.next()) {
+                A container = groups.computeIfAbsent(keyMapper.mapRow(resultSet), newContainer);
+                accumulator.accept(container, mapRow(resultSet));
+            }
+
+            Function<A, D> finisher = downstream.finisher();
+            Map<K, D> result = LinkedHashMap.newLinkedHashMap(groups.size());
+            groups.forEach((key, container) -> result.put(key, finisher.apply(container)));
+            return result;
+        };
+    }
+
+    /**
+     * Creates a {@link ResultSetProcessor} that groups the rows by the keys produced by given key-mapper, assuming
+     * that the rows are ordered by the key. Each group is reduced with given collector and passed to given consumer
+     * as soon as the key changes, so only a single group is held in memory at a time. If the rows are not ordered,
+     * the same key is reported multiple times. The processor returns the amount of groups.
+     */
+    default @NotNull <K, A, D> ResultSetProcessor<Long> groupingSorted(@NotNull RowMapper<? extends K> keyMapper,
+                                                                        @NotNull Collector<? super T, A, D> downstream,
+                                                                        @NotNull BiConsumer<? super K, ? super D> consumer) {
+        return resultSet -> {
+            Supplier<A> supplier = downstream.supplier();
+            BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+            Function<A, D> finisher = downstream.finisher();
+
+            long groups = 0;
+            K currentKey = null;
+            A container = null;
+
+            while (resultSet.next()) {
+                K key = keyMapper.mapRow(resultSet);
+
+                if (container == null || !Objects.equals(key, currentKey)) {
+                    if (container != null)
+                        consumer.accept(currentKey, finisher.apply(container));
+
+                    currentKey = key;
+                    container = supplier.get();
+                    groups++;
+                }
+
+                accumulator.accept(container, mapRow(resultSet));
+            }
+
+            if (container != null)
+                consumer.accept(currentKey, finisher.apply(container));
+
+            return groups;
+        };
+    }
 }
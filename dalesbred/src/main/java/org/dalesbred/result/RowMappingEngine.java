@@ -0,0 +1,23 @@
+package org.dalesbred.result;
+
+/**
+ * Selects how Dalesbred maps rows of results into instances of classes.
+ *
+ * @see org.dalesbred.Database#setRowMappingEngine(RowMappingEngine)
+ */
+public enum RowMappingEngine {
+
+    /**
+     * Reads all columns of the row into an argument array and passes the array through the
+     * resolved conversions to the constructor and property accessors reflectively.
+     */
+    REFLECTION,
+
+    /**
+     * Compiles the resolved constructor, conversions and property accessors of each combination of
+     * target class and result columns into a single method handle that reads the columns straight
+     * from the {@link java.sql.ResultSet}. This lets the JIT inline the whole mapping. Falls back to
+     * {@link #REFLECTION} for shapes that can't be compiled.
+     */
+    COMPILED
+}
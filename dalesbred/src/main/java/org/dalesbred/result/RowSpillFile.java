@@ -0,0 +1,217 @@
+package org.dalesbred.result;
+
+import org.dalesbred.DatabaseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Temporary file holding rows of a {@link ResultTable} that did not fit in its memory budget.
+ *
+ * <p>Rows are encoded into a compact binary format and read back on demand. Common value types
+ * have their own encodings, other serializable values are serialized, and the rest are retained
+ * on the heap. The file is deleted when it is closed.
+ */
+final class RowSpillFile implements Closeable {
+
+    private static final byte NULL = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte STRING = 5;
+    private static final byte BIG_DECIMAL = 6;
+    private static final byte BYTES = 7;
+    private static final byte SERIALIZED = 8;
+    private static final byte RETAINED = 9;
+
+    private final @NotNull FileChannel channel;
+
+    private final @NotNull OutputStream fileOut;
+
+    /** Buffer for encoding a single row */
+    private final @NotNull ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream();
+
+    private final @NotNull DataOutputStream out = new DataOutputStream(rowBuffer);
+
+    /** Offsets of the rows in the file, with an extra offset marking the end of the last row */
+    private long[] offsets = new long[64];
+
+    private int rowCount;
+
+    /** Values that can't be encoded */
+    private final @NotNull List<Object> retained = new ArrayList<>();
+
+    private volatile boolean closed;
+
+    RowSpillFile() {
+        try {
+            Path path = Files.createTempFile("dalesbred-", ".rows");
+            this.channel = FileChannel.open(path, READ, WRITE, DELETE_ON_CLOSE);
+            this.fileOut = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+        } catch (IOException e) {
+            throw new DatabaseException("failed to create temporary file for result rows", e);
+        }
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    void addRow(@NotNull List<?> row) {
+        try {
+            rowBuffer.reset();
+            for (Object value : row)
+                writeValue(value);
+            rowBuffer.writeTo(fileOut);
+
+            if (rowCount + 1 == offsets.length)
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            offsets[rowCount + 1] = offsets[rowCount] + rowBuffer.size();
+            rowCount++;
+        } catch (IOException e) {
+            throw new DatabaseException("failed to write result rows to temporary file", e);
+        }
+    }
+
+    /**
+     * Flushes the written rows to the file. Must be called before reading rows.
+     */
+    void finish() {
+        try {
+            fileOut.flush();
+        } catch (IOException e) {
+            throw new DatabaseException("failed to write result rows to temporary file", e);
+        }
+    }
+
+    @NotNull List<Object> readRow(int row, int columnCount) {
+        if (closed)
+            throw new IllegalStateException("result table has been closed");
+
+        long start = offsets[row];
+        ByteBuffer buffer = ByteBuffer.allocate((int) (offsets[row + 1] - start));
+
+        try {
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, start + buffer.position());
+                if (n < 0)
+                    throw new EOFException("unexpected end of temporary file");
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+            Object[] values = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++)
+                values[i] = readValue(in);
+            return Arrays.asList(values);
+
+        } catch (IOException | ClassNotFoundException e) {
+            throw new DatabaseException("failed to read result rows from temporary file", e);
+        }
+    }
+
+    private void writeValue(@Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            writeBytes(s.getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof BigDecimal d) {
+            out.writeByte(BIG_DECIMAL);
+            out.writeInt(d.scale());
+            writeBytes(d.unscaledValue().toByteArray());
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(BYTES);
+            writeBytes(bytes);
+        } else if (value instanceof Serializable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                objectOut.writeObject(value);
+            }
+            out.writeByte(SERIALIZED);
+            writeBytes(bytes.toByteArray());
+        } else {
+            out.writeByte(RETAINED);
+            out.writeInt(retained.size());
+            retained.add(value);
+        }
+    }
+
+    private void writeBytes(byte @NotNull [] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private @Nullable Object readValue(@NotNull DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            case STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case BIG_DECIMAL:
+                int scale = in.readInt();
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case BYTES:
+                return readBytes(in);
+            case SERIALIZED:
+                try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    return objectIn.readObject();
+                }
+            case RETAINED:
+                return retained.get(in.readInt());
+            default:
+                throw new IOException("invalid value tag " + tag);
+        }
+    }
+
+    private static byte @NotNull [] readBytes(@NotNull DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new DatabaseException("failed to close temporary file", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.dalesbred.result;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+
+/**
+ * A view to the current row of a result. The same view is reused for all rows of the result, so it
+ * must not be retained after the callback processing the row returns.
+ *
+ * <p>Columns are identified either by their zero-based index or by their label. Primitive accessors
+ * throw {@link UnexpectedResultException} when the column is null; use {@link #isNull(int)} or the
+ * object accessors for nullable columns.
+ *
+ * @see RowCallback
+ */
+public interface RowView {
+
+    int getColumnCount();
+
+    /**
+     * Returns the label of given column.
+     */
+    @NotNull String getColumnName(int column);
+
+    /**
+     * Returns the zero-based index of the column with given label.
+     *
+     * @throws IllegalArgumentException if there's no such column
+     */
+    int indexOf(@NotNull String column);
+
+    boolean isNull(int column) throws SQLException;
+
+    int getInt(int column) throws SQLException;
+
+    long getLong(int column) throws SQLException;
+
+    double getDouble(int column) throws SQLException;
+
+    boolean getBoolean(int column) throws SQLException;
+
+    @Nullable String getString(int column) throws SQLException;
+
+    /**
+     * Returns the raw value of given column, as returned by the driver.
+     */
+    @Nullable Object getObject(int column) throws SQLException;
+
+    /**
+     * Returns the value of given column converted to given type with the registered conversions.
+     */
+    <T> @Nullable T get(int column, @NotNull Class<T> type) throws SQLException;
+
+    default boolean isNull(@NotNull String column) throws SQLException {
+        return isNull(indexOf(column));
+    }
+
+    default int getInt(@NotNull String column) throws SQLException {
+        return getInt(indexOf(column));
+    }
+
+    default long getLong(@NotNull String column) throws SQLException {
+        return getLong(indexOf(column));
+    }
+
+    default double getDouble(@NotNull String column) throws SQLException {
+        return getDouble(indexOf(column));
+    }
+
+    default boolean getBoolean(@NotNull String column) throws SQLException {
+        return getBoolean(indexOf(column));
+    }
+
+    default @Nullable String getString(@NotNull String column) throws SQLException {
+        return getString(indexOf(column));
+    }
+
+    default @Nullable Object getObject(@NotNull String column) throws SQLException {
+        return getObject(indexOf(column));
+    }
+
+    default <T> @Nullable T get(@NotNull String column, @NotNull Class<T> type) throws SQLException {
+        return get(indexOf(column), type);
+    }
+}
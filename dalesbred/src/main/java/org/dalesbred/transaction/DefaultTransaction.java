@@ -1,8 +1,10 @@
 package org.dalesbred.transaction;
 
 import org.dalesbred.dialect.Dialect;
+import org.dalesbred.internal.jdbc.PreparedStatementCache;
 import org.dalesbred.internal.utils.Throwables;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,16 +18,23 @@ final class DefaultTransaction {
 
     private final @NotNull Connection connection;
 
+    private final @Nullable PreparedStatementCache statementCache;
+
     private static final @NotNull Logger log = LoggerFactory.getLogger(DefaultTransaction.class);
 
     DefaultTransaction(@NotNull Connection connection) {
+        this(connection, null);
+    }
+
+    DefaultTransaction(@NotNull Connection connection, @Nullable PreparedStatementCache statementCache) {
         this.connection = requireNonNull(connection);
+        this.statementCache = statementCache;
     }
 
     <T> T execute(@NotNull TransactionCallback<T> callback, @NotNull Dialect dialect) {
         try {
             try {
-                TransactionContext ctx = new DefaultTransactionContext(connection);
+                TransactionContext ctx = new DefaultTransactionContext(connection, statementCache);
                 T value = callback.execute(ctx);
                 if (ctx.isRollbackOnly())
                     connection.rollback();
@@ -47,7 +56,7 @@ final class DefaultTransaction {
         try {
             Savepoint savepoint = connection.setSavepoint();
             try {
-                TransactionContext ctx = new DefaultTransactionContext(connection);
+                TransactionContext ctx = new DefaultTransactionContext(connection, statementCache);
                 T value = callback.execute(ctx);
                 if (ctx.isRollbackOnly())
                     connection.rollback(savepoint);
@@ -67,7 +76,7 @@ final class DefaultTransaction {
 
     <T> T join(@NotNull TransactionCallback<T> callback, @NotNull Dialect dialect) {
         try {
-            return callback.execute(new DefaultTransactionContext(connection));
+            return callback.execute(new DefaultTransactionContext(connection, statementCache));
         } catch (SQLException e) {
             throw dialect.convertException(e);
         }
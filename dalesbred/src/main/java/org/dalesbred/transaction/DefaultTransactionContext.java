@@ -1,18 +1,24 @@
 package org.dalesbred.transaction;
 
+import org.dalesbred.internal.jdbc.PreparedStatementCache;
+import org.dalesbred.internal.jdbc.StatementCacheOwner;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 
 import static java.util.Objects.requireNonNull;
 
-final class DefaultTransactionContext implements TransactionContext {
+final class DefaultTransactionContext implements TransactionContext, StatementCacheOwner {
 
     private final @NotNull Connection connection;
+    private final @Nullable PreparedStatementCache statementCache;
+
     private boolean rollbackOnly = false;
 
-    DefaultTransactionContext(@NotNull Connection connection) {
+    DefaultTransactionContext(@NotNull Connection connection, @Nullable PreparedStatementCache statementCache) {
         this.connection = requireNonNull(connection);
+        this.statementCache = statementCache;
     }
 
     /**
@@ -35,4 +41,9 @@ final class DefaultTransactionContext implements TransactionContext {
     public boolean isRollbackOnly() {
         return rollbackOnly;
     }
+
+    @Override
+    public @Nullable PreparedStatementCache getStatementCache() {
+        return statementCache;
+    }
 }
@@ -1,7 +1,9 @@
 package org.dalesbred.transaction;
 
 import org.dalesbred.connection.ConnectionProvider;
+import org.dalesbred.CacheStatistics;
 import org.dalesbred.dialect.Dialect;
+import org.dalesbred.internal.jdbc.ConnectionStatementCaches;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.Connection;
@@ -22,6 +24,8 @@ public final class DefaultTransactionManager extends AbstractTransactionManager
 
     private final @NotNull ConnectionProvider connectionProvider;
 
+    private final @NotNull ConnectionStatementCaches statementCaches = new ConnectionStatementCaches();
+
     public DefaultTransactionManager(@NotNull ConnectionProvider connectionProvider) {
         this.connectionProvider = requireNonNull(connectionProvider);
     }
@@ -32,7 +36,7 @@ public final class DefaultTransactionManager extends AbstractTransactionManager
                                        @NotNull Isolation isolation) {
         Connection connection = openConnection(isolation, dialect);
         try {
-            DefaultTransaction newTransaction = new DefaultTransaction(connection);
+            DefaultTransaction newTransaction = new DefaultTransaction(connection, statementCaches.cacheFor(connection));
             activeTransaction.set(newTransaction);
             return newTransaction.execute(callback, dialect);
         } finally {
@@ -58,6 +62,32 @@ public final class DefaultTransactionManager extends AbstractTransactionManager
         }
     }
 
+    /**
+     * Returns the maximum amount of prepared statements cached for each connection.
+     */
+    public int getStatementCacheSize() {
+        return statementCaches.getCapacity();
+    }
+
+    /**
+     * Sets the maximum amount of prepared statements cached for each connection, or zero to disable
+     * caching (the default). The cache of a connection is kept as long as the connection stays open,
+     * so when connections are reused by a pool, statements are reused across transactions. Statements
+     * are prepared through the connections handed out by the pool, so pools that close the statements
+     * of a connection when it is released limit the reuse to a single transaction. Changing the size
+     * closes the existing caches.
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        statementCaches.setCapacity(statementCacheSize);
+    }
+
+    /**
+     * Returns the combined statistics of the statement caches of all connections.
+     */
+    public @NotNull CacheStatistics getStatementCacheStatistics() {
+        return statementCaches.getStatistics();
+    }
+
     @Override
     protected @NotNull Optional<DefaultTransaction> getActiveTransaction() {
         return Optional.ofNullable(activeTransaction.get());
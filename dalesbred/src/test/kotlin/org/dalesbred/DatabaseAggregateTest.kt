@@ -0,0 +1,72 @@
+package org.dalesbred
+
+import org.dalesbred.result.AggregateMapping
+import org.dalesbred.result.UnexpectedResultException
+import org.dalesbred.testutils.DatabaseProvider.POSTGRESQL
+import org.dalesbred.testutils.DatabaseTest
+import org.dalesbred.testutils.transactionalTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+@DatabaseTest(POSTGRESQL)
+class DatabaseAggregateTest(private val db: Database) {
+
+    private val mapping = AggregateMapping.of(Order::class.java, "id")
+        .withChildren("line_", AggregateMapping.of(OrderLine::class.java, "id")) { order, line -> order.lines += line }
+
+    @Test
+    fun `assemble parents and children from join`() = transactionalTest(db) {
+        db.update("create temporary table orders (id int primary key, customer text)")
+        db.update("create temporary table order_line (id int primary key, order_id int, product text)")
+        db.update("insert into orders values (1, 'alice'), (2, 'bob')")
+        db.update("insert into order_line values (10, 1, 'apple'), (11, 1, 'pear')")
+
+        val orders = db.findAll(mapping, """
+            select o.id, o.customer, l.id as line_id, l.product as line_product
+              from orders o left join order_line l on l.order_id = o.id
+             order by o.id, l.id""")
+
+        assertEquals(listOf(1, 2), orders.map { it.id })
+        assertEquals(listOf(OrderLine(10, "apple"), OrderLine(11, "pear")), orders[0].lines)
+        assertEquals(emptyList(), orders[1].lines)
+    }
+
+    @Test
+    fun `missing key column`() = transactionalTest(db) {
+        assertFailsWith<UnexpectedResultException> {
+            db.findAll(mapping, "select 1 as id, 'alice' as customer, 'apple' as line_product")
+        }
+    }
+
+    @Test
+    fun `root column with prefix of child is rejected`() = transactionalTest(db) {
+        val countedMapping = AggregateMapping.of(CountedOrder::class.java, "id")
+            .withChildren("line_", AggregateMapping.of(OrderLine::class.java, "id")) { order, line -> order.lines += line }
+
+        assertFailsWith<UnexpectedResultException> {
+            db.findAll(countedMapping, "select 1 as id, 'alice' as customer, 2 as line_count, 10 as line_id, 'apple' as line_product")
+        }
+    }
+
+    @Test
+    fun `overlapping prefixes of children are rejected`() = transactionalTest(db) {
+        val overlappingMapping = mapping
+            .withChildren("line_extra_", AggregateMapping.of(OrderLine::class.java, "id")) { order, line -> order.lines += line }
+
+        assertFailsWith<UnexpectedResultException> {
+            db.findAll(overlappingMapping, "select 1 as id, 'alice' as customer, 10 as line_id, 'apple' as line_product")
+        }
+    }
+
+    class Order(val id: Int, val customer: String) {
+        val lines = mutableListOf<OrderLine>()
+    }
+
+    class CountedOrder(val id: Int, val customer: String) {
+        var lineCount = 0
+        val lines = mutableListOf<OrderLine>()
+    }
+
+    data class OrderLine(val id: Int, val product: String)
+}
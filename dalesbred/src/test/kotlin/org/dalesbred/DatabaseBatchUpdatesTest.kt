@@ -1,5 +1,6 @@
 package org.dalesbred
 
+import org.dalesbred.query.BatchSize
 import org.dalesbred.query.SqlQuery.query
 import org.dalesbred.result.ResultSetProcessor
 import org.dalesbred.testutils.DatabaseProvider.POSTGRESQL
@@ -8,6 +9,9 @@ import org.dalesbred.testutils.mapRows
 import org.dalesbred.testutils.transactionalTest
 import org.junit.jupiter.api.Assertions.assertArrayEquals
 import java.sql.ResultSet
+import java.time.Duration
+import java.util.stream.Stream
+import kotlin.streams.asStream
 import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.fail
@@ -27,6 +31,68 @@ class DatabaseBatchUpdatesTest(private val db: Database) {
         assertEquals(listOf("bar", "baz", "foo"), db.findAll(String::class.java, "select word from dictionary order by word"))
     }
 
+    @Test
+    fun `batch update from iterator`() = transactionalTest(db) {
+        db.update("drop table if exists dictionary")
+        db.update("create temporary table dictionary (word varchar(64) primary key)")
+
+        val batches = mutableListOf<Int>()
+        val data = (1..25).map { listOf("word$it") }
+        val result = db.updateBatch("insert into dictionary (word) values (?)", data.iterator(), BatchSize.fixed(10)) { batches += it.size }
+
+        assertEquals(25, result)
+        assertEquals(listOf(10, 10, 5), batches)
+        assertEquals(25, db.findUniqueInt("select count(*) from dictionary"))
+    }
+
+    @Test
+    fun `batch update from stream`() = transactionalTest(db) {
+        db.update("drop table if exists dictionary")
+        db.update("create temporary table dictionary (word varchar(64) primary key)")
+
+        val result = db.updateBatch("insert into dictionary (word) values (?)", Stream.of("foo", "bar", "baz").map { listOf(it) }, 2)
+
+        assertEquals(3, result)
+        assertEquals(listOf("bar", "baz", "foo"), db.findAll(String::class.java, "select word from dictionary order by word"))
+    }
+
+    @Test
+    fun `adaptive batch size stays within bounds`() {
+        val batchSize = BatchSize.adaptive(4, 2, 8, Duration.ofMillis(100))
+
+        assertEquals(8, batchSize.nextSize(4, Duration.ofMillis(1).toNanos()))
+        assertEquals(8, batchSize.nextSize(8, Duration.ofMillis(1).toNanos()))
+        assertEquals(4, batchSize.nextSize(4, Duration.ofMillis(75).toNanos()))
+        assertEquals(2, batchSize.nextSize(4, Duration.ofSeconds(1).toNanos()))
+        assertEquals(2, batchSize.nextSize(2, Duration.ofSeconds(1).toNanos()))
+    }
+
+    @Test
+    fun `named batch update from beans and maps`() = transactionalTest(db) {
+        db.update("drop table if exists person")
+        db.update("create temporary table person (id int primary key, name varchar(64))")
+
+        val result = db.updateNamedBatch("insert into person (id, name) values (:id, :name)",
+            listOf(Person(1, "Fred"), Person(2, "Barney"), mapOf("id" to 3, "name" to "Wilma")))
+
+        assertArrayEquals(intArrayOf(1, 1, 1), result)
+        assertEquals(listOf("Fred", "Barney", "Wilma"), db.findAll(String::class.java, "select name from person order by id"))
+    }
+
+    @Test
+    fun `named batch update from stream`() = transactionalTest(db) {
+        db.update("drop table if exists person")
+        db.update("create temporary table person (id int primary key, name varchar(64))")
+
+        val people = (1..7).asSequence().map { Person(it, "person$it") }.asStream()
+        val result = db.updateNamedBatch("insert into person (id, name) values (:id, :name)", people, BatchSize.fixed(3))
+
+        assertEquals(7, result)
+        assertEquals(7, db.findUniqueInt("select count(*) from person"))
+    }
+
+    class Person(val id: Int, val name: String)
+
     @Test
     fun `batch update with generated keys`() = transactionalTest(db) {
         db.update("drop table if exists my_table")
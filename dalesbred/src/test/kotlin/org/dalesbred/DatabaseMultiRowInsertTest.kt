@@ -0,0 +1,78 @@
+package org.dalesbred
+
+import org.dalesbred.query.BatchSize
+import org.dalesbred.testutils.DatabaseProvider.HSQL
+import org.dalesbred.testutils.DatabaseTest
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.BeforeEach
+import java.time.Duration
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+@DatabaseTest(HSQL)
+class DatabaseMultiRowInsertTest(private val db: Database) {
+
+    @BeforeEach
+    fun createTable() {
+        db.update("drop table if exists multi_row_test")
+        db.update("create table multi_row_test (id int primary key, name varchar(64))")
+        db.isMultiRowInsertsEnabled = true
+    }
+
+    @Test
+    fun `multi-row inserts produce same update counts as plain batches`() {
+        val rows = (1..50).map { listOf(it, "name$it") }
+
+        val multiRowCounts = db.updateBatch("insert into multi_row_test (id, name) values (?, ?)", rows)
+
+        db.update("delete from multi_row_test")
+        db.isMultiRowInsertsEnabled = false
+        val plainCounts = db.updateBatch("insert into multi_row_test (id, name) values (?, ?)", rows)
+
+        assertArrayEquals(plainCounts, multiRowCounts)
+        assertEquals((1..50).toList(), db.findAll(Int::class.java, "select id from multi_row_test order by id"))
+    }
+
+    @Test
+    fun `multi-row inserts from iterator`() {
+        val batches = mutableListOf<Int>()
+        val rows = (1..10).map { listOf(it, "name$it") }.iterator()
+
+        val count = db.updateBatch("insert into multi_row_test (id, name) values (?, ?)", rows, BatchSize.fixed(4)) { batches += it.size }
+
+        assertEquals(10, count)
+        assertEquals(listOf(4, 4, 2), batches)
+        assertEquals("name7", db.findUnique(String::class.java, "select name from multi_row_test where id = 7"))
+    }
+
+    @Test
+    fun `adaptive batch sizes don't change the rows per statement`() {
+        val batches = mutableListOf<Int>()
+        val rows = (1..100).map { listOf(it, "name$it") }.iterator()
+
+        val count = db.updateBatch("insert into multi_row_test (id, name) values (?, ?)", rows,
+            BatchSize.adaptive(10, 1, 64, Duration.ofNanos(1))) { batches += it.size }
+
+        assertEquals(100, count)
+        assertEquals(List(12) { 8 } + 4, batches)
+    }
+
+    @Test
+    fun `named multi-row inserts`() {
+        val counts = db.updateNamedBatch("insert into multi_row_test (id, name) values (:id, :name)",
+            listOf(mapOf("id" to 1, "name" to "foo"), mapOf("id" to 2, "name" to null)))
+
+        assertArrayEquals(intArrayOf(1, 1), counts)
+        assertEquals(listOf("foo", null), db.findAll(String::class.java, "select name from multi_row_test order by id"))
+    }
+
+    @Test
+    fun `statements that can't be rewritten use plain batches`() {
+        db.updateBatch("insert into multi_row_test (id, name) values (?, ?)", listOf(listOf(1, "foo"), listOf(2, "bar")))
+
+        val counts = db.updateBatch("update multi_row_test set name = ? where id = ?", listOf(listOf("baz", 1), listOf("quux", 2)))
+
+        assertArrayEquals(intArrayOf(1, 1), counts)
+        assertEquals(listOf("baz", "quux"), db.findAll(String::class.java, "select name from multi_row_test order by id"))
+    }
+}
@@ -0,0 +1,75 @@
+package org.dalesbred
+
+import org.dalesbred.query.SqlQuery.query
+import org.dalesbred.testutils.DatabaseProvider.HSQL
+import org.dalesbred.testutils.DatabaseTest
+import org.dalesbred.testutils.transactionalTest
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+@DatabaseTest(HSQL)
+class DatabasePrefetchTest(private val db: Database) {
+
+    @Test
+    fun `prefetched rows are instantiated in order`() = transactionalTest(db) {
+        db.update("drop table if exists prefetch_test")
+        db.update("create temporary table prefetch_test (id int, text varchar(64))")
+        db.updateBatch("insert into prefetch_test (id, text) values (?, ?)", (1..2500).map { listOf(it, "row $it") })
+
+        val prefetchQuery = query("select id, text from prefetch_test order by id").apply {
+            fetchSize = 100
+            isPrefetch = true
+        }
+
+        val rows = db.findAll(Row::class.java, prefetchQuery)
+
+        assertEquals((1..2500).map { Row(it, "row $it") }, rows)
+    }
+
+    @Test
+    fun `large objects of prefetched rows are read into memory`() = transactionalTest(db) {
+        db.update("drop table if exists prefetch_lob_test")
+        db.update("create temporary table prefetch_lob_test (id int, blob_data blob, clob_data clob)")
+        db.updateBatch("insert into prefetch_lob_test values (?, ?, ?)", (1..10).map { listOf(it, byteArrayOf(it.toByte()), "text $it") })
+
+        val prefetchQuery = query("select id, blob_data, clob_data from prefetch_lob_test order by id").apply {
+            fetchSize = 3
+            isPrefetch = true
+        }
+
+        val rows = db.findAll(LobRow::class.java, prefetchQuery)
+
+        assertEquals((1..10).toList(), rows.map { it.id })
+        assertContentEquals((1..10).map { it.toByte() }, rows.map { it.data.single() })
+        assertEquals((1..10).map { "text $it" }, rows.map { it.text })
+    }
+
+    @Test
+    fun `results with arrays are read without prefetching`() = transactionalTest(db) {
+        val prefetchQuery = query("values (1, array[1, 2, 3])").apply { isPrefetch = true }
+
+        val rows = db.findAll(ArrayRow::class.java, prefetchQuery)
+
+        assertEquals(listOf(ArrayRow(1, listOf(1, 2, 3))), rows)
+    }
+
+    @Test
+    fun `other methods reject prefetching`() = transactionalTest(db) {
+        val prefetchQuery = query("values (1)").apply { isPrefetch = true }
+
+        assertFailsWith<IllegalArgumentException> { db.executeQuery({ rs -> rs.next() }, prefetchQuery) }
+        assertFailsWith<IllegalArgumentException> { db.findUniqueInt(prefetchQuery) }
+        assertFailsWith<IllegalArgumentException> { db.findAll({ rs -> rs.getInt(1) }, prefetchQuery) }
+        assertFailsWith<IllegalArgumentException> { db.forEachChunk({ rs -> rs.getInt(1) }, 10, { }, prefetchQuery) }
+        assertFailsWith<IllegalArgumentException> { db.findStream(Int::class.java, prefetchQuery) }
+        assertFailsWith<IllegalArgumentException> { db.update(prefetchQuery) }
+    }
+
+    data class Row(val id: Int, val text: String)
+
+    class LobRow(val id: Int, val data: ByteArray, val text: String)
+
+    data class ArrayRow(val id: Int, val values: List<Int>)
+}
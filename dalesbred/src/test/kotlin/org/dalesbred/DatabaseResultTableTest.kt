@@ -1,13 +1,19 @@
 package org.dalesbred
 
+import org.dalesbred.result.ResultTable
+import org.dalesbred.result.UnexpectedResultException
 import org.dalesbred.testutils.DatabaseProvider.POSTGRESQL
 import org.dalesbred.testutils.DatabaseTest
 import org.dalesbred.testutils.transactionalTest
 import java.lang.reflect.Type
+import java.math.BigDecimal
 import java.sql.Types
 import java.time.LocalDate
 import kotlin.test.Test
+import kotlin.test.assertContentEquals
 import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
 
 @DatabaseTest(POSTGRESQL)
 class DatabaseResultTableTest(private val db: Database) {
@@ -34,6 +40,59 @@ class DatabaseResultTableTest(private val db: Database) {
         assertEquals("ResultTable [columns=[num: java.lang.Integer, str: java.lang.String, bool: java.lang.Boolean], rows=1]", table.toString())
     }
 
+    @Test
+    fun `fetch columnar result table`() = transactionalTest(db) {
+        val table = db.findColumnarTable("SELECT x AS num, x * 1.5::float8 AS dbl, x % 2 = 0 AS even, 'row ' || x AS str FROM generate_series(1, 3) x UNION ALL SELECT null, null, null, null")
+
+        assertTrue(table.isColumnar)
+        assertEquals(4, table.rowCount)
+        assertEquals(values(2, 3.0, true, "row 2"), table.rows[1].asList())
+        assertEquals(listOf(null, null, null, null), table.rows[3].asList())
+        assertEquals("row 3", table.get(2, "STR"))
+        assertTrue(table.isNull(3, 0))
+
+        val nonNull = db.findColumnarTable("SELECT x AS num FROM generate_series(1, 3) x")
+        assertContentEquals(intArrayOf(1, 2, 3), nonNull.getIntColumn("num"))
+        assertContentEquals(longArrayOf(1, 2, 3), nonNull.getLongColumn(0))
+        assertFailsWith<UnexpectedResultException> { table.getLongColumn("num") }
+    }
+
+    @Test
+    fun `columnar builder converts numbers to column type`() {
+        val builder = ResultTable.columnarBuilder(listOf(
+            ResultTable.ColumnMetadata(0, "num", Int::class.javaObjectType, Types.INTEGER, "int4"),
+            ResultTable.ColumnMetadata(1, "dbl", Double::class.javaObjectType, Types.DOUBLE, "float8"),
+            ResultTable.ColumnMetadata(2, "bool", Boolean::class.javaObjectType, Types.BOOLEAN, "bool")))
+
+        builder.addRow(listOf(1L, 2, true))
+        builder.addRow(listOf<Any?>(BigDecimal("3"), 4.5f, null))
+        assertFailsWith<IllegalArgumentException> { builder.addRow(listOf("5", 6.0, false)) }
+        assertFailsWith<IllegalArgumentException> { builder.addRow(listOf(5, 6.0, 1)) }
+
+        val table = builder.build()
+        assertEquals(2, table.rowCount)
+        assertContentEquals(intArrayOf(1, 3), table.getIntColumn("num"))
+        assertEquals(values(1, 2.0, true), table.rows[0].asList())
+        assertEquals(listOf(3, 4.5, null), table.rows[1].asList())
+    }
+
+    @Test
+    fun `spill large result table to temporary file`() = transactionalTest(db) {
+        db.resultTableMemoryBudget = 10_000
+        try {
+            db.findTable("SELECT x AS num, 'row ' || x AS str, x * 1.5 AS dec FROM generate_series(1, 1000) x").use { table ->
+                assertTrue(table.isSpilled)
+                assertEquals(1000, table.rowCount)
+                assertEquals(values(1, "row 1", BigDecimal("1.5")), table.rows[0].asList())
+                assertEquals(values(1000, "row 1000", BigDecimal("1500.0")), table.rows[999].asList())
+                assertEquals("row 500", table.get(499, "str"))
+                assertEquals(1000, table.count())
+            }
+        } finally {
+            db.resultTableMemoryBudget = Long.MAX_VALUE
+        }
+    }
+
     @Test
     fun `test formatTable`() = transactionalTest(db) {
         db.update("DROP TABLE IF EXISTS result_table_formatter")
@@ -0,0 +1,48 @@
+package org.dalesbred
+
+import org.dalesbred.result.UnexpectedResultException
+import org.dalesbred.testutils.DatabaseProvider.POSTGRESQL
+import org.dalesbred.testutils.DatabaseTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+@DatabaseTest(POSTGRESQL)
+class DatabaseRowViewTest(private val db: Database) {
+
+    @Test
+    fun `aggregate rows through row view`() {
+        var sum = 0L
+        val counts = mutableMapOf<Mood, Int>()
+
+        val rows = db.forEachRow({ row ->
+            sum += row.getLong("amount")
+            counts.merge(row.get(1, Mood::class.java)!!, 1, Int::plus)
+        }, "select x as id, case when x % 3 = 0 then 'SAD' else 'HAPPY' end as mood, x * 10 as amount from generate_series(1, 9) x")
+
+        assertEquals(9L, rows)
+        assertEquals(450L, sum)
+        assertEquals(mapOf(Mood.HAPPY to 6, Mood.SAD to 3), counts)
+    }
+
+    @Test
+    fun `columns are looked up case insensitively`() {
+        db.forEachRow({ row ->
+            assertEquals(2, row.columnCount)
+            assertEquals(1, row.indexOf("SECOND"))
+            assertEquals("foo", row.getString("Second"))
+        }, "select 1 as first, 'foo' as second")
+    }
+
+    @Test
+    fun `nulls are checked`() {
+        db.forEachRow({ row ->
+            assertTrue(row.isNull(0))
+            assertEquals(null, row.get(0, Int::class.java))
+            assertFailsWith<UnexpectedResultException> { row.getInt(0) }
+        }, "select null::int")
+    }
+
+    enum class Mood { HAPPY, SAD }
+}
@@ -0,0 +1,163 @@
+package org.dalesbred
+
+import org.dalesbred.connection.ConnectionProvider
+import org.dalesbred.dialect.PostgreSQLDialect
+import org.dalesbred.testutils.DatabaseProvider.POSTGRESQL
+import org.dalesbred.testutils.DatabaseTest
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Proxy
+import java.sql.Connection
+import java.sql.PreparedStatement
+import javax.sql.DataSource
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+@DatabaseTest(POSTGRESQL)
+class DatabaseStatementCacheTest(private val db: Database) {
+
+    @Test
+    fun `statements are not cached by default`() {
+        db.withVoidTransaction {
+            db.findUniqueInt("select 1")
+            db.findUniqueInt("select 1")
+        }
+
+        assertEquals(0, db.statementCacheStatistics.requestCount)
+    }
+
+    @Test
+    fun `repeated statements are reused within transaction`() {
+        db.statementCacheSize = 10
+
+        db.withVoidTransaction {
+            db.update("drop table if exists statement_cache_test")
+            db.update("create temporary table statement_cache_test (id int)")
+
+            for (i in 1..5)
+                db.update("insert into statement_cache_test (id) values (?)", i)
+
+            assertEquals(15, db.findUniqueInt("select sum(id) from statement_cache_test where id > ?", 0))
+            assertEquals(12, db.findUniqueInt("select sum(id) from statement_cache_test where id > ?", 2))
+        }
+
+        val statistics = db.statementCacheStatistics
+        assertEquals(4, statistics.missCount)
+        assertEquals(5, statistics.hitCount)
+        assertEquals(4, statistics.size)
+    }
+
+    @Test
+    fun `statements are reused across transactions when connection is reused`(dataSource: DataSource) {
+        dataSource.connection.use { connection ->
+            val pooledDb = Database(PoolLikeConnectionProvider(connection), PostgreSQLDialect())
+            pooledDb.statementCacheSize = 10
+
+            assertEquals(1, pooledDb.findUniqueInt("select ?::int", 1))
+            assertEquals(2, pooledDb.findUniqueInt("select ?::int", 2))
+
+            val statistics = pooledDb.statementCacheStatistics
+            assertEquals(1, statistics.missCount)
+            assertEquals(1, statistics.hitCount)
+        }
+    }
+
+    @Test
+    fun `statements are prepared through the connection of the transaction`(dataSource: DataSource) {
+        dataSource.connection.use { connection ->
+            val provider = PoolLikeConnectionProvider(connection)
+            val pooledDb = Database(provider, PostgreSQLDialect())
+            pooledDb.statementCacheSize = 10
+
+            assertEquals(1, pooledDb.findUniqueInt("select ?::int", 1))
+
+            assertEquals(1, provider.preparedStatements.size)
+            assertEquals(1, pooledDb.statementCacheStatistics.missCount)
+        }
+    }
+
+    @Test
+    fun `changing the size closes cached statements`(dataSource: DataSource) {
+        dataSource.connection.use { connection ->
+            val provider = PoolLikeConnectionProvider(connection)
+            val pooledDb = Database(provider, PostgreSQLDialect())
+            pooledDb.statementCacheSize = 10
+
+            assertEquals(1, pooledDb.findUniqueInt("select ?::int", 1))
+            assertEquals(1, pooledDb.statementCacheStatistics.size)
+
+            pooledDb.statementCacheSize = 0
+
+            assertEquals(0, pooledDb.statementCacheStatistics.size)
+            assertTrue(provider.preparedStatements.single().isClosed)
+        }
+    }
+
+    @Test
+    fun `least recently used statements are evicted`() {
+        db.statementCacheSize = 2
+
+        db.withVoidTransaction {
+            db.findUniqueInt("select 1")
+            db.findUniqueInt("select 2")
+            db.findUniqueInt("select 3")
+            db.findUniqueInt("select 3")
+            db.findUniqueInt("select 1")
+        }
+
+        val statistics = db.statementCacheStatistics
+        assertEquals(1, statistics.hitCount)
+        assertEquals(4, statistics.missCount)
+        assertEquals(2, statistics.evictionCount)
+    }
+
+    @Test
+    fun `nested executions of same statement use separate statements`() {
+        db.statementCacheSize = 10
+
+        db.withVoidTransaction {
+            val result = db.executeQuery({ rs ->
+                rs.next()
+                rs.getInt(1) + db.findUniqueInt("select ?::int", 2)
+            }, "select ?::int", 1)
+
+            assertEquals(3, result)
+        }
+    }
+
+    @Test
+    fun `negative cache size is rejected`() {
+        assertFailsWith<IllegalArgumentException> {
+            db.statementCacheSize = -1
+        }
+    }
+
+    /**
+     * Hands out a new wrapper for the same physical connection for each transaction, like a pool does.
+     */
+    private class PoolLikeConnectionProvider(private val connection: Connection) : ConnectionProvider {
+
+        /** Statements prepared through the handed out wrappers */
+        val preparedStatements = mutableListOf<PreparedStatement>()
+
+        override fun getConnection(): Connection =
+            Proxy.newProxyInstance(javaClass.classLoader, arrayOf(Connection::class.java)) { _, method, args ->
+                when (method.name) {
+                    "unwrap" -> connection
+                    "close" -> null
+                    else -> try {
+                        method.invoke(connection, *(args ?: emptyArray())).also {
+                            if (it is PreparedStatement)
+                                preparedStatements += it
+                        }
+                    } catch (e: InvocationTargetException) {
+                        throw e.targetException
+                    }
+                }
+            } as Connection
+
+        override fun releaseConnection(connection: Connection) {
+        }
+    }
+}
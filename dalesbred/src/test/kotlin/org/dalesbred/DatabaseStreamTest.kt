@@ -0,0 +1,81 @@
+package org.dalesbred
+
+import org.dalesbred.query.SqlQuery
+import org.dalesbred.testutils.DatabaseProvider.POSTGRESQL
+import org.dalesbred.testutils.DatabaseTest
+import org.dalesbred.testutils.transactionalTest
+import org.dalesbred.transaction.NoActiveTransactionException
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+@DatabaseTest(POSTGRESQL)
+class DatabaseStreamTest(private val db: Database) {
+
+    @Test
+    fun `stream results lazily`() = transactionalTest(db) {
+        val query = SqlQuery.query("select x from generate_series(1, 5000) x").apply { fetchSize = 100 }
+
+        val sum = db.findStream(Int::class.java, query).use { stream -> stream.mapToLong { it.toLong() }.sum() }
+
+        assertEquals(12502500L, sum)
+    }
+
+    @Test
+    fun `stream results with row mapper`() = transactionalTest(db) {
+        val values = db.findStream({ rs -> rs.getString(1) }, "select unnest(array['foo', 'bar'])").use { it.toList() }
+
+        assertEquals(listOf("foo", "bar"), values)
+    }
+
+    @Test
+    fun `closing partially consumed stream`() = transactionalTest(db) {
+        val first = db.findStream(Int::class.java, "select x from generate_series(1, 5000) x").use { it.findFirst().get() }
+
+        assertEquals(1, first)
+        assertEquals(42, db.findUniqueInt("select 42"))
+    }
+
+    @Test
+    fun `parallel stream preserves order`() = transactionalTest(db) {
+        val query = SqlQuery.query("select x, 'row ' || x from generate_series(1, 5000) x").apply { fetchSize = 100 }
+
+        val rows = db.findParallelStream(Row::class.java, query).use { stream -> stream.map { it.num }.toList() }
+
+        assertEquals((1..5000).toList(), rows)
+    }
+
+    @Test
+    fun `closing partially consumed parallel stream`() = transactionalTest(db) {
+        val query = SqlQuery.query("select x, 'row ' || x from generate_series(1, 50000) x").apply { fetchSize = 100 }
+
+        val rows = db.findParallelStream(Row::class.java, query).use { stream -> stream.limit(150).map { it.num }.toList() }
+
+        assertEquals((1..150).toList(), rows)
+        assertEquals(42, db.findUniqueInt("select 42"))
+    }
+
+    @Test
+    fun `process results in chunks`() = transactionalTest(db) {
+        val chunkSizes = mutableListOf<Int>()
+        var sum = 0L
+
+        val rows = db.forEachChunk(Int::class.java, 1000, { chunk ->
+            chunkSizes += chunk.size
+            sum += chunk.sumOf { it.toLong() }
+        }, "select x from generate_series(1, 2500) x")
+
+        assertEquals(2500L, rows)
+        assertEquals(listOf(1000, 1000, 500), chunkSizes)
+        assertEquals(3126250L, sum)
+    }
+
+    @Test
+    fun `streaming requires active transaction`() {
+        assertFailsWith<NoActiveTransactionException> {
+            db.findStream(Int::class.java, "select 1")
+        }
+    }
+
+    data class Row(val num: Int, val text: String)
+}
@@ -31,6 +31,14 @@ class DatabaseTest(private val db: Database) {
         assertNull(db.findUnique(Boolean::class.javaObjectType, "values (cast(null as boolean))"))
     }
 
+    @Test
+    fun `primitive arrays`() = transactionalTest(db) {
+        assertContentEquals(longArrayOf(1, 2, 3), db.findLongArray("select x from generate_series(1, 3) x"))
+        assertContentEquals(intArrayOf(1, -1), db.findIntArray(NullPolicy.replaceWith(-1), "values (1), (null)"))
+        assertFailsWith<UnexpectedResultException> { db.findIntArray("values (1), (null)") }
+        assertFailsWith<UnexpectedResultException> { db.findIntArray("values (1, 2)") }
+    }
+
     @Test
     fun `big numbers`() = transactionalTest(db) {
         assertEquals(BigDecimal("4242242848428484848484848"), db.findUnique(BigDecimal::class.java, "values (4242242848428484848484848)"))
@@ -63,6 +71,50 @@ class DatabaseTest(private val db: Database) {
         assertEquals("bar", map[2])
     }
 
+    @Test
+    fun `map with factory`() = transactionalTest(db) {
+        val map = db.findMap(String::class.java, Int::class.javaObjectType, { TreeMap<String, Int>() }, "values ('b', 2), ('a', 1)")
+
+        assertEquals(listOf("a", "b"), map.keys.toList())
+    }
+
+    @Test
+    fun `long key map`() = transactionalTest(db) {
+        val map = db.findLongKeyMap(Department::class.java, "select id, id, name from (values (1, 'foo'), (2, 'bar')) d (id, name)")
+
+        assertEquals(2, map.size)
+        assertEquals("foo", map[1L]?.name)
+        assertEquals("bar", map[2L]?.name)
+        assertFailsWith<UnexpectedResultException> { db.findIntKeyMap(String::class.java, "values (null::int, 'foo')") }
+    }
+
+    @Test
+    fun `presized int key map`() = transactionalTest(db) {
+        val map = db.findIntKeyMap(String::class.java, 1000, "select x, 'name ' || x from generate_series(1, 1000) x")
+
+        assertEquals(1000, map.size)
+        assertEquals("name 500", map[500])
+        assertFailsWith<IllegalArgumentException> { db.findIntKeyMap(String::class.java, -1, "values (1, 'foo')") }
+    }
+
+    @Test
+    fun multimap() = transactionalTest(db) {
+        val map = db.findMultimap(Int::class.javaObjectType, String::class.java, "values (1, 'foo'), (2, 'bar'), (1, 'baz')")
+
+        assertEquals(mapOf(1 to listOf("foo", "baz"), 2 to listOf("bar")), map)
+    }
+
+    @Test
+    fun `groups of sorted rows`() = transactionalTest(db) {
+        val groups = mutableListOf<Pair<Int, List<String>>>()
+
+        val count = db.forEachGroup(Int::class.javaObjectType, String::class.java, { key, values -> groups += key to values.toList() },
+            "select x / 3, 'row ' || x from generate_series(0, 6) x order by x")
+
+        assertEquals(3L, count)
+        assertEquals(listOf(0 to listOf("row 0", "row 1", "row 2"), 1 to listOf("row 3", "row 4", "row 5"), 2 to listOf("row 6")), groups)
+    }
+
     @Test
     fun `map with null conversion`() = transactionalTest(db) {
         val map = db.findMap(String::class.java, String::class.java, "values ('foo', cast (null as text)), (cast (null as text), 'bar')")
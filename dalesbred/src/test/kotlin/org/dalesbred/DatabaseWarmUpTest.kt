@@ -0,0 +1,30 @@
+package org.dalesbred
+
+import org.dalesbred.query.WarmUpQuery
+import org.dalesbred.testutils.DatabaseProvider.POSTGRESQL
+import org.dalesbred.testutils.DatabaseTest
+import org.dalesbred.testutils.transactionalTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@DatabaseTest(POSTGRESQL)
+class DatabaseWarmUpTest(private val db: Database) {
+
+    @Test
+    fun `warming up resolves instantiators before execution`() = transactionalTest(db) {
+        val sql = "select 42 as num, 'foo' as str"
+
+        val results = db.warmUp(listOf(WarmUpQuery(sql, Row::class.java), WarmUpQuery("select 1")))
+
+        assertEquals(2, results.size)
+        assertTrue(results.all { it.isMetadataAvailable })
+        assertEquals(sql, results[0].query.sql)
+
+        val missesAfterWarmUp = db.instantiatorCacheStatistics.missCount
+        assertEquals(Row(42, "foo"), db.findUnique(Row::class.java, sql))
+        assertEquals(missesAfterWarmUp, db.instantiatorCacheStatistics.missCount)
+    }
+
+    data class Row(val num: Int, val str: String)
+}
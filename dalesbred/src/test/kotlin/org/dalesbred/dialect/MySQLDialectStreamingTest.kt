@@ -0,0 +1,92 @@
+package org.dalesbred.dialect
+
+import org.dalesbred.Database
+import org.dalesbred.connection.ConnectionProvider
+import org.dalesbred.query.SqlQuery.query
+import java.lang.reflect.Proxy
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+class MySQLDialectStreamingTest {
+
+    private val connectionProvider = FakeConnectionProvider()
+    private val db = Database(connectionProvider, MySQLDialect())
+
+    @Test
+    fun `chunked queries are streamed row by row`() {
+        db.forEachChunk({ rs -> rs.getInt(1) }, 100, { }, "select id from my_table")
+
+        assertEquals(listOf(Int.MIN_VALUE), connectionProvider.executedFetchSizes)
+    }
+
+    @Test
+    fun `streamed queries ignore explicit fetch size`() {
+        db.withVoidTransaction {
+            db.forEachChunk({ rs -> rs.getInt(1) }, 100, { }, query("select id from my_table").apply { fetchSize = 500 })
+
+            db.findStream({ rs -> rs.getInt(1) }, query("select id from my_table").apply { fetchSize = 500 }).use { it.count() }
+        }
+
+        assertEquals(listOf(Int.MIN_VALUE, Int.MIN_VALUE), connectionProvider.executedFetchSizes)
+    }
+
+    @Test
+    fun `fetch size of queries that are not streamed is kept`() {
+        db.findAll({ rs -> rs.getInt(1) }, query("select id from my_table").apply { fetchSize = 500 })
+
+        assertEquals(listOf(500), connectionProvider.executedFetchSizes)
+    }
+
+    /**
+     * Provides connections returning empty results and recording the fetch sizes of statements when they are executed.
+     */
+    private class FakeConnectionProvider : ConnectionProvider {
+
+        val executedFetchSizes = mutableListOf<Int>()
+
+        override fun getConnection(): Connection = fake { method, _ ->
+            when (method) {
+                "prepareStatement" -> fakeStatement()
+                "getAutoCommit" -> false
+                else -> null
+            }
+        }
+
+        override fun releaseConnection(connection: Connection) {
+        }
+
+        private fun fakeStatement(): PreparedStatement {
+            var fetchSize = 0
+            return fake { method, args ->
+                when (method) {
+                    "setFetchSize" -> {
+                        fetchSize = args[0] as Int
+                        null
+                    }
+                    "getFetchSize" -> fetchSize
+                    "executeQuery" -> {
+                        executedFetchSizes += fetchSize
+                        fake<ResultSet> { _, _ -> null }
+                    }
+                    else -> null
+                }
+            }
+        }
+
+        private inline fun <reified T> fake(crossinline handler: (String, Array<Any?>) -> Any?): T =
+            Proxy.newProxyInstance(T::class.java.classLoader, arrayOf(T::class.java)) { _, method, args ->
+                val result = handler(method.name, args ?: emptyArray())
+                if (result == null) defaultValue(method.returnType) else result
+            } as T
+
+        private fun defaultValue(type: Class<*>): Any? = when (type) {
+            Boolean::class.javaPrimitiveType -> false
+            Int::class.javaPrimitiveType -> 0
+            Long::class.javaPrimitiveType -> 0L
+            else -> null
+        }
+    }
+}
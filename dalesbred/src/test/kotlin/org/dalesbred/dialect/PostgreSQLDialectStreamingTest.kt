@@ -0,0 +1,106 @@
+package org.dalesbred.dialect
+
+import org.dalesbred.Database
+import org.dalesbred.connection.ConnectionProvider
+import java.lang.reflect.Proxy
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class PostgreSQLDialectStreamingTest {
+
+    private val connectionProvider = FakeConnectionProvider()
+    private val db = Database(connectionProvider, PostgreSQLDialect())
+
+    @Test
+    fun `auto-commit is disabled while stream is open`() {
+        db.withVoidTransaction {
+            connectionProvider.autoCommit = true
+
+            db.findStream({ rs -> rs.getInt(1) }, "select id from my_table").use { stream ->
+                assertFalse(connectionProvider.autoCommit)
+                assertEquals(0, stream.count())
+            }
+
+            assertTrue(connectionProvider.autoCommit)
+        }
+
+        assertEquals(listOf(false), connectionProvider.autoCommitsOnExecute)
+    }
+
+    @Test
+    fun `auto-commit is disabled while chunks are read`() {
+        db.withVoidTransaction {
+            connectionProvider.autoCommit = true
+
+            db.forEachChunk({ rs -> rs.getInt(1) }, 100, { }, "select id from my_table")
+
+            assertTrue(connectionProvider.autoCommit)
+        }
+
+        assertEquals(listOf(false), connectionProvider.autoCommitsOnExecute)
+    }
+
+    @Test
+    fun `auto-commit is not changed if it is disabled`() {
+        db.withVoidTransaction {
+            db.findStream({ rs -> rs.getInt(1) }, "select id from my_table").use { it.count() }
+
+            assertFalse(connectionProvider.autoCommit)
+        }
+
+        assertEquals(listOf(false), connectionProvider.autoCommitsOnExecute)
+    }
+
+    /**
+     * Provides connections returning empty results and recording the auto-commit mode when statements are executed.
+     */
+    private class FakeConnectionProvider : ConnectionProvider {
+
+        var autoCommit = true
+
+        val autoCommitsOnExecute = mutableListOf<Boolean>()
+
+        override fun getConnection(): Connection = fake { method, args ->
+            when (method) {
+                "prepareStatement" -> fakeStatement()
+                "getAutoCommit" -> autoCommit
+                "setAutoCommit" -> {
+                    autoCommit = args[0] as Boolean
+                    null
+                }
+                else -> null
+            }
+        }
+
+        override fun releaseConnection(connection: Connection) {
+        }
+
+        private fun fakeStatement(): PreparedStatement = fake { method, _ ->
+            when (method) {
+                "executeQuery" -> {
+                    autoCommitsOnExecute += autoCommit
+                    fake<ResultSet> { _, _ -> null }
+                }
+                else -> null
+            }
+        }
+
+        private inline fun <reified T> fake(crossinline handler: (String, Array<Any?>) -> Any?): T =
+            Proxy.newProxyInstance(T::class.java.classLoader, arrayOf(T::class.java)) { _, method, args ->
+                val result = handler(method.name, args ?: emptyArray())
+                if (result == null) defaultValue(method.returnType) else result
+            } as T
+
+        private fun defaultValue(type: Class<*>): Any? = when (type) {
+            Boolean::class.javaPrimitiveType -> false
+            Int::class.javaPrimitiveType -> 0
+            Long::class.javaPrimitiveType -> 0L
+            else -> null
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package org.dalesbred.integration.kotlin
 
 import org.dalesbred.Database
+import org.dalesbred.query.SqlQuery
+import org.dalesbred.result.NullPolicy
 import org.dalesbred.testutils.DatabaseProvider.POSTGRESQL
 import org.dalesbred.testutils.DatabaseTest
 import org.dalesbred.testutils.transactionalTest
 import java.util.*
 import kotlin.test.Test
+import kotlin.test.assertContentEquals
 import kotlin.test.assertEquals
 import kotlin.test.assertNull
 
@@ -86,6 +89,20 @@ class DatabaseExtensionsTest(private val db: Database) {
         assertEquals(mapOf(1 to "foo", 2 to "bar"), map)
     }
 
+    @Test
+    fun findIntArray() = transactionalTest(db) {
+        val values = db.findIntArray("select * from (values (1), (null), (3)) d", nullPolicy = NullPolicy.SKIP)
+
+        assertContentEquals(intArrayOf(1, 3), values)
+    }
+
+    @Test
+    fun findDoubleArray() = transactionalTest(db) {
+        val values = db.findDoubleArray(SqlQuery.query("select * from (values (1.5), (null)) d"), NullPolicy.replaceWith(Double.NaN))
+
+        assertContentEquals(doubleArrayOf(1.5, Double.NaN), values)
+    }
+
     @Test
     fun executeQuery() = transactionalTest(db) {
         val result = db.executeQuery("select * from (values (1, 'foo'), (2, 'bar')) d") { rs ->
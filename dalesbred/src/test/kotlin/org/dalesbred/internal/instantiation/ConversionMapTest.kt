@@ -64,6 +64,17 @@ class ConversionMapTest {
         assertSame(conversion2, registry.findConversion(String::class.java, Long::class.java).orElse(null))
     }
 
+    @Test
+    fun `registrations invalidate memoized lookups`() {
+        assertEquals(Optional.empty(), registry.findConversion(String::class.java, Long::class.java))
+
+        val conversion = dummyConversion()
+        registry.register(CharSequence::class.java, Long::class.java, conversion)
+
+        assertSame(conversion, registry.findConversion(String::class.java, Long::class.java).orElse(null))
+        assertSame(conversion, registry.findConversion(String::class.java, Long::class.java).orElse(null))
+    }
+
     private fun dummyConversion(): TypeConversion {
         return TypeConversion.fromNonNullFunction<Any, Any> { throw UnsupportedOperationException() }
     }
@@ -3,8 +3,13 @@ package org.dalesbred.internal.instantiation
 import org.dalesbred.annotation.DalesbredIgnore
 import org.dalesbred.annotation.DalesbredInstantiator
 import org.dalesbred.dialect.DefaultDialect
+import org.dalesbred.instantiation.GeneratedInstantiator
 import org.dalesbred.internal.instantiation.test.InaccessibleClassRef
 import org.dalesbred.internal.utils.TypeUtils
+import org.dalesbred.testutils.unimplemented
+import java.lang.reflect.Type
+import java.sql.PreparedStatement
+import java.util.Optional
 import kotlin.test.*
 
 class InstantiatorProviderTest {
@@ -151,6 +156,101 @@ class InstantiatorProviderTest {
         assertEquals("instantiator called: foo", result.value)
     }
 
+    @Test
+    fun `resolved instantiators are cached per result shape`() {
+        val registry = InstantiatorProvider(DefaultDialect())
+        val types = createNamedTypeList(String::class.java)
+
+        val first = registry.findInstantiator(TestClass::class.java, types)
+        val second = registry.findInstantiator(TestClass::class.java, createNamedTypeList(String::class.java))
+        registry.findInstantiator(TestClass::class.java, createNamedTypeList(Int::class.javaPrimitiveType!!))
+
+        assertSame(first, second)
+
+        val statistics = registry.instantiatorCacheStatistics
+        assertEquals(1, statistics.hitCount)
+        assertEquals(2, statistics.missCount)
+        assertEquals(2, statistics.size)
+    }
+
+    @Test
+    fun `failed resolutions are cached`() {
+        val registry = InstantiatorProvider(DefaultDialect())
+        val types = createNamedTypeList(Int::class.javaPrimitiveType!!, Int::class.javaPrimitiveType!!)
+
+        assertFailsWith<InstantiationFailureException> { registry.findInstantiator(TestClass::class.java, types) }
+        assertFailsWith<InstantiationFailureException> { registry.findInstantiator(TestClass::class.java, types) }
+
+        assertEquals(1, registry.instantiatorCacheStatistics.hitCount)
+        assertEquals(1, registry.instantiatorCacheStatistics.missCount)
+    }
+
+    @Test
+    fun `registering conversions invalidates cached instantiators`() {
+        val registry = InstantiatorProvider(DefaultDialect())
+        val types = createNamedTypeList(String::class.java)
+
+        registry.findInstantiator(TestClass::class.java, types)
+        registry.typeConversionRegistry.registerConversionFromDatabase(String::class.java, StringBuilder::class.java) { StringBuilder(it) }
+
+        assertEquals(0, registry.instantiatorCacheStatistics.size)
+    }
+
+    @Test
+    fun `composed conversions are resolved once`() {
+        val registry = InstantiatorProvider(DefaultDialect())
+
+        val first = registry.getConversionFromDbValue(String::class.java, GeneratedInstantiator.parameterizedType(Optional::class.java, String::class.java))
+        val second = registry.getConversionFromDbValue(String::class.java, GeneratedInstantiator.parameterizedType(Optional::class.java, String::class.java))
+
+        assertSame(first, second)
+    }
+
+    @Test
+    fun `arguments are bound with typed setters`() {
+        val registry = InstantiatorProvider(DefaultDialect())
+        val calls = mutableListOf<String>()
+        val ps = object : PreparedStatement by unimplemented() {
+            override fun setString(parameterIndex: Int, x: String?) { calls += "setString($parameterIndex, $x)" }
+            override fun setInt(parameterIndex: Int, x: Int) { calls += "setInt($parameterIndex, $x)" }
+            override fun setObject(parameterIndex: Int, x: Any?) { calls += "setObject($parameterIndex, $x)" }
+        }
+
+        registry.bindArgument(ps, 1, "foo")
+        registry.bindArgument(ps, 2, Optional.of(42))
+        registry.bindArgument(ps, 3, TestEnum.BAR)
+        registry.bindArgument(ps, 4, Optional.empty<Int>())
+        registry.bindArgument(ps, 5, StringBuilder("baz"))
+
+        assertEquals(listOf("setString(1, foo)", "setInt(2, 42)", "setString(3, BAR)", "setObject(4, null)", "setObject(5, baz)"), calls)
+    }
+
+    @Test
+    fun `argument binding respects dialect conversions`() {
+        val registry = InstantiatorProvider(object : DefaultDialect() {
+            override fun valueToDatabase(value: Any) = value.toString().uppercase()
+        })
+        val calls = mutableListOf<String>()
+        val ps = object : PreparedStatement by unimplemented() {
+            override fun setString(parameterIndex: Int, x: String?) { calls += "setString($parameterIndex, $x)" }
+        }
+
+        registry.bindArgument(ps, 1, "foo")
+
+        assertEquals(listOf("setString(1, FOO)"), calls)
+    }
+
+    @Test
+    fun `generated instantiator is used instead of reflection`() {
+        val types = NamedTypeList.builder(2)
+            .add("name", String::class.java)
+            .add("email", String::class.java).build()
+
+        val result = assertNotNull(instantiate(TestClassWithGeneratedInstantiator::class.java, types, "foo", "bar"))
+
+        assertEquals("generated: foo Optional[bar]", result.value)
+    }
+
     @Suppress("unused", "UNUSED_PARAMETER")
     class TestClass {
         val calledConstructor: Int
@@ -254,4 +354,22 @@ class InstantiatorProviderTest {
     }
 
     class InaccessibleConstructor private constructor(@Suppress("UNUSED_PARAMETER") x: Int)
+
+    class TestClassWithGeneratedInstantiator @DalesbredInstantiator constructor(val value: String)
+
+    enum class TestEnum { FOO, BAR }
+}
+
+/**
+ * Stands for the class that dalesbred-processor would generate for [InstantiatorProviderTest.TestClassWithGeneratedInstantiator].
+ */
+@Suppress("ClassName", "unused")
+class InstantiatorProviderTest_TestClassWithGeneratedInstantiator_DalesbredInstantiator :
+    GeneratedInstantiator<InstantiatorProviderTest.TestClassWithGeneratedInstantiator> {
+
+    override fun getParameterTypes(): List<Type> =
+        listOf(String::class.java, GeneratedInstantiator.parameterizedType(Optional::class.java, String::class.java))
+
+    override fun instantiate(arguments: Array<Any?>): InstantiatorProviderTest.TestClassWithGeneratedInstantiator =
+        InstantiatorProviderTest.TestClassWithGeneratedInstantiator("generated: ${arguments[0]} ${arguments[1]}")
 }
@@ -2,6 +2,7 @@ package org.dalesbred.internal.instantiation
 
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertNotEquals
 
 class NamedTypeListTest {
 
@@ -56,4 +57,26 @@ class NamedTypeListTest {
         assertEquals("baz", types.getName(1))
         assertEquals(Boolean::class.java, types.getType(1))
     }
+
+    @Test
+    fun `equality is based on names and types`() {
+        val types = NamedTypeList.builder(2).apply {
+            add("foo", String::class.java)
+            add("bar", Int::class.java)
+        }.build()
+
+        val sameTypes = NamedTypeList.builder(2).apply {
+            add("foo", String::class.java)
+            add("bar", Int::class.java)
+        }.build()
+
+        val differentTypes = NamedTypeList.builder(2).apply {
+            add("foo", String::class.java)
+            add("bar", Long::class.java)
+        }.build()
+
+        assertEquals(types, sameTypes)
+        assertEquals(types.hashCode(), sameTypes.hashCode())
+        assertNotEquals(types, differentTypes)
+    }
 }
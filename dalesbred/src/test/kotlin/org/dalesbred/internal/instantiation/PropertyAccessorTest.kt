@@ -16,6 +16,23 @@ class PropertyAccessorTest {
         assertNotEquals(Optional.empty(), PropertyAccessor.findAccessor(DepartmentWithFields::class.java, "department_name"))
     }
 
+    @Test
+    fun `setting values through setters and fields`() {
+        val setter = PropertyAccessor.findAccessor(DepartmentWithSetters::class.java, "department_name").orElseThrow()
+        val field = PropertyAccessor.findAccessor(Named::class.java, "name").orElseThrow()
+
+        val department = DepartmentWithSetters()
+        setter.set(department, "foo")
+        setter.setterHandle().invoke(department, "bar")
+        assertEquals("bar", department.departmentName)
+
+        val named = Named()
+        field.set(named, "baz")
+        assertEquals("baz", named.name)
+        field.setterHandle().invoke(named, "quux")
+        assertEquals("quux", named.name)
+    }
+
     @Test
     fun `ignored setters`() {
         assertEquals(Optional.empty(), PropertyAccessor.findAccessor(IgnoredValues::class.java, "ignoredMethod"))
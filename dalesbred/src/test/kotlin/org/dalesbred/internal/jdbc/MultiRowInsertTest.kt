@@ -0,0 +1,69 @@
+package org.dalesbred.internal.jdbc
+
+import org.dalesbred.dialect.DefaultDialect
+import org.dalesbred.dialect.PostgreSQLDialect
+import org.dalesbred.dialect.SQLServerDialect
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+
+class MultiRowInsertTest {
+
+    @Test
+    fun `rewriting single-row insert`() {
+        val insert = assertNotNull(MultiRowInsert.parse("insert into foo (a, b) values (?, cast(? as int)) on conflict do nothing", PostgreSQLDialect()))
+
+        assertEquals(2, insert.parametersPerRow)
+        assertEquals("insert into foo (a, b) values (?, cast(? as int)), (?, cast(? as int)) on conflict do nothing", insert.sqlForRows(2))
+    }
+
+    @Test
+    fun `quoted parameter markers are ignored`() {
+        val insert = assertNotNull(MultiRowInsert.parse("INSERT INTO foo VALUES (?, 'values (?)')", PostgreSQLDialect()))
+
+        assertEquals(1, insert.parametersPerRow)
+    }
+
+    @Test
+    fun `commented parameter markers and keywords are ignored`() {
+        val dialect = PostgreSQLDialect()
+
+        val insert = assertNotNull(MultiRowInsert.parse("insert /* values (?) */ into foo (a, b) -- values (?)\nvalues (?, /* ) */ ?) -- ?", dialect))
+        assertEquals(2, insert.parametersPerRow)
+        assertEquals("insert /* values (?) */ into foo (a, b) -- values (?)\nvalues (?, /* ) */ ?), (?, /* ) */ ?) -- ?", insert.sqlForRows(2))
+
+        assertNull(MultiRowInsert.parse("insert into foo (a) values (?) /* unterminated", dialect))
+    }
+
+    @Test
+    fun `only suffixes that don't update rows are allowed`() {
+        val dialect = PostgreSQLDialect()
+
+        assertNotNull(MultiRowInsert.parse("insert into foo (a) values (?) ON CONFLICT (a) DO NOTHING", dialect))
+        assertNotNull(MultiRowInsert.parse("insert into foo (a) values (?) on conflict on constraint foo_pkey /* skip */ do nothing", dialect))
+        assertNull(MultiRowInsert.parse("insert into foo (a) values (?) on conflict (a) do update set b = 1", dialect))
+        assertNull(MultiRowInsert.parse("insert into foo (a) values (?) on conflict (a) do update set b = 1 -- do nothing", dialect))
+        assertNull(MultiRowInsert.parse("insert into foo (a) values (?) ON DUPLICATE KEY UPDATE b = 1", dialect))
+        assertNull(MultiRowInsert.parse("insert into foo (a) values (?) returning id", dialect))
+    }
+
+    @Test
+    fun `rows are limited by dialect`() {
+        assertEquals(1000, MultiRowInsert.parse("insert into foo (a) values (?)", SQLServerDialect())?.maxRows)
+        assertEquals(699, MultiRowInsert.parse("insert into foo (a, b, c) values (?, ?, ?)", SQLServerDialect())?.maxRows)
+        assertEquals(21845, MultiRowInsert.parse("insert into foo (a, b, c) values (?, ?, ?)", PostgreSQLDialect())?.maxRows)
+    }
+
+    @Test
+    fun `statements that can't be rewritten`() {
+        val dialect = PostgreSQLDialect()
+
+        assertNull(MultiRowInsert.parse("update foo set a = ?", dialect))
+        assertNull(MultiRowInsert.parse("insert into foo select ?", dialect))
+        assertNull(MultiRowInsert.parse("insert into foo (a) values (?), (?)", dialect))
+        assertNull(MultiRowInsert.parse("insert into foo (a) values (1)", dialect))
+        assertNull(MultiRowInsert.parse("insert into foo (a) values (?) on conflict (a) do update set b = ?", dialect))
+        assertNull(MultiRowInsert.parse("insert into foo (a) values (?)", DefaultDialect()))
+    }
+}
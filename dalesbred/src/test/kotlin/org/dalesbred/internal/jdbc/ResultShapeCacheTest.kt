@@ -0,0 +1,77 @@
+package org.dalesbred.internal.jdbc
+
+import org.dalesbred.dialect.DefaultDialect
+import org.dalesbred.testutils.unimplemented
+import java.sql.ResultSet
+import java.sql.ResultSetMetaData
+import java.sql.Types
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+class ResultShapeCacheTest {
+
+    private val cache = ResultShapeCache(DefaultDialect(), 10)
+
+    @Test
+    fun `shapes are not cached by default`() {
+        val metadata = CountingMetaData(listOf(String::class.java))
+
+        cache.getTypes("select name from person", resultSet(metadata))
+        cache.getTypes("select name from person", resultSet(metadata))
+
+        assertEquals(2, metadata.columnIntrospections)
+    }
+
+    @Test
+    fun `cached shapes skip column introspection`() {
+        cache.isEnabled = true
+        val metadata = CountingMetaData(listOf(String::class.java, Int::class.javaObjectType))
+
+        val first = cache.getTypes("select name, age from person", resultSet(metadata))
+        val second = cache.getTypes("select name, age from person", resultSet(metadata))
+
+        assertEquals(first, second)
+        assertEquals(listOf("column1", "column2"), second.names)
+        assertEquals(1, metadata.columnIntrospections)
+        assertEquals(1, cache.statistics.hits)
+    }
+
+    @Test
+    fun `shapes are recomputed when column count changes`() {
+        cache.isEnabled = true
+
+        cache.getColumns("select * from person", resultSet(CountingMetaData(listOf(String::class.java))))
+        val columns = cache.getColumns("select * from person", resultSet(CountingMetaData(listOf(String::class.java, Int::class.javaObjectType))))
+
+        assertEquals(2, columns.size)
+        assertEquals(Int::class.javaObjectType, columns[1].type)
+    }
+
+    @Test
+    fun `queries without sql are not cached`() {
+        cache.isEnabled = true
+        val metadata = CountingMetaData(listOf(String::class.java))
+
+        cache.getTypes(null, resultSet(metadata))
+        cache.getTypes(null, resultSet(metadata))
+
+        assertEquals(2, metadata.columnIntrospections)
+    }
+
+    private fun resultSet(metadata: ResultSetMetaData) = object : ResultSet by unimplemented() {
+        override fun getMetaData() = metadata
+    }
+
+    private class CountingMetaData(val types: List<Class<*>>) : ResultSetMetaData by unimplemented() {
+        var columnIntrospections = 0
+
+        override fun getColumnCount() = types.size
+        override fun getColumnLabel(column: Int): String {
+            if (column == 1) columnIntrospections++
+            return "column$column"
+        }
+        override fun getColumnClassName(column: Int): String = types[column - 1].name
+        override fun getColumnType(column: Int) = Types.OTHER
+        override fun getColumnTypeName(column: Int) = "other"
+    }
+}
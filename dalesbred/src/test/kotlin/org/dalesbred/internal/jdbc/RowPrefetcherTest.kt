@@ -0,0 +1,121 @@
+package org.dalesbred.internal.jdbc
+
+import org.dalesbred.testutils.unimplemented
+import java.sql.Blob
+import java.sql.Clob
+import java.sql.ResultSet
+import java.sql.SQLException
+import javax.sql.rowset.serial.SerialBlob
+import javax.sql.rowset.serial.SerialClob
+import kotlin.test.*
+
+class RowPrefetcherTest {
+
+    @Test
+    fun `rows are read in order across blocks`() {
+        val rows = (1..25).map { listOf<Any?>(it, "row $it") }
+
+        RowPrefetcher(FakeResultSet(rows), 2, 4, 2).use { prefetcher ->
+            assertEquals(rows, readAll(prefetcher))
+            assertNull(prefetcher.nextRow())
+        }
+    }
+
+    @Test
+    fun `failures are thrown after the rows read before them`() {
+        val rows = (1..10).map { listOf<Any?>(it, "row $it") }
+
+        RowPrefetcher(FakeResultSet(rows, failAfter = 6), 2, 4, 2).use { prefetcher ->
+            var count = 0
+            val e = assertFailsWith<SQLException> {
+                while (prefetcher.nextRow() != null)
+                    count++
+            }
+
+            assertEquals(6, count)
+            assertEquals("08000", e.sqlState)
+        }
+    }
+
+    @Test
+    fun `closing stops reading`() {
+        val source = FakeResultSet((1..1000).map { listOf<Any?>(it, "row $it") })
+
+        RowPrefetcher(source, 2, 4, 2).use { prefetcher ->
+            assertNotNull(prefetcher.nextRow())
+        }
+
+        assertTrue(source.rowsRead < 1000)
+    }
+
+    @Test
+    fun `large objects are detached from the result`() {
+        val blob = FreeTrackingBlob(byteArrayOf(1, 2, 3))
+        val clob = FreeTrackingClob("foo")
+
+        RowPrefetcher(FakeResultSet(listOf(listOf(blob, clob))), 2, 4, 2).use { prefetcher ->
+            val row = assertNotNull(prefetcher.nextRow())
+
+            assertNotSame<Any?>(blob, row[0])
+            assertContentEquals(byteArrayOf(1, 2, 3), (row[0] as Blob).getBytes(1, 3))
+            assertEquals("foo", (row[1] as Clob).getSubString(1, 3))
+            assertTrue(blob.freed)
+            assertTrue(clob.freed)
+        }
+    }
+
+    @Test
+    fun `values that can't be detached are rejected`() {
+        assertFalse(RowPrefetcher.canDetach(java.sql.Array::class.java))
+        assertFalse(RowPrefetcher.canDetach(java.sql.SQLXML::class.java))
+        assertFalse(RowPrefetcher.canDetach(Any::class.java))
+        assertTrue(RowPrefetcher.canDetach(String::class.java))
+        assertTrue(RowPrefetcher.canDetach(Blob::class.java))
+
+        val array = unimplemented<java.sql.Array>()
+        RowPrefetcher(FakeResultSet(listOf(listOf(1, array))), 2, 4, 2).use { prefetcher ->
+            assertFailsWith<SQLException> { prefetcher.nextRow() }
+        }
+    }
+
+    private fun readAll(prefetcher: RowPrefetcher): List<List<Any?>> {
+        val result = mutableListOf<List<Any?>>()
+        while (true) {
+            val row = prefetcher.nextRow() ?: return result
+            result += row.toList()
+        }
+    }
+
+    private class FreeTrackingBlob(data: ByteArray) : Blob by SerialBlob(data) {
+        var freed = false
+
+        override fun free() {
+            freed = true
+        }
+    }
+
+    private class FreeTrackingClob(text: String) : Clob by SerialClob(text.toCharArray()) {
+        var freed = false
+
+        override fun free() {
+            freed = true
+        }
+    }
+
+    class FakeResultSet(private val rows: List<List<Any?>>, private val failAfter: Int = Int.MAX_VALUE) : ResultSet by unimplemented() {
+        @Volatile
+        var rowsRead = 0
+
+        override fun next(): Boolean {
+            if (rowsRead == failAfter)
+                throw SQLException("connection lost", "08000")
+            if (rowsRead == rows.size)
+                return false
+
+            rowsRead++
+            return true
+        }
+
+        override fun getObject(columnIndex: Int): Any? = rows[rowsRead - 1][columnIndex - 1]
+    }
+}
@@ -1,12 +1,18 @@
 package org.dalesbred.internal.result
 
 import org.dalesbred.dialect.DefaultDialect
+import org.dalesbred.instantiation.GeneratedInstantiator
 import org.dalesbred.internal.instantiation.InstantiatorProvider
+import org.dalesbred.result.RowMappingEngine
+import org.dalesbred.result.UnexpectedResultException
 import org.dalesbred.testutils.unimplemented
+import java.lang.reflect.Type
 import java.sql.ResultSet
 import java.sql.ResultSetMetaData
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.fail
 
 class InstantiatorRowMapperTest {
 
@@ -47,8 +53,99 @@ class InstantiatorRowMapperTest {
         assertEquals("foo", list[0].str)
     }
 
+    @Test
+    fun `instantiating with compiled row mapper`() {
+        val registry = InstantiatorProvider(DefaultDialect())
+        registry.rowMappingEngine = RowMappingEngine.COMPILED
+
+        val list = InstantiatorRowMapper(SingleConstructor::class.java, registry).list()
+            .process(resultSet(listOf(listOf(1, "foo"), listOf(3, "bar"))))
+
+        assertEquals(2, list.size)
+        assertEquals(1, list[0].num)
+        assertEquals("foo", list[0].str)
+        assertEquals(3, list[1].num)
+        assertEquals("bar", list[1].str)
+    }
+
+    @Test
+    fun `compiled row mapper reads primitives without boxing`() {
+        val registry = InstantiatorProvider(DefaultDialect())
+        registry.rowMappingEngine = RowMappingEngine.COMPILED
+
+        val rows = listOf(listOf<Any>(1, 2.5f), listOf<Any>(3, 4.0f))
+        val resultSet = object : ResultSet by resultSet(rows) {
+            override fun getObject(columnIndex: Int): Any = fail("unexpected getObject($columnIndex)")
+        }
+
+        val list = InstantiatorRowMapper(PrimitiveConstructor::class.java, registry).list().process(resultSet)
+
+        assertEquals(listOf(1L, 3L), list.map { it.count })
+        assertEquals(listOf(2.5, 4.0), list.map { it.ratio })
+    }
+
+    @Test
+    fun `registered conversions are applied instead of widening primitives`() {
+        for (engine in RowMappingEngine.entries) {
+            val registry = InstantiatorProvider(DefaultDialect())
+            registry.rowMappingEngine = engine
+            registry.typeConversionRegistry.registerConversionFromDatabase(Int::class.javaObjectType, Long::class.javaObjectType) { it * 10L }
+
+            val list = InstantiatorRowMapper(PrimitiveConstructor::class.java, registry).list()
+                .process(resultSet(listOf(listOf(1, 2.5f))))
+
+            assertEquals(10L, list.single().count, "engine $engine")
+            assertEquals(2.5, list.single().ratio, "engine $engine")
+        }
+    }
+
+    @Test
+    fun `nulls for primitives are rejected the same way by both engines`() {
+        val metadata = metadataFromTypes(listOf(Int::class.javaObjectType, Float::class.javaObjectType))
+
+        for (engine in RowMappingEngine.entries) {
+            val registry = InstantiatorProvider(DefaultDialect())
+            registry.rowMappingEngine = engine
+
+            val exception = assertFailsWith<UnexpectedResultException>("engine $engine") {
+                InstantiatorRowMapper(PrimitiveConstructor::class.java, registry).list()
+                    .process(resultSet(listOf(listOf(null, 2.5f)), metadata))
+            }
+            assertEquals("Expected primitive value, but got null for column 'column 0'", exception.message)
+        }
+    }
+
+    @Test
+    fun `nulls for primitive record components are rejected by both engines`() {
+        val metadata = metadataFromTypes(listOf(Int::class.javaObjectType, Float::class.javaObjectType))
+
+        for (engine in RowMappingEngine.entries) {
+            for (cl in listOf(PrimitiveRecord::class.java, GeneratedPrimitiveRecord::class.java)) {
+                val registry = InstantiatorProvider(DefaultDialect())
+                registry.rowMappingEngine = engine
+
+                val rows = InstantiatorRowMapper(cl, registry).list().process(resultSet(listOf(listOf(1, 2.5f)), metadata))
+                assertEquals(1, rows.size, "engine $engine, $cl")
+
+                val exception = assertFailsWith<UnexpectedResultException>("engine $engine, $cl") {
+                    InstantiatorRowMapper(cl, registry).list()
+                        .process(resultSet(listOf(listOf(1, null)), metadata))
+                }
+                assertEquals("Expected primitive value, but got null for column 'column 1'", exception.message)
+            }
+        }
+    }
+
     class SingleConstructor(val num: Int, val str: String)
 
+    class PrimitiveConstructor(val count: Long, val ratio: Double)
+
+    @JvmRecord
+    data class PrimitiveRecord(val count: Long, val ratio: Double)
+
+    @JvmRecord
+    data class GeneratedPrimitiveRecord(val count: Long, val ratio: Double)
+
     class TwoConstructors(val num: Int, val str: String) {
 
         @Suppress("UNREACHABLE_CODE", "unused", "UNUSED_PARAMETER")
@@ -57,8 +154,9 @@ class InstantiatorRowMapperTest {
         )
     }
 
-    private fun resultSet(rows: List<List<Any>>, metadata: ResultSetMetaData = metadataFromTypes(rows.first().map { it.javaClass })) = object : ResultSet by unimplemented() {
+    private fun resultSet(rows: List<List<Any?>>, metadata: ResultSetMetaData = metadataFromTypes(rows.first().map { it!!.javaClass })) = object : ResultSet by unimplemented() {
         var index = -1
+        var lastNull = false
 
         override fun getMetaData() = metadata
         override fun next(): Boolean {
@@ -69,7 +167,16 @@ class InstantiatorRowMapperTest {
             return true
         }
 
-        override fun getObject(columnIndex: Int): Any = rows[index][columnIndex - 1]
+        override fun getObject(columnIndex: Int): Any? = read(columnIndex)
+        override fun getInt(columnIndex: Int) = (read(columnIndex) as Number?)?.toInt() ?: 0
+        override fun getFloat(columnIndex: Int) = (read(columnIndex) as Number?)?.toFloat() ?: 0f
+        override fun wasNull() = lastNull
+
+        private fun read(columnIndex: Int): Any? {
+            val value = rows[index][columnIndex - 1]
+            lastNull = value == null
+            return value
+        }
     }
 
     private fun metadataFromTypes(types: List<Class<*>>): ResultSetMetaData =
@@ -79,3 +186,18 @@ class InstantiatorRowMapperTest {
             override fun getColumnClassName(column: Int) = types[column - 1].name
         }
 }
+
+/**
+ * Stands for the class that dalesbred-processor would generate for [InstantiatorRowMapperTest.GeneratedPrimitiveRecord].
+ */
+@Suppress("ClassName", "unused")
+class InstantiatorRowMapperTest_GeneratedPrimitiveRecord_DalesbredInstantiator :
+    GeneratedInstantiator<InstantiatorRowMapperTest.GeneratedPrimitiveRecord> {
+
+    override fun getParameterTypes(): List<Type> =
+        listOf(Long::class.javaPrimitiveType!!, Double::class.javaPrimitiveType!!)
+
+    // Casts like the generated code, so a null fails with a NullPointerException unless rejected before
+    override fun instantiate(arguments: Array<Any?>) =
+        InstantiatorRowMapperTest.GeneratedPrimitiveRecord(arguments[0] as Long, arguments[1] as Double)
+}
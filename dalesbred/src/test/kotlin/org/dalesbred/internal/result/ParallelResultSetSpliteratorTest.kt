@@ -0,0 +1,76 @@
+package org.dalesbred.internal.result
+
+import org.dalesbred.dialect.DefaultDialect
+import org.dalesbred.testutils.unimplemented
+import java.sql.ResultSet
+import java.util.stream.StreamSupport
+import kotlin.test.*
+
+class ParallelResultSetSpliteratorTest {
+
+    @Test
+    fun `rows are returned in order across chunk boundaries`() {
+        for (count in listOf(0, 1, 9, 10, 11, 30, 1001)) {
+            val rows = StreamSupport.stream(spliterator(FakeResultSet(count), chunkSize = 10), true).toList()
+
+            assertEquals((1..count).toList(), rows, "rows: $count")
+        }
+    }
+
+    @Test
+    fun `splitting stops while too many chunks are outstanding`() {
+        val resultSet = FakeResultSet(100)
+        val spliterator = spliterator(resultSet, chunkSize = 10, maxOutstandingChunks = 2)
+
+        val first = assertNotNull(spliterator.trySplit())
+        assertNotNull(spliterator.trySplit())
+        assertNull(spliterator.trySplit())
+        assertEquals(20, resultSet.rowsRead)
+
+        first.forEachRemaining { }
+        assertNotNull(spliterator.trySplit())
+        assertEquals(30, resultSet.rowsRead)
+    }
+
+    @Test
+    fun `remaining rows are read sequentially when splitting stops`() {
+        val spliterator = spliterator(FakeResultSet(25), chunkSize = 10, maxOutstandingChunks = 1)
+
+        val chunk = assertNotNull(spliterator.trySplit())
+        assertNull(spliterator.trySplit())
+
+        val rows = mutableListOf<Int>()
+        chunk.forEachRemaining { rows += it }
+        spliterator.forEachRemaining { rows += it }
+
+        assertEquals((1..25).toList(), rows)
+    }
+
+    @Test
+    fun `short-circuiting operations stop reading`() {
+        val resultSet = FakeResultSet(100_000)
+
+        val rows = StreamSupport.stream(spliterator(resultSet, chunkSize = 10, maxOutstandingChunks = 4), true).limit(5).toList()
+
+        assertEquals(listOf(1, 2, 3, 4, 5), rows)
+        assertTrue(resultSet.rowsRead < 100_000)
+    }
+
+    private fun spliterator(resultSet: ResultSet, chunkSize: Int, maxOutstandingChunks: Int = 4) =
+        ParallelResultSetSpliterator<Int>(resultSet, 1, { row -> row[0] as Int }, DefaultDialect(), chunkSize, maxOutstandingChunks)
+
+    private class FakeResultSet(private val count: Int) : ResultSet by unimplemented() {
+        @Volatile
+        var rowsRead = 0
+
+        override fun next(): Boolean {
+            if (rowsRead == count)
+                return false
+
+            rowsRead++
+            return true
+        }
+
+        override fun getObject(columnIndex: Int): Any = rowsRead
+    }
+}
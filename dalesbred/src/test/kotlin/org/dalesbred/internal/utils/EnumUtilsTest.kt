@@ -1,6 +1,7 @@
 package org.dalesbred.internal.utils
 
 import org.dalesbred.DatabaseException
+import org.dalesbred.internal.instantiation.InstantiationFailureException
 import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFailsWith
@@ -24,4 +25,33 @@ class EnumUtilsTest {
             EnumUtils.enumByOrdinal(TestEnum::class.java, 4)
         }
     }
+
+    @Test
+    fun `enumsByKey finds constants by precomputed keys`() {
+        var keyCalls = 0
+        val lookup = EnumUtils.enumsByKey(TestEnum::class.java) { keyCalls++; it.name.lowercase() }
+
+        assertEquals(TestEnum.BAR, lookup.apply("bar"))
+        assertEquals(TestEnum.BAZ, lookup.apply("baz"))
+        assertEquals(3, keyCalls)
+    }
+
+    @Test
+    fun `enumsByKey with unknown key`() {
+        val lookup = EnumUtils.enumsByKey(TestEnum::class.java) { it.ordinal }
+
+        assertFailsWith<InstantiationFailureException> {
+            lookup.apply(4)
+        }
+    }
+
+    @Test
+    fun `valuesByEnum returns precomputed values`() {
+        var valueCalls = 0
+        val lookup = EnumUtils.valuesByEnum(TestEnum::class.java) { valueCalls++; it.ordinal * 10 }
+
+        assertEquals(10, lookup.apply(TestEnum.BAR))
+        assertEquals(20, lookup.apply(TestEnum.BAZ))
+        assertEquals(3, valueCalls)
+    }
 }
@@ -0,0 +1,41 @@
+package org.dalesbred.query
+
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class NamedParameterBatchTest {
+
+    @Test
+    fun `sql is parsed to positional placeholders`() {
+        val batch = NamedParameterBatch.parse("insert into person (id, name) values (:id, :name)")
+
+        assertEquals("insert into person (id, name) values (?, ?)", batch.sql)
+        assertEquals(listOf("id", "name"), batch.parameterNames)
+    }
+
+    @Test
+    fun `binding beans and maps`() {
+        val batch = NamedParameterBatch.parse("insert into person (id, name) values (:id, :name)")
+
+        assertEquals(listOf(1 to 42, 2 to "Fred"), bind(batch, Person(42, "Fred")))
+        assertEquals(listOf(1 to 43, 2 to null), bind(batch, mapOf("id" to 43, "name" to null)))
+        assertEquals(listOf(1 to 44, 2 to "Barney"), bind(batch, Person(44, "Barney")))
+    }
+
+    @Test
+    fun `binding unknown variable throws exception`() {
+        val batch = NamedParameterBatch.parse("insert into person (id) values (:unknown)")
+
+        assertFailsWith<VariableResolutionException> { bind(batch, Person(1, "Fred")) }
+        assertFailsWith<VariableResolutionException> { bind(batch, mapOf("id" to 1)) }
+    }
+
+    private fun bind(batch: NamedParameterBatch, beanOrMap: Any): List<Pair<Int, Any?>> {
+        val result = mutableListOf<Pair<Int, Any?>>()
+        batch.bind(beanOrMap) { index, value -> result += index to value }
+        return result
+    }
+
+    class Person(val id: Int, val name: String)
+}
@@ -0,0 +1,82 @@
+package org.dalesbred.result
+
+import kotlin.random.Random
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class IntKeyMapTest {
+
+    @Test
+    fun `basic operations`() {
+        val map = IntKeyMap<String>()
+
+        assertNull(map.put(0, "zero"))
+        assertNull(map.put(42, "foo"))
+        assertNull(map.put(-7, "baz"))
+        assertEquals("foo", map.put(42, "bar"))
+
+        assertEquals(3, map.size)
+        assertEquals("zero", map[0])
+        assertEquals("bar", map[42])
+        assertEquals("baz", map[-7])
+        assertNull(map[7])
+        assertTrue(map.containsKey(0))
+        assertFalse(map.containsKey(7))
+        assertEquals(mapOf(0 to "zero", 42 to "bar", -7 to "baz"), map)
+
+        assertEquals("zero", map.remove(0))
+        assertEquals("bar", map.remove(42))
+        assertNull(map.remove(42))
+        assertEquals(mapOf(-7 to "baz"), map)
+    }
+
+    @Test
+    fun `behaves like hash map under random updates`() {
+        val random = Random(42)
+        val map = IntKeyMap<Int>()
+        val expected = HashMap<Int, Int>()
+
+        repeat(50_000) { i ->
+            val key = random.nextInt(-100, 5000)
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(key), map.remove(key))
+            else
+                assertEquals(expected.put(key, i), map.put(key, i))
+        }
+
+        assertEquals(expected.size, map.size)
+        assertEquals(expected, map)
+    }
+
+    @Test
+    fun `grows past initial capacity`() {
+        val map = IntKeyMap<Int>()
+        for (i in 1..100_000)
+            map[i * 16] = i
+
+        assertEquals(100_000, map.size)
+        for (i in 1..100_000)
+            assertEquals(i, map[i * 16])
+        assertNull(map[8])
+    }
+
+    @Test
+    fun `presized map`() {
+        val map = IntKeyMap<Int>(1000)
+        for (i in 1..1000)
+            map[i * 1024] = i
+
+        assertEquals(1000, map.size)
+        assertEquals(500, map[500 * 1024])
+    }
+
+    @Test
+    fun `capacity overflow is rejected`() {
+        assertFailsWith<IllegalArgumentException> { IntKeyMap<Int>(-1) }
+        assertFailsWith<IllegalArgumentException> { IntKeyMap<Int>(Int.MAX_VALUE) }
+    }
+}
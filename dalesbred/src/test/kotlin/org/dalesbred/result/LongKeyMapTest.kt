@@ -0,0 +1,56 @@
+package org.dalesbred.result
+
+import kotlin.random.Random
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class LongKeyMapTest {
+
+    @Test
+    fun `basic operations`() {
+        val map = LongKeyMap<String>()
+
+        assertNull(map.put(0L, "zero"))
+        assertNull(map.put(42L, "foo"))
+        assertEquals("foo", map.put(42L, "bar"))
+
+        assertEquals(2, map.size)
+        assertEquals("zero", map[0L])
+        assertEquals("bar", map[42L])
+        assertNull(map[7L])
+        assertTrue(map.containsKey(0L))
+        assertFalse(map.containsKey(7L))
+        assertEquals(mapOf(0L to "zero", 42L to "bar"), map)
+    }
+
+    @Test
+    fun `behaves like hash map under random updates`() {
+        val random = Random(42)
+        val map = LongKeyMap<Int>()
+        val expected = HashMap<Long, Int>()
+
+        repeat(50_000) { i ->
+            val key = random.nextLong(-100, 5000)
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(key), map.remove(key))
+            else
+                assertEquals(expected.put(key, i), map.put(key, i))
+        }
+
+        assertEquals(expected.size, map.size)
+        assertEquals(expected, map)
+    }
+
+    @Test
+    fun `presized map`() {
+        val map = LongKeyMap<Long>(1000)
+        for (i in 1L..1000L)
+            map[i * 1024] = i
+
+        assertEquals(1000, map.size)
+        assertEquals(500L, map[500L * 1024])
+    }
+}
@@ -1,5 +1,6 @@
 rootProject.name = "dalesbred-root"
 include(":dalesbred")
+include(":dalesbred-processor")
 
 plugins {
     id("com.gradle.enterprise") version("3.7.2")